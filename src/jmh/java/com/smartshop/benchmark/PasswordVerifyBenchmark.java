@@ -0,0 +1,37 @@
+package com.smartshop.benchmark;
+
+import org.mindrot.jbcrypt.BCrypt;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded BCrypt verify latency per cost. One core sustains about {@code 1000 / score} logins per second
+ * at a given cost, which sizes smartshop.password-hashing.threads and the login capacity of a node.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PasswordVerifyBenchmark {
+
+    private static final String PASSWORD = "Sm4rt@Shop-2024";
+
+    @Param({"10", "11", "12", "13", "14"})
+    public int cost;
+
+    private String hashed;
+
+    @Setup
+    public void setUp() {
+        hashed = BCrypt.hashpw(PASSWORD, BCrypt.gensalt(cost));
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return BCrypt.checkpw(PASSWORD, hashed);
+    }
+}
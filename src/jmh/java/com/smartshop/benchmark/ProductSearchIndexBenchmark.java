@@ -0,0 +1,60 @@
+package com.smartshop.benchmark;
+
+import com.smartshop.entity.Product;
+import com.smartshop.search.ProductSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup latency of {@link ProductSearchIndex} alone, without the repository round trip of the search endpoint.
+ * One keyword per lookup kind: exact token, prefix, substring (trigrams), numeric range and a name term combined
+ * with a range.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ProductSearchIndexBenchmark {
+
+    private static final String[] NOUNS = {"Clavier", "Souris", "Écran", "Casque", "Câble", "Chargeur", "Tapis",
+            "Webcam", "Enceinte", "Microphone", "Disque", "Manette"};
+    private static final String[] ADJECTIVES = {"mécanique", "sans fil", "gaming", "USB-C", "compact", "pro",
+            "ergonomique", "rétroéclairé", "portable", "silencieux"};
+
+    @Param({"10000", "100000"})
+    public int products;
+
+    @Param({"clavier", "clav", "ergono", "prix:10..50", "souris stock:..5"})
+    public String keyword;
+
+    private ProductSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<Product> catalog = new ArrayList<>(products);
+        for (int i = 0; i < products; i++) {
+            catalog.add(Product.builder()
+                    .id("product-" + i)
+                    .nom(NOUNS[random.nextInt(NOUNS.length)] + " " + ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + i)
+                    .prix_unitair(BigDecimal.valueOf(500 + random.nextInt(50_000), 2))
+                    .stockDisponible(random.nextInt(200))
+                    .build());
+        }
+        index = new ProductSearchIndex();
+        index.rebuild(catalog);
+    }
+
+    @Benchmark
+    public ProductSearchIndex.SearchResult firstPage() {
+        return index.search(keyword, 0, 20);
+    }
+}
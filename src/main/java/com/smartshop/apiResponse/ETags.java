@@ -0,0 +1,45 @@
+package com.smartshop.apiResponse;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.CRC32;
+
+/**
+ * Strong ETags for conditional GETs. Single resources are tagged from their id and last modification time;
+ * list pages from the catalog version and the request URL, so a page can be answered with 304 before it is loaded.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String forEntity(String id, LocalDateTime updatedAt) {
+        if (id == null || updatedAt == null) {
+            return null;
+        }
+        long micros = updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + updatedAt.getNano() / 1_000;
+        return "\"" + id + "-" + Long.toString(micros, 36) + "\"";
+    }
+
+    public static String forPage(String catalogVersion, HttpServletRequest request) {
+        CRC32 crc = new CRC32();
+        crc.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+        if (request.getQueryString() != null) {
+            crc.update('?');
+            crc.update(request.getQueryString().getBytes(StandardCharsets.UTF_8));
+        }
+        return "\"catalog-" + catalogVersion + "-" + Long.toHexString(crc.getValue()) + "\"";
+    }
+
+    /**
+     * Sets the ETag header and returns true when the request's If-None-Match already matches it,
+     * in which case the response has been turned into a 304 and the handler should return null.
+     */
+    public static boolean notModified(WebRequest webRequest, String etag) {
+        return etag != null && webRequest.checkNotModified(etag);
+    }
+}
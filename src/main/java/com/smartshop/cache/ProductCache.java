@@ -0,0 +1,125 @@
+package com.smartshop.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.smartshop.dto.response.product.ProductCacheStatsDTO;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Reads, invalidation and statistics for the product read caches. Evictions run after commit, and a read that
+ * loaded the row while an eviction for it ran drops its own entry again, so a value loaded before a commit never
+ * outlives that commit's eviction.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductCache {
+
+    public static final String PRODUCTS = "products";
+    public static final String PRODUCTS_ADVANCED = "productsAdvanced";
+
+    private static final List<String> CACHE_NAMES = List.of(PRODUCTS, PRODUCTS_ADVANCED);
+
+    private static final Logger log = LoggerFactory.getLogger(ProductCache.class);
+
+    // eviction generations per stripe of product ids, so unrelated evictions rarely undo a fresh entry
+    private static final int GENERATION_STRIPES = 64;
+
+    private final CacheManager cacheManager;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    /**
+     * Returns the cached value or loads and caches it. The generation is read before loading and checked after
+     * the put: an eviction that started in between either removed the put already or is caught by the check.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String cacheName, String productId, Supplier<T> loader) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return loader.get();
+        }
+        Cache.ValueWrapper cached = cache.get(productId);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+
+        int stripe = stripe(productId);
+        long generation = generations.get(stripe);
+        T value = loader.get();
+        cache.put(productId, value);
+        if (generations.get(stripe) != generation) {
+            cache.evict(productId);
+            log.debug("Dropped product {} loaded during an eviction", productId);
+        }
+        return value;
+    }
+
+    public void evict(String productId) {
+        evictAll(Set.of(productId));
+    }
+
+    public void evictAll(Collection<String> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            doEvict(productIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                doEvict(productIds);
+            }
+        });
+    }
+
+    public List<ProductCacheStatsDTO> stats() {
+        return CACHE_NAMES.stream().map(this::stats).toList();
+    }
+
+    private ProductCacheStatsDTO stats(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null || !(cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine)) {
+            return ProductCacheStatsDTO.builder().cacheName(cacheName).enabled(false).build();
+        }
+
+        CacheStats stats = caffeine.stats();
+        return ProductCacheStatsDTO.builder()
+                .cacheName(cacheName)
+                .enabled(true)
+                .estimatedSize(caffeine.estimatedSize())
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .evictionCount(stats.evictionCount())
+                .hitRate(stats.hitRate())
+                .build();
+    }
+
+    private void doEvict(Collection<String> productIds) {
+        // bumped before evicting: a read that saw the old generation re-checks after its put
+        productIds.forEach(productId -> generations.incrementAndGet(stripe(productId)));
+        for (String cacheName : CACHE_NAMES) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                productIds.forEach(cache::evict);
+            }
+        }
+        log.debug("Evicted {} products from read caches", productIds.size());
+    }
+
+    private static int stripe(String productId) {
+        return Math.floorMod(productId.hashCode(), GENERATION_STRIPES);
+    }
+}
@@ -55,7 +55,10 @@ public class AuthFilter implements Filter {
 
 
     private boolean requiresClientRole(String uri, String method) {
-        if(uri.matches("/api/clients/[^/]+") && "GET".equals(method)) {
+        if(uri.equals("/api/clients/cursor") || uri.equals("/api/clients/autocomplete")
+                || uri.equals("/api/clients/leaderboard")) {
+            return false;
+        }else if(uri.matches("/api/clients/[^/]+") && "GET".equals(method)) {
             return true;
         }else if(uri.matches("/api/clients/[^/]+/with-user") && "GET".equals(method)) {
             return true;
@@ -0,0 +1,30 @@
+package com.smartshop.config;
+
+import com.smartshop.repository.ClientRepository;
+import com.smartshop.repository.ClientStatisticsRepository;
+import com.smartshop.service.ClientStatisticsService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ClientStatisticsInitializer implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientStatisticsInitializer.class);
+
+    private final ClientStatisticsRepository clientStatisticsRepository;
+    private final ClientRepository clientRepository;
+    private final ClientStatisticsService clientStatisticsService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (clientStatisticsRepository.count() < clientRepository.count()) {
+            log.info("Client statistics are missing for some clients, rebuilding them from commandes");
+            clientStatisticsService.rebuildAll();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.smartshop.config;
+
+import com.smartshop.enums.OrderStatus;
+import com.smartshop.repository.OrderStatusCounterRepository;
+import com.smartshop.service.OrderService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class OrderStatisticsInitializer implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderStatisticsInitializer.class);
+
+    private final OrderStatusCounterRepository orderStatusCounterRepository;
+    private final OrderService orderService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (orderStatusCounterRepository.count() < OrderStatus.values().length) {
+            log.info("Order status counters are not initialised, rebuilding them from commandes");
+            orderService.rebuildOrderStatistics();
+        }
+    }
+}
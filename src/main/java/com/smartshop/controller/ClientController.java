@@ -3,10 +3,23 @@ package com.smartshop.controller;
 import com.smartshop.apiResponse.ApiResponse;
 import com.smartshop.dto.requist.createRequistDto.UserClientRegistrationDTO;
 import com.smartshop.dto.requist.updateRequistDto.ClientUpdateDTO;
+import com.smartshop.dto.response.CursorPageDTO;
+import com.smartshop.dto.response.PasswordHashingStatsDTO;
+import com.smartshop.dto.response.client.BulkClientRegistrationJobDTO;
+import com.smartshop.dto.response.client.ClientOverviewDTO;
 import com.smartshop.dto.response.client.ClientResponseDTO;
 import com.smartshop.dto.response.client.ClientStatisticsDTO;
+import com.smartshop.dto.response.client.ClientSuggestionDTO;
 import com.smartshop.dto.response.client.ClientWithUserResponseDTO;
+import com.smartshop.dto.response.client.LeaderboardEntryDTO;
+import com.smartshop.dto.response.client.TierRecomputeReportDTO;
+import com.smartshop.enums.ClientTier;
+import com.smartshop.enums.LeaderboardMetric;
+import com.smartshop.service.ClientBulkRegistrationService;
+import com.smartshop.service.ClientOverviewService;
 import com.smartshop.service.ClientService;
+import com.smartshop.service.ClientStatisticsService;
+import com.smartshop.service.ClientTierService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -17,12 +30,19 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/clients")
 @RequiredArgsConstructor
 public class ClientController {
 
     private final ClientService clientService;
+    private final ClientBulkRegistrationService clientBulkRegistrationService;
+    private final ClientOverviewService clientOverviewService;
+    private final ClientTierService clientTierService;
+    private final ClientStatisticsService clientStatisticsService;
     private final HttpServletRequest request;
 
     @PostMapping
@@ -40,6 +60,38 @@ public class ClientController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<ApiResponse<BulkClientRegistrationJobDTO>> createClientsInBulk(
+            @RequestBody List<UserClientRegistrationDTO> registrations) {
+
+        BulkClientRegistrationJobDTO job = clientBulkRegistrationService.submit(registrations);
+
+        ApiResponse<BulkClientRegistrationJobDTO> response = ApiResponse.success(
+                job,
+                "Bulk registration of " + job.getTotalRows() + " clients accepted"
+        );
+        response.setPath(request.getRequestURI());
+
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/clients/bulk/" + job.getId()))
+                .body(response);
+    }
+
+    @GetMapping("/bulk/{jobId}")
+    public ResponseEntity<ApiResponse<BulkClientRegistrationJobDTO>> getBulkRegistrationJob(
+            @PathVariable String jobId) {
+
+        BulkClientRegistrationJobDTO job = clientBulkRegistrationService.getJob(jobId);
+
+        ApiResponse<BulkClientRegistrationJobDTO> response = ApiResponse.success(
+                job,
+                "Bulk registration job retrieved successfully"
+        );
+        response.setPath(request.getRequestURI());
+
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<ClientResponseDTO>> getClientById(
             @PathVariable String id) {
@@ -70,6 +122,21 @@ public class ClientController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/{id}/overview")
+    public ResponseEntity<ApiResponse<ClientOverviewDTO>> getClientOverview(
+            @PathVariable String id) {
+
+        ClientOverviewDTO overview = clientOverviewService.getOverview(id);
+
+        ApiResponse<ClientOverviewDTO> response = ApiResponse.success(
+                overview,
+                overview.isPartial() ? "Client overview partially retrieved" : "Client overview retrieved successfully"
+        );
+        response.setPath(request.getRequestURI());
+
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping
     public ResponseEntity<ApiResponse<Page<ClientResponseDTO>>> getAllClients(
             @PageableDefault(page = 0, size = 20, sort = "nom") Pageable pageable) {
@@ -85,6 +152,56 @@ public class ClientController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/cursor")
+    public ResponseEntity<ApiResponse<CursorPageDTO<ClientResponseDTO>>> getClientsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        CursorPageDTO<ClientResponseDTO> clients = clientService.getClientsByCursor(cursor, limit, includeTotal);
+
+        ApiResponse<CursorPageDTO<ClientResponseDTO>> response = ApiResponse.success(
+                clients,
+                "Clients retrieved successfully"
+        );
+        response.setPath(request.getRequestURI());
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/autocomplete")
+    public ResponseEntity<ApiResponse<List<ClientSuggestionDTO>>> autocompleteClients(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        List<ClientSuggestionDTO> suggestions = clientService.autocomplete(q, limit);
+
+        ApiResponse<List<ClientSuggestionDTO>> response = ApiResponse.success(
+                suggestions,
+                "Client suggestions retrieved successfully"
+        );
+        response.setPath(request.getRequestURI());
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/leaderboard")
+    public ResponseEntity<ApiResponse<List<LeaderboardEntryDTO>>> getLeaderboard(
+            @RequestParam(defaultValue = "SPENT") LeaderboardMetric by,
+            @RequestParam(required = false) ClientTier tier,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        List<LeaderboardEntryDTO> leaderboard = clientService.getLeaderboard(by, tier, limit);
+
+        ApiResponse<List<LeaderboardEntryDTO>> response = ApiResponse.success(
+                leaderboard,
+                "Client leaderboard retrieved successfully"
+        );
+        response.setPath(request.getRequestURI());
+
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/with-user")
     public ResponseEntity<ApiResponse<Page<ClientWithUserResponseDTO>>> getAllClientsWithUser(
             @PageableDefault(page = 0, size = 20, sort = "nom") Pageable pageable) {
@@ -151,6 +268,61 @@ public class ClientController {
         return ResponseEntity.ok(ApiResponse.success(stats, "Client statistics retrieved successfully"));
     }
 
-}
+    @PostMapping("/statistics/rebuild")
+    public ResponseEntity<ApiResponse<Long>> rebuildClientStatistics() {
+
+        long rebuilt = clientStatisticsService.rebuildAll();
+
+        ApiResponse<Long> response = ApiResponse.success(
+                rebuilt,
+                "Client statistics rebuilt successfully"
+        );
+        response.setPath(request.getRequestURI());
+
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/tiers/recompute")
+    public ResponseEntity<ApiResponse<TierRecomputeReportDTO>> recomputeTiers() {
+
+        TierRecomputeReportDTO report = clientTierService.startRecompute();
 
+        ApiResponse<TierRecomputeReportDTO> response = ApiResponse.success(
+                report,
+                "Client tier recompute started"
+        );
+        response.setPath(request.getRequestURI());
+
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/clients/tiers/recompute"))
+                .body(response);
+    }
+
+    @GetMapping("/tiers/recompute")
+    public ResponseEntity<ApiResponse<TierRecomputeReportDTO>> getTierRecomputeProgress() {
+
+        TierRecomputeReportDTO report = clientTierService.getProgress();
+
+        ApiResponse<TierRecomputeReportDTO> response = ApiResponse.success(
+                report,
+                "Client tier recompute progress retrieved successfully"
+        );
+        response.setPath(request.getRequestURI());
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/password-hashing/stats")
+    public ResponseEntity<ApiResponse<PasswordHashingStatsDTO>> getPasswordHashingStats() {
+
+        PasswordHashingStatsDTO stats = clientService.getPasswordHashingStats();
+
+        ApiResponse<PasswordHashingStatsDTO> response = ApiResponse.success(
+                stats,
+                "Password hashing statistics retrieved successfully"
+        );
+        response.setPath(request.getRequestURI());
 
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,21 +1,32 @@
 package com.smartshop.controller;
 
 import com.smartshop.apiResponse.ApiResponse;
+import com.smartshop.apiResponse.ETags;
 import com.smartshop.dto.requist.createRequistDto.OrderCreateDTO;
 import com.smartshop.dto.requist.updateRequistDto.OrderUpdateDTO;
+import com.smartshop.dto.response.CursorPageDTO;
 import com.smartshop.dto.response.order.OrderAdvancedResponseDTO;
 import com.smartshop.dto.response.order.OrderResponseDTO;
 import com.smartshop.dto.response.order.OrderStatisticsDTO;
+import com.smartshop.enums.ExportFormat;
 import com.smartshop.enums.OrderStatus;
+import com.smartshop.service.IdempotencyService;
+import com.smartshop.service.OrderExportService;
 import com.smartshop.service.OrderService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -24,17 +35,26 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderExportService orderExportService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public ApiResponse<OrderResponseDTO> createOrder(@Valid @RequestBody OrderCreateDTO dto) {
-        OrderResponseDTO order = orderService.createOrder(dto);
+    public ApiResponse<OrderResponseDTO> createOrder(
+            @Valid @RequestBody OrderCreateDTO dto,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
+    ) {
+        OrderResponseDTO order = idempotencyService.execute("POST /api/orders", idempotencyKey, dto,
+                OrderResponseDTO.class, () -> orderService.createOrder(dto));
         return ApiResponse.success(order, "Order created successfully");
     }
 
     @GetMapping("/{orderId}")
-    public ApiResponse<OrderResponseDTO> getOrderById(@PathVariable String orderId) {
+    public ApiResponse<OrderResponseDTO> getOrderById(@PathVariable String orderId, WebRequest webRequest) {
         OrderResponseDTO order = orderService.getOrderById(orderId);
+        if (ETags.notModified(webRequest, ETags.forEntity(order.getId(), order.getLastModifiedDate()))) {
+            return null;
+        }
         return ApiResponse.success(order, "Order retrieved successfully");
     }
 
@@ -60,6 +80,32 @@ public class OrderController {
         return ApiResponse.success(orders, "Orders retrieved successfully");
     }
 
+    @GetMapping("/cursor")
+    public ApiResponse<CursorPageDTO<OrderResponseDTO>> getOrdersByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "false") boolean includeTotal
+    ) {
+        CursorPageDTO<OrderResponseDTO> orders = orderService.getOrdersByCursor(cursor, limit, includeTotal);
+        return ApiResponse.success(orders, "Orders retrieved successfully");
+    }
+
+    @GetMapping("/export")
+    public void exportOrders(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            HttpServletResponse response
+    ) throws IOException {
+        String extension = format == ExportFormat.CSV ? "csv" : "ndjson";
+        response.setContentType(format == ExportFormat.CSV ? "text/csv" : "application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"orders-" + from.toLocalDate() + "-" + to.toLocalDate() + "." + extension + "\"");
+
+        orderExportService.exportOrders(from, to, format, response.getOutputStream());
+    }
+
     @PutMapping("/{orderId}")
     public ApiResponse<OrderResponseDTO> updateOrder(
             @PathVariable String orderId,
@@ -98,4 +144,10 @@ public class OrderController {
         OrderStatisticsDTO stats = orderService.getOrderStatistics();
         return ApiResponse.success(stats, "Order statistics retrieved successfully");
     }
+
+    @PostMapping("/statistics/rebuild")
+    public ApiResponse<OrderStatisticsDTO> rebuildOrderStatistics() {
+        OrderStatisticsDTO stats = orderService.rebuildOrderStatistics();
+        return ApiResponse.success(stats, "Order statistics rebuilt successfully");
+    }
 }
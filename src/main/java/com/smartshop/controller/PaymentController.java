@@ -2,9 +2,11 @@ package com.smartshop.controller;
 
 import com.smartshop.apiResponse.ApiResponse;
 import com.smartshop.dto.requist.createRequistDto.PaymentCreateDTO;
+import com.smartshop.dto.response.CursorPageDTO;
 import com.smartshop.dto.response.payement.PaymentAdvancedResponseDTO;
 import com.smartshop.dto.response.payement.PaymentResponseDTO;
 import com.smartshop.enums.PaymentStatus;
+import com.smartshop.service.IdempotencyService;
 import com.smartshop.service.PaymentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -22,11 +24,16 @@ import java.util.List;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public ApiResponse<PaymentResponseDTO> createPayment(@Valid @RequestBody PaymentCreateDTO dto) {
-        PaymentResponseDTO payment = paymentService.createPayment(dto);
+    public ApiResponse<PaymentResponseDTO> createPayment(
+            @Valid @RequestBody PaymentCreateDTO dto,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
+    ) {
+        PaymentResponseDTO payment = idempotencyService.execute("POST /api/payments", idempotencyKey, dto,
+                PaymentResponseDTO.class, () -> paymentService.createPayment(dto));
         return ApiResponse.success(payment, "Payment created successfully");
     }
 
@@ -58,6 +65,16 @@ public class PaymentController {
         return ApiResponse.success(payments, "Payments retrieved successfully");
     }
 
+    @GetMapping("/cursor")
+    public ApiResponse<CursorPageDTO<PaymentResponseDTO>> getPaymentsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "false") boolean includeTotal
+    ) {
+        CursorPageDTO<PaymentResponseDTO> payments = paymentService.getPaymentsByCursor(cursor, limit, includeTotal);
+        return ApiResponse.success(payments, "Payments retrieved successfully");
+    }
+
     @PatchMapping("/{paymentId}/status")
     public ApiResponse<PaymentResponseDTO> updatePaymentStatus(
             @PathVariable String paymentId,
@@ -1,10 +1,21 @@
 package com.smartshop.controller;
 
 import com.smartshop.apiResponse.ApiResponse;
+import com.smartshop.apiResponse.ETags;
 import com.smartshop.dto.requist.createRequistDto.CreateProductDTO;
+import com.smartshop.dto.requist.searchRequistDto.ProductSearchCriteriaDTO;
+import com.smartshop.dto.requist.updateRequistDto.StockAdjustmentDTO;
 import com.smartshop.dto.requist.updateRequistDto.UpdateProductDTO;
+import com.smartshop.dto.response.CursorPageDTO;
+import com.smartshop.dto.response.product.LowStockAlertDTO;
 import com.smartshop.dto.response.product.ProductAdvancedResponseDTO;
+import com.smartshop.dto.response.product.ProductCacheStatsDTO;
+import com.smartshop.dto.response.product.ProductImportReportDTO;
 import com.smartshop.dto.response.product.ProductResponseDTO;
+import com.smartshop.dto.response.product.StockLevelDTO;
+import com.smartshop.enums.ImportFormat;
+import com.smartshop.service.LowStockAlertService;
+import com.smartshop.service.ProductImportService;
 import com.smartshop.service.ProductService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
@@ -14,9 +25,15 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -25,6 +42,8 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final LowStockAlertService lowStockAlertService;
     private final HttpServletRequest request;
 
     @PostMapping
@@ -42,11 +61,35 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<ProductImportReportDTO>> importProducts(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "CSV") ImportFormat format) throws IOException {
+
+        ProductImportReportDTO report;
+        try (InputStream input = file.getInputStream()) {
+            report = productImportService.importProducts(input, format);
+        }
+
+        ApiResponse<ProductImportReportDTO> response = ApiResponse.success(
+                report,
+                "Product import completed: " + report.getImported() + " imported, " + report.getRejected() + " rejected, "
+                        + report.getFailed() + " failed"
+        );
+        response.setPath(request.getRequestURI());
+
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<ProductResponseDTO>> getProductById(
-            @PathVariable String id) {
+            @PathVariable String id,
+            WebRequest webRequest) {
 
         ProductResponseDTO product = productService.getById(id);
+        if (ETags.notModified(webRequest, ETags.forEntity(product.getId(), product.getUpdatedAt()))) {
+            return null;
+        }
 
         ApiResponse<ProductResponseDTO> response = ApiResponse.success(
                 product,
@@ -59,9 +102,13 @@ public class ProductController {
 
     @GetMapping("/{id}/advanced")
     public ResponseEntity<ApiResponse<ProductAdvancedResponseDTO>> getProductAdvancedById(
-            @PathVariable String id) {
+            @PathVariable String id,
+            WebRequest webRequest) {
 
         ProductAdvancedResponseDTO product = productService.getAdvancedById(id);
+        if (ETags.notModified(webRequest, ETags.forEntity(product.getId(), product.getUpdatedAt()))) {
+            return null;
+        }
 
         ApiResponse<ProductAdvancedResponseDTO> response = ApiResponse.success(
                 product,
@@ -74,7 +121,13 @@ public class ProductController {
 
     @GetMapping
     public ResponseEntity<ApiResponse<Page<ProductResponseDTO>>> getAllProducts(
-            @PageableDefault(page = 0, size = 20, sort = "nom") Pageable pageable) {
+            @PageableDefault(page = 0, size = 20, sort = "nom") Pageable pageable,
+            WebRequest webRequest) {
+
+        // the version is read before the page so a concurrent change can only make the tag older, never newer
+        if (ETags.notModified(webRequest, ETags.forPage(productService.getCatalogVersion(), request))) {
+            return null;
+        }
 
         Page<ProductResponseDTO> products = productService.getAll(pageable);
 
@@ -87,9 +140,36 @@ public class ProductController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/cursor")
+    public ResponseEntity<ApiResponse<CursorPageDTO<ProductResponseDTO>>> getProductsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            WebRequest webRequest) {
+
+        if (ETags.notModified(webRequest, ETags.forPage(productService.getCatalogVersion(), request))) {
+            return null;
+        }
+
+        CursorPageDTO<ProductResponseDTO> products = productService.getProductsByCursor(cursor, limit, includeTotal);
+
+        ApiResponse<CursorPageDTO<ProductResponseDTO>> response = ApiResponse.success(
+                products,
+                "Products retrieved successfully"
+        );
+        response.setPath(request.getRequestURI());
+
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/advanced")
     public ResponseEntity<ApiResponse<Page<ProductAdvancedResponseDTO>>> getAllProductsAdvanced(
-            @PageableDefault(page = 0, size = 20, sort = "nom") Pageable pageable) {
+            @PageableDefault(page = 0, size = 20, sort = "nom") Pageable pageable,
+            WebRequest webRequest) {
+
+        if (ETags.notModified(webRequest, ETags.forPage(productService.getCatalogVersion(), request))) {
+            return null;
+        }
 
         Page<ProductAdvancedResponseDTO> products = productService.getAllAdvanced(pageable);
 
@@ -104,7 +184,12 @@ public class ProductController {
 
     @GetMapping("/in-stock")
     public ResponseEntity<ApiResponse<Page<ProductAdvancedResponseDTO>>> getAllInStock(
-            @PageableDefault(page = 0, size = 20, sort = "nom") Pageable pageable) {
+            @PageableDefault(page = 0, size = 20, sort = "nom") Pageable pageable,
+            WebRequest webRequest) {
+
+        if (ETags.notModified(webRequest, ETags.forPage(productService.getCatalogVersion(), request))) {
+            return null;
+        }
 
         Page<ProductAdvancedResponseDTO> products = productService.getAllInStock(pageable);
 
@@ -119,13 +204,40 @@ public class ProductController {
 
 
     @GetMapping("/search")
-    public ResponseEntity<ApiResponse<List<ProductResponseDTO>>> searchProducts(
+    public ResponseEntity<ApiResponse<Page<ProductResponseDTO>>> searchProducts(
             @RequestParam(required = false, defaultValue = "") String keyword,
-            HttpServletRequest request) {
+            @PageableDefault(page = 0, size = 20) Pageable pageable,
+            HttpServletRequest request,
+            WebRequest webRequest) {
+
+        if (ETags.notModified(webRequest, ETags.forPage(productService.getCatalogVersion(), request))) {
+            return null;
+        }
+
+        Page<ProductResponseDTO> products = productService.searchProducts(keyword, pageable);
+
+        ApiResponse<Page<ProductResponseDTO>> response = ApiResponse.success(
+                products,
+                "Products retrieved successfully"
+        );
+        response.setPath(request.getRequestURI());
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/filter")
+    public ResponseEntity<ApiResponse<Page<ProductResponseDTO>>> filterProducts(
+            @Valid @ModelAttribute ProductSearchCriteriaDTO criteria,
+            @PageableDefault(page = 0, size = 20, sort = "nom") Pageable pageable,
+            WebRequest webRequest) {
 
-        List<ProductResponseDTO> products = productService.searchProducts(keyword);
+        if (ETags.notModified(webRequest, ETags.forPage(productService.getCatalogVersion(), request))) {
+            return null;
+        }
 
-        ApiResponse<List<ProductResponseDTO>> response = ApiResponse.success(
+        Page<ProductResponseDTO> products = productService.filterProducts(criteria, pageable);
+
+        ApiResponse<Page<ProductResponseDTO>> response = ApiResponse.success(
                 products,
                 "Products retrieved successfully"
         );
@@ -134,9 +246,28 @@ public class ProductController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/cache/stats")
+    public ResponseEntity<ApiResponse<List<ProductCacheStatsDTO>>> getCacheStatistics() {
+
+        List<ProductCacheStatsDTO> stats = productService.getCacheStatistics();
+
+        ApiResponse<List<ProductCacheStatsDTO>> response = ApiResponse.success(
+                stats,
+                "Product cache statistics retrieved successfully"
+        );
+        response.setPath(request.getRequestURI());
+
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/out-of-stock")
     public ResponseEntity<ApiResponse<Page<ProductAdvancedResponseDTO>>> getAllOutOfStock(
-            @PageableDefault(page = 0, size = 20, sort = "nom") Pageable pageable) {
+            @PageableDefault(page = 0, size = 20, sort = "nom") Pageable pageable,
+            WebRequest webRequest) {
+
+        if (ETags.notModified(webRequest, ETags.forPage(productService.getCatalogVersion(), request))) {
+            return null;
+        }
 
         Page<ProductAdvancedResponseDTO> products = productService.getAllOutOfStock(pageable);
 
@@ -149,6 +280,28 @@ public class ProductController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping(value = "/low-stock/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLowStockAlerts(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+
+        return lowStockAlertService.subscribe(lastEventId);
+    }
+
+    @GetMapping("/low-stock/alerts")
+    public ResponseEntity<ApiResponse<List<LowStockAlertDTO>>> getRecentLowStockAlerts(
+            @RequestParam(required = false) Long after) {
+
+        List<LowStockAlertDTO> alerts = lowStockAlertService.getRecentAlerts(after);
+
+        ApiResponse<List<LowStockAlertDTO>> response = ApiResponse.success(
+                alerts,
+                "Low-stock alerts retrieved successfully"
+        );
+        response.setPath(request.getRequestURI());
+
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/deleted/{Boolean}")
     public ResponseEntity<ApiResponse<Page<ProductResponseDTO>>> getDeletedProducts(
             @RequestParam(defaultValue = "0") int page,
@@ -176,6 +329,21 @@ public class ProductController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/stock/adjustments")
+    public ResponseEntity<ApiResponse<List<StockLevelDTO>>> adjustStock(
+            @Valid @RequestBody StockAdjustmentDTO dto) {
+
+        List<StockLevelDTO> levels = productService.adjustStock(dto);
+
+        ApiResponse<List<StockLevelDTO>> response = ApiResponse.success(
+                levels,
+                "Stock adjusted successfully"
+        );
+        response.setPath(request.getRequestURI());
+
+        return ResponseEntity.ok(response);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse<Void>> deleteProduct(@PathVariable String id) {
 
@@ -27,5 +27,8 @@ public class CreateProductDTO {
     @Digits(integer = 10, fraction = 2, message = "Stock must have maximum 10 integer digits and 2 decimal digits")
     @Builder.Default
     private Integer stockDisponible = 0;
+
+    @Min(value = 0, message = "Reorder threshold must be 0 or greater")
+    private Integer reorderThreshold;
 }
 
@@ -0,0 +1,30 @@
+package com.smartshop.dto.requist.searchRequistDto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchCriteriaDTO {
+
+    private String keyword;
+
+    @DecimalMin(value = "0", message = "Minimum price must be 0 or greater")
+    private BigDecimal minPrice;
+
+    @DecimalMin(value = "0", message = "Maximum price must be 0 or greater")
+    private BigDecimal maxPrice;
+
+    @Min(value = 0, message = "Minimum stock must be 0 or greater")
+    private Integer minStock;
+
+    private boolean includeDeleted;
+}
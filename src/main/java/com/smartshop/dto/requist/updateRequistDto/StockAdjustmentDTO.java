@@ -0,0 +1,41 @@
+package com.smartshop.dto.requist.updateRequistDto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockAdjustmentDTO {
+
+    @NotEmpty(message = "Stock adjustment must contain at least one item")
+    @Size(max = 1000, message = "Stock adjustment cannot contain more than 1000 items")
+    private List<@Valid StockDeltaDTO> items;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class StockDeltaDTO {
+
+        @NotNull(message = "Product ID is required")
+        private String produitId;
+
+        @NotNull(message = "Stock delta is required")
+        private Integer delta;
+
+        @JsonIgnore
+        @AssertTrue(message = "Stock delta cannot be zero")
+        public boolean isNonZeroDelta() {
+            return delta == null || delta != 0;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.smartshop.dto.requist.updateRequistDto;
 
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -24,5 +25,8 @@ public class UpdateProductDTO {
     @DecimalMin(value = "0", message = "Stock must be 0 or greater")
     @Digits(integer = 10, fraction = 2, message = "Stock must have maximum 10 integer digits and 2 decimal digits")
         private Integer stockDisponible;
+
+    @Min(value = 0, message = "Reorder threshold must be 0 or greater")
+    private Integer reorderThreshold;
 }
 
@@ -0,0 +1,35 @@
+package com.smartshop.dto.response;
+
+import com.smartshop.pagination.Cursor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Data
+@Builder
+public class CursorPageDTO<T> {
+    private List<T> content;
+    private int limit;
+    private boolean hasNext;
+    private String nextCursor;
+    private Long totalElements;
+
+    /**
+     * Builds a page from rows fetched with {@code limit + 1}: the extra row only signals that a next page exists.
+     */
+    public static <E, T> CursorPageDTO<T> of(List<E> rows, int limit, Function<E, Cursor> position,
+                                             Function<E, T> mapper, Long totalElements) {
+        boolean hasNext = rows.size() > limit;
+        List<E> pageRows = hasNext ? rows.subList(0, limit) : rows;
+
+        return CursorPageDTO.<T>builder()
+                .content(pageRows.stream().map(mapper).toList())
+                .limit(limit)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? position.apply(pageRows.get(pageRows.size() - 1)).encode() : null)
+                .totalElements(totalElements)
+                .build();
+    }
+}
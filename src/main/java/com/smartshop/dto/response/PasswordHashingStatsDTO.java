@@ -0,0 +1,25 @@
+package com.smartshop.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PasswordHashingStatsDTO {
+    private int threads;
+    private int activeThreads;
+    private int queueDepth;
+    private int queueCapacity;
+    private int cost;
+    private long completed;
+    private long rejected;
+    private long timedOut;
+    private long rehashed;
+    private double averageHashMs;
+    private double maxHashMs;
+    private double averageQueueWaitMs;
+}
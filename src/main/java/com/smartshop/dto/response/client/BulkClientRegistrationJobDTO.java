@@ -0,0 +1,23 @@
+package com.smartshop.dto.response.client;
+
+import com.smartshop.enums.JobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkClientRegistrationJobDTO {
+    private String id;
+    private JobStatus status;
+    private int totalRows;
+    private LocalDateTime submittedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+    private BulkClientRegistrationReportDTO report;
+}
@@ -0,0 +1,36 @@
+package com.smartshop.dto.response.client;
+
+import com.smartshop.enums.RegistrationOutcome;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkClientRegistrationReportDTO {
+    private int totalRows;
+    private int created;
+    private int rejected;
+    private int failed;
+    private String error;
+    private long elapsedMs;
+    private List<RowResultDTO> rows;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowResultDTO {
+        private int index;
+        private String username;
+        private String email;
+        private RegistrationOutcome outcome;
+        private String clientId;
+        private String message;
+    }
+}
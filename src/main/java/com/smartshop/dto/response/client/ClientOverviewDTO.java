@@ -0,0 +1,27 @@
+package com.smartshop.dto.response.client;
+
+import com.smartshop.dto.response.order.OrderResponseDTO;
+import com.smartshop.dto.response.payement.PaymentResponseDTO;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientOverviewDTO {
+    private ClientWithUserResponseDTO client;
+    private List<OrderResponseDTO> recentOrders;
+    private List<OrderResponseDTO> outstandingOrders;
+    private BigDecimal outstandingBalance;
+    private List<PaymentResponseDTO> recentPayments;
+    private boolean partial;
+    private List<String> timedOutSections;
+    private List<String> failedSections;
+    private long elapsedMs;
+}
@@ -6,6 +6,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Data
 @Builder
@@ -18,5 +19,13 @@ public class ClientStatisticsDTO {
     private ClientTier tier;
     private Integer totalOrders;
     private BigDecimal totalSpent;
+    private BigDecimal averageOrderValue;
+    private Integer pendingOrders;
+    private BigDecimal pendingBalance;
+    private Integer cancelledOrders;
+    private LocalDateTime firstOrderDate;
+    private LocalDateTime lastOrderDate;
+    private BigDecimal spentLast30Days;
+    private BigDecimal spentLast90Days;
 
 }
@@ -0,0 +1,16 @@
+package com.smartshop.dto.response.client;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientSuggestionDTO {
+    private String id;
+    private String nom;
+    private String email;
+}
@@ -0,0 +1,22 @@
+package com.smartshop.dto.response.client;
+
+import com.smartshop.enums.ClientTier;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardEntryDTO {
+    private int rank;
+    private String clientId;
+    private String nom;
+    private ClientTier tier;
+    private Integer totalOrders;
+    private BigDecimal totalSpent;
+}
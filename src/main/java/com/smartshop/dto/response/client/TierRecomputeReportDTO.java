@@ -0,0 +1,25 @@
+package com.smartshop.dto.response.client;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TierRecomputeReportDTO {
+    private boolean running;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long scanned;
+    private long updated;
+    private long skippedConcurrentlyModified;
+    private long chunks;
+    private long elapsedMs;
+    private double clientsPerSecond;
+    private String error;
+}
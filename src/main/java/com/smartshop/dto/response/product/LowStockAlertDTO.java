@@ -0,0 +1,22 @@
+package com.smartshop.dto.response.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LowStockAlertDTO {
+    private long sequence;
+    private String productId;
+    private String nom;
+    private Integer stockDisponible;
+    private Integer availableStock;
+    private Integer reorderThreshold;
+    private LocalDateTime occurredAt;
+}
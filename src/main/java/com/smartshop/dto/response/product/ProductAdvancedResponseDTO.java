@@ -17,6 +17,8 @@ public class ProductAdvancedResponseDTO {
     private String nom;
     private BigDecimal prixUnitaire;
     private BigDecimal stockDisponible;
+    private Integer stockReserve;
+    private Integer reorderThreshold;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private boolean inStock;
@@ -0,0 +1,32 @@
+package com.smartshop.dto.response.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportReportDTO {
+    private long totalRows;
+    private long imported;
+    private long rejected;
+    private long failed;
+    private String error;
+    private boolean errorsTruncated;
+    private List<RowErrorDTO> errors;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowErrorDTO {
+        private long line;
+        private String nom;
+        private String message;
+    }
+}
@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Data
 @NoArgsConstructor
@@ -17,5 +18,6 @@ public class ProductResponseDTO {
     private String nom;
     private BigDecimal prixUnitaire;
     private BigDecimal stockDisponible;
+    private LocalDateTime updatedAt;
 }
 
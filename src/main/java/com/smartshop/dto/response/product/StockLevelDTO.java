@@ -0,0 +1,17 @@
+package com.smartshop.dto.response.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLevelDTO {
+    private String id;
+    private String nom;
+    private Integer stockDisponible;
+    private Integer stockReserve;
+}
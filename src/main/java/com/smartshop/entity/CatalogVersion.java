@@ -0,0 +1,19 @@
+package com.smartshop.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "catalog_version")
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CatalogVersion {
+
+    @Id
+    private Short id;
+
+    @Column(nullable = false)
+    private Long version;
+}
@@ -0,0 +1,124 @@
+package com.smartshop.entity;
+
+import com.smartshop.audit.Auditable;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Running aggregate of a client's orders. Confirmed spend is also kept per day in a ring of
+ * {@link #WINDOW_DAYS} buckets, so spend over the last 30 or 90 days is answered from this row alone.
+ */
+@Entity
+@Table(name = "client_statistics")
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ClientStatistics extends Auditable {
+
+    public static final int WINDOW_DAYS = 90;
+
+    @Id
+    @Column(name = "client_id")
+    private String clientId;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @MapsId
+    @JoinColumn(name = "client_id")
+    private Client client;
+
+    @Column(name = "order_count", nullable = false)
+    @Builder.Default
+    private Integer orderCount = 0;
+
+    @Column(name = "confirmed_orders", nullable = false)
+    @Builder.Default
+    private Integer confirmedOrders = 0;
+
+    @Column(name = "cancelled_orders", nullable = false)
+    @Builder.Default
+    private Integer cancelledOrders = 0;
+
+    @Column(name = "pending_orders", nullable = false)
+    @Builder.Default
+    private Integer pendingOrders = 0;
+
+    @Column(name = "confirmed_spent", nullable = false, precision = 14, scale = 2)
+    @Builder.Default
+    private BigDecimal confirmedSpent = BigDecimal.ZERO;
+
+    @Column(name = "pending_balance", nullable = false, precision = 14, scale = 2)
+    @Builder.Default
+    private BigDecimal pendingBalance = BigDecimal.ZERO;
+
+    @Column(name = "first_order_at")
+    private LocalDateTime firstOrderAt;
+
+    @Column(name = "last_order_at")
+    private LocalDateTime lastOrderAt;
+
+    @Column(name = "bucket_day", nullable = false)
+    @Builder.Default
+    private Long bucketDay = LocalDate.now().toEpochDay();
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "daily_spend", nullable = false, columnDefinition = "numeric[]")
+    @Builder.Default
+    private BigDecimal[] dailySpend = emptyBuckets();
+
+    public void recordOrderPlaced(LocalDateTime placedAt) {
+        if (firstOrderAt == null || placedAt.isBefore(firstOrderAt)) {
+            firstOrderAt = placedAt;
+        }
+        if (lastOrderAt == null || placedAt.isAfter(lastOrderAt)) {
+            lastOrderAt = placedAt;
+        }
+    }
+
+    public void addDailySpend(LocalDate day, BigDecimal amount) {
+        long target = day.toEpochDay();
+        // a fresh copy lets dirty checking see the change
+        BigDecimal[] buckets = Arrays.copyOf(dailySpend, WINDOW_DAYS);
+        if (target > bucketDay) {
+            for (long d = Math.max(bucketDay + 1, target - WINDOW_DAYS + 1); d <= target; d++) {
+                buckets[index(d)] = BigDecimal.ZERO;
+            }
+            bucketDay = target;
+        } else if (target <= bucketDay - WINDOW_DAYS) {
+            return;
+        }
+        buckets[index(target)] = buckets[index(target)].add(amount);
+        dailySpend = buckets;
+    }
+
+    /**
+     * Confirmed spend over the {@code days} days ending with {@code today}, at most {@link #WINDOW_DAYS}.
+     */
+    public BigDecimal spendOverLastDays(LocalDate today, int days) {
+        long end = Math.min(today.toEpochDay(), bucketDay);
+        long start = Math.max(today.toEpochDay() - Math.min(days, WINDOW_DAYS) + 1, bucketDay - WINDOW_DAYS + 1);
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (long d = start; d <= end; d++) {
+            total = total.add(dailySpend[index(d)]);
+        }
+        return total;
+    }
+
+    public static BigDecimal[] emptyBuckets() {
+        BigDecimal[] buckets = new BigDecimal[WINDOW_DAYS];
+        Arrays.fill(buckets, BigDecimal.ZERO);
+        return buckets;
+    }
+
+    private static int index(long epochDay) {
+        return (int) Math.floorMod(epochDay, (long) WINDOW_DAYS);
+    }
+}
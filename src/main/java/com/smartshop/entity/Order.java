@@ -10,7 +10,11 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "commandes")
+@Table(name = "commandes", indexes = {
+        @Index(name = "idx_commandes_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_commandes_client_id", columnList = "client_id"),
+        @Index(name = "idx_commandes_statut", columnList = "statut")
+})
 @Getter @Setter
 @NoArgsConstructor
 @AllArgsConstructor
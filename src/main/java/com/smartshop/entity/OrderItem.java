@@ -7,7 +7,7 @@ import lombok.*;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "commande_items")
+@Table(name = "commande_items", indexes = @Index(name = "idx_commande_items_produit_id", columnList = "produit_id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
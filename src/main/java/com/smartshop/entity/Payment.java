@@ -10,7 +10,11 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = {
+        @Index(name = "idx_payments_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_payments_order_id", columnList = "order_id"),
+        @Index(name = "idx_payments_payment_status", columnList = "payment_status")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -7,12 +7,18 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 
 @Builder
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_products_deleted_stock", columnList = "deleted, stock"),
+        @Index(name = "idx_products_deleted_prix", columnList = "deleted, prix"),
+        @Index(name = "idx_products_name", columnList = "name")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -32,6 +38,14 @@ public class Product extends Auditable {
     @Column(name = "stock")
     private Integer stockDisponible;
 
+    @Column(name = "stock_reserve", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer stockReserve = 0;
+
+    @Column(name = "reorder_threshold")
+    private Integer reorderThreshold;
+
     @Column(name = "deleted", nullable = false)
     @Builder.Default
     private Boolean deleted = false;
@@ -39,4 +53,10 @@ public class Product extends Auditable {
     @Column(name = "deleted_at")
     private java.time.LocalDateTime deletedAt;
 
+    public int availableStock() {
+        int stock = stockDisponible != null ? stockDisponible : 0;
+        int reserved = stockReserve != null ? stockReserve : 0;
+        return stock - reserved;
+    }
+
 }
@@ -0,0 +1,6 @@
+package com.smartshop.enums;
+
+public enum ExportFormat {
+    NDJSON,
+    CSV
+}
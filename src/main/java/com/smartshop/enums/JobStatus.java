@@ -0,0 +1,8 @@
+package com.smartshop.enums;
+
+public enum JobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,7 @@
+package com.smartshop.enums;
+
+public enum RegistrationOutcome {
+    CREATED,
+    REJECTED,
+    FAILED
+}
@@ -0,0 +1,8 @@
+package com.smartshop.enums;
+
+public enum ReservationStatus {
+    ACTIVE,
+    CONFIRMED,
+    RELEASED,
+    EXPIRED
+}
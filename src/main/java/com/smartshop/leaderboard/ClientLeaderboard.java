@@ -0,0 +1,158 @@
+package com.smartshop.leaderboard;
+
+import com.smartshop.entity.Client;
+import com.smartshop.enums.ClientTier;
+import com.smartshop.enums.LeaderboardMetric;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Clients ranked by total spent and by total orders, overall and per tier, in concurrent skip lists, so a
+ * top-N read walks the head of one list without touching the database. Writes made inside a transaction are
+ * applied after it commits. A reader may briefly miss a client whose rank is changing.
+ */
+@Component
+public class ClientLeaderboard {
+
+    private static final Comparator<Entry> BY_SPENT = Comparator.comparing(Entry::totalSpent, Comparator.reverseOrder())
+            .thenComparing(Entry::totalOrders, Comparator.reverseOrder())
+            .thenComparing(Entry::clientId);
+    private static final Comparator<Entry> BY_ORDERS = Comparator.comparing(Entry::totalOrders, Comparator.reverseOrder())
+            .thenComparing(Entry::totalSpent, Comparator.reverseOrder())
+            .thenComparing(Entry::clientId);
+
+    private final Map<LeaderboardMetric, NavigableSet<Entry>> overall = rankings();
+    private final Map<ClientTier, Map<LeaderboardMetric, NavigableSet<Entry>>> perTier = new EnumMap<>(ClientTier.class);
+    private final ConcurrentHashMap<String, Entry> byId = new ConcurrentHashMap<>();
+    // ids removed while a load is running, so the load does not bring them back
+    private final Set<String> removedDuringLoad = ConcurrentHashMap.newKeySet();
+    private volatile boolean loading;
+
+    public ClientLeaderboard() {
+        for (ClientTier tier : ClientTier.values()) {
+            perTier.put(tier, rankings());
+        }
+    }
+
+    public void update(Client client) {
+        Entry entry = new Entry(client.getId(), client.getNom(), client.getTier(), client.getTotalOrders(), client.getTotalSpent());
+        afterCommit(() -> apply(entry));
+    }
+
+    public void updateTier(String clientId, ClientTier tier) {
+        afterCommit(() -> byId.computeIfPresent(clientId, (key, previous) -> {
+            Entry moved = new Entry(previous.clientId(), previous.nom(), tier, previous.totalOrders(), previous.totalSpent());
+            unlink(previous);
+            link(moved);
+            return moved;
+        }));
+    }
+
+    public void remove(String clientId) {
+        afterCommit(() -> {
+            if (loading) {
+                removedDuringLoad.add(clientId);
+            }
+            byId.computeIfPresent(clientId, (key, previous) -> {
+                unlink(previous);
+                return null;
+            });
+        });
+    }
+
+    public List<Entry> top(LeaderboardMetric metric, ClientTier tier, int limit) {
+        NavigableSet<Entry> ranking = tier == null ? overall.get(metric) : perTier.get(tier).get(metric);
+        Map<String, Entry> top = new LinkedHashMap<>();
+        for (Entry entry : ranking) {
+            if (top.size() == limit) {
+                break;
+            }
+            // the iterator is weakly consistent: a client moving up during the walk can show up twice
+            top.putIfAbsent(entry.clientId(), entry);
+        }
+        return new ArrayList<>(top.values());
+    }
+
+    public void beginLoad() {
+        removedDuringLoad.clear();
+        loading = true;
+    }
+
+    public void load(String clientId, String nom, ClientTier tier, int totalOrders, BigDecimal totalSpent) {
+        Entry entry = new Entry(clientId, nom, tier, totalOrders, totalSpent);
+        // live updates applied since the load started are newer than the row the load read
+        byId.computeIfAbsent(clientId, key -> {
+            if (removedDuringLoad.contains(clientId)) {
+                return null;
+            }
+            link(entry);
+            return entry;
+        });
+    }
+
+    public void finishLoad() {
+        loading = false;
+        removedDuringLoad.clear();
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    private void apply(Entry entry) {
+        byId.compute(entry.clientId(), (key, previous) -> {
+            // totals only grow, so an older confirmation committing late must not roll the entry back
+            if (previous != null && previous.totalOrders() > entry.totalOrders()) {
+                return previous;
+            }
+            if (previous != null) {
+                unlink(previous);
+            }
+            link(entry);
+            return entry;
+        });
+    }
+
+    private void link(Entry entry) {
+        for (LeaderboardMetric metric : LeaderboardMetric.values()) {
+            overall.get(metric).add(entry);
+            perTier.get(entry.tier()).get(metric).add(entry);
+        }
+    }
+
+    private void unlink(Entry entry) {
+        for (LeaderboardMetric metric : LeaderboardMetric.values()) {
+            overall.get(metric).remove(entry);
+            perTier.get(entry.tier()).get(metric).remove(entry);
+        }
+    }
+
+    private static Map<LeaderboardMetric, NavigableSet<Entry>> rankings() {
+        Map<LeaderboardMetric, NavigableSet<Entry>> rankings = new EnumMap<>(LeaderboardMetric.class);
+        rankings.put(LeaderboardMetric.SPENT, new ConcurrentSkipListSet<>(BY_SPENT));
+        rankings.put(LeaderboardMetric.ORDERS, new ConcurrentSkipListSet<>(BY_ORDERS));
+        return rankings;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    public record Entry(String clientId, String nom, ClientTier tier, int totalOrders, BigDecimal totalSpent) {
+    }
+}
@@ -6,6 +6,8 @@ import com.smartshop.dto.response.order.OrderAdvancedResponseDTO;
 import com.smartshop.dto.response.order.OrderResponseDTO;
 import com.smartshop.entity.Order;
 import com.smartshop.entity.OrderItem;
+import com.smartshop.entity.Payment;
+import com.smartshop.repository.projection.OrderSummaryView;
 import org.mapstruct.*;
 
 import java.util.List;
@@ -24,11 +26,27 @@ public interface OrderMapper {
     @Mapping(expression = "java(order.getItems() != null ? order.getItems().size() : 0)", target = "itemsCount")
     OrderResponseDTO toSimpleDTO(Order order);
 
+    OrderResponseDTO fromSummaryView(OrderSummaryView view);
+
     @Mapping(source = "client", target = "client")
     @Mapping(source = "items", target = "items")
     @Mapping(source = "paiements", target = "paiements")
     OrderAdvancedResponseDTO toAdvancedDTO(Order order);
 
+    @Mapping(source = "order.id", target = "id")
+    @Mapping(source = "order.client", target = "client")
+    @Mapping(source = "lines", target = "items")
+    @Mapping(source = "payments", target = "paiements")
+    @Mapping(source = "order.createdAt", target = "createdDate")
+    @Mapping(source = "order.updatedAt", target = "lastModifiedDate")
+    OrderAdvancedResponseDTO toExportDTO(Order order, List<OrderItem> lines, List<Payment> payments);
+
+    @Mapping(source = "paymentNumber", target = "numeroPaiement")
+    @Mapping(source = "typePayment", target = "typePaiement")
+    @Mapping(source = "paymentStatus", target = "statut")
+    @Mapping(source = "createdAt", target = "datePaiement")
+    OrderAdvancedResponseDTO.PaymentSummaryDTO toPaymentSummaryDTO(Payment payment);
+
     @Mapping(source = "produit.id", target = "produitId")
     @Mapping(source = "produit.nom", target = "produitNom")
     OrderAdvancedResponseDTO.OrderItemResponseDTO toOrderItemResponseDTO(OrderItem orderItem);
@@ -37,6 +55,7 @@ public interface OrderMapper {
     Order toEntity(OrderCreateDTO dto);
 
     List<OrderResponseDTO> toSimpleDTOList(List<Order> orders);
+    List<OrderResponseDTO> fromSummaryViewList(List<OrderSummaryView> views);
     List<OrderAdvancedResponseDTO> toAdvancedDTOList(List<Order> orders);
 
 
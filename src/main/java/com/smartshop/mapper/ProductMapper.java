@@ -13,6 +13,7 @@ import java.util.List;
 public interface ProductMapper {
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "stockReserve", ignore = true)
     @Mapping(target = "prix_unitair", source = "prixUnitaire")
     @Mapping(target = "stockDisponible", source = "stockDisponible")
     Product toEntity(CreateProductDTO dto);
@@ -32,15 +33,14 @@ public interface ProductMapper {
     List<ProductAdvancedResponseDTO> toAdvancedResponseDTOList(List<Product> products);
 
     default boolean isInStock(Product product) {
-        return product.getStockDisponible() != null &&
-                product.getStockDisponible() > 0;
+        return product.availableStock() > 0;
     }
 
     default String getStockStatus(Product product) {
         if (product.getStockDisponible() == null ||
-                product.getStockDisponible() == 0) {
+                product.availableStock() == 0) {
             return "OUT_OF_STOCK";
-        } else if (product.getStockDisponible() < 0) {
+        } else if (product.availableStock() < 0) {
             return "LOW_STOCK";
         } else {
             return "IN_STOCK";
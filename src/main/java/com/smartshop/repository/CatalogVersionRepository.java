@@ -0,0 +1,22 @@
+package com.smartshop.repository;
+
+import com.smartshop.entity.CatalogVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+/**
+ * The one catalog_version row. Product writers call {@link #increment()} in the transaction of their write, so the
+ * version moves exactly when a committed write can change a catalog listing.
+ */
+@Repository
+public interface CatalogVersionRepository extends JpaRepository<CatalogVersion, Short> {
+
+    @Modifying
+    @Query("UPDATE CatalogVersion c SET c.version = c.version + 1 WHERE c.id = 1")
+    int increment();
+
+    @Query("SELECT c.version FROM CatalogVersion c WHERE c.id = 1")
+    long findCurrent();
+}
@@ -1,14 +1,45 @@
 package com.smartshop.repository;
 
 import com.smartshop.entity.Client;
+import com.smartshop.repository.projection.ClientNameView;
+import com.smartshop.repository.projection.ClientRankingView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ClientRepository extends JpaRepository<Client, String> {
     boolean existsByEmail(String email);
     Optional<Client> findByEmail(String email);
-}
 
+    @Query("SELECT c FROM Client c ORDER BY c.createdAt DESC, c.id DESC")
+    List<Client> findKeysetFirstPage(Pageable pageable);
+
+    @Query("SELECT c FROM Client c WHERE c.createdAt < :createdAt " +
+            "OR (c.createdAt = :createdAt AND c.id < :id) ORDER BY c.createdAt DESC, c.id DESC")
+    List<Client> findKeysetPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") String id,
+                                   Pageable pageable);
+
+    @Query("SELECT c.id FROM Client c WHERE c.id > :afterId ORDER BY c.id")
+    List<String> findIdsAfter(@Param("afterId") String afterId, Pageable pageable);
+
+    @Query("SELECT c.id AS id, c.nom AS nom, c.email AS email FROM Client c WHERE c.id > :afterId ORDER BY c.id")
+    List<ClientNameView> findNamesAfter(@Param("afterId") String afterId, Pageable pageable);
+
+    @Query("SELECT c.id AS id, c.nom AS nom, c.tier AS tier, c.totalOrders AS totalOrders, c.totalSpent AS totalSpent " +
+            "FROM Client c WHERE c.id > :afterId ORDER BY c.id")
+    List<ClientRankingView> findRankingsAfter(@Param("afterId") String afterId, Pageable pageable);
+
+    // one round trip for both unique keys; each row is {"USERNAME" | "EMAIL", value}
+    @Query(value = "SELECT 'USERNAME', u.username FROM users u WHERE u.username IN (:usernames) " +
+            "UNION ALL SELECT 'EMAIL', c.email FROM clients c WHERE c.email IN (:emails)", nativeQuery = true)
+    List<Object[]> findTakenUsernamesAndEmails(@Param("usernames") Collection<String> usernames,
+                                               @Param("emails") Collection<String> emails);
+}
@@ -0,0 +1,46 @@
+package com.smartshop.repository;
+
+import com.smartshop.entity.ClientStatistics;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ClientStatisticsRepository extends JpaRepository<ClientStatistics, String> {
+
+    @Query("SELECT s FROM ClientStatistics s JOIN FETCH s.client WHERE s.clientId = :clientId")
+    Optional<ClientStatistics> findWithClientByClientId(@Param("clientId") String clientId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ClientStatistics s WHERE s.clientId = :clientId")
+    Optional<ClientStatistics> findByClientIdForUpdate(@Param("clientId") String clientId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ClientStatistics s WHERE s.clientId IN :clientIds")
+    List<ClientStatistics> findAllByClientIdInForUpdate(@Param("clientIds") Collection<String> clientIds);
+
+    /**
+     * Inserts an all-zero row for the client unless one exists; a concurrent insert of the same row is absorbed by
+     * ON CONFLICT, so callers can follow up with {@link #findByClientIdForUpdate} without racing on the primary key.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO client_statistics (client_id, order_count, confirmed_orders, cancelled_orders, pending_orders, " +
+            "confirmed_spent, pending_balance, bucket_day, daily_spend, created_at, updated_at) " +
+            "VALUES (:clientId, 0, 0, 0, 0, 0, 0, :bucketDay, array_fill(CAST(0 AS numeric), ARRAY[:windowDays]), " +
+            "LOCALTIMESTAMP, LOCALTIMESTAMP) ON CONFLICT (client_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("clientId") String clientId,
+                       @Param("bucketDay") long bucketDay,
+                       @Param("windowDays") int windowDays);
+
+    @Modifying
+    @Query("DELETE FROM ClientStatistics s WHERE s.clientId = :clientId")
+    int deleteByClientId(@Param("clientId") String clientId);
+}
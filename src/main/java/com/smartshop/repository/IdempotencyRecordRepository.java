@@ -0,0 +1,35 @@
+package com.smartshop.repository;
+
+import com.smartshop.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.leaseExpiresAt = :leaseExpiresAt, r.version = r.version + 1, " +
+            "r.updatedAt = LOCAL DATETIME " +
+            "WHERE r.id = :id AND r.version = :version AND r.statut = com.smartshop.enums.IdempotencyStatus.IN_PROGRESS")
+    int takeOver(@Param("id") String id,
+                 @Param("version") Long version,
+                 @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r " +
+            "WHERE r.id = :id AND r.version = :version AND r.statut = com.smartshop.enums.IdempotencyStatus.IN_PROGRESS")
+    int deleteInProgress(@Param("id") String id, @Param("version") Long version);
+}
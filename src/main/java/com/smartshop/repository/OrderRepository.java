@@ -1,30 +1,92 @@
 package com.smartshop.repository;
 
 import com.smartshop.entity.Order;
+import com.smartshop.entity.OrderItem;
+import com.smartshop.repository.projection.OrderSummaryView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, String> {
 
-    List<Order> findAllByClientId(String clientId);
+    String SUMMARY_SELECT = "SELECT o.id AS id, c.id AS clientId, c.nom AS clientNom, " +
+            "(SELECT COUNT(i) FROM OrderItem i WHERE i.order = o) AS itemsCount, " +
+            "o.sousTotalHT AS sousTotalHT, o.montantRemise AS montantRemise, " +
+            "o.montantHTApresRemise AS montantHTApresRemise, o.tauxTVA AS tauxTVA, o.montantTVA AS montantTVA, " +
+            "o.totalTTC AS totalTTC, o.montantRestant AS montantRestant, o.codePromo AS codePromo, " +
+            "o.remiseFidelite AS remiseFidelite, o.remisePromo AS remisePromo, o.statut AS statut, " +
+            "o.createdAt AS createdDate, o.updatedAt AS lastModifiedDate " +
+            "FROM Order o JOIN o.client c ";
 
-    @Query("SELECT COUNT(o) FROM Order o WHERE o.statut = 'CONFIRMED'")
-    Long countConfirmedOrders();
+    @Query(SUMMARY_SELECT + "WHERE c.id = :clientId")
+    List<OrderSummaryView> findSummariesByClientId(@Param("clientId") String clientId);
 
-    @Query("SELECT COALESCE(SUM(o.totalTTC), 0) FROM Order o WHERE o.statut = 'CONFIRMED'")
-    BigDecimal sumConfirmedOrdersAmount();
+    @Query(SUMMARY_SELECT + "WHERE c.id = :clientId ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderSummaryView> findRecentSummariesByClientId(@Param("clientId") String clientId, Pageable pageable);
 
-    @Query("SELECT COUNT(o) FROM Order o WHERE o.statut = 'PENDING'")
-    Long countPendingOrders();
+    @Query(SUMMARY_SELECT + "WHERE c.id = :clientId AND o.statut = com.smartshop.enums.OrderStatus.PENDING " +
+            "AND o.montantRestant > 0 ORDER BY o.createdAt, o.id")
+    List<OrderSummaryView> findOutstandingSummariesByClientId(@Param("clientId") String clientId);
 
-    @Query("SELECT COUNT(o) FROM Order o WHERE o.statut = 'CANCELED'")
-    Long countCancelledOrders();
+    @Query(value = SUMMARY_SELECT, countQuery = "SELECT COUNT(o) FROM Order o")
+    Page<OrderSummaryView> findAllSummaries(Pageable pageable);
 
-    @Query("SELECT COALESCE(AVG(o.totalTTC), 0) FROM Order o WHERE o.statut = 'CONFIRMED'")
-    BigDecimal averageConfirmedOrderAmount();
+    // items and paiements are both bags: fetching them in one query would multiply rows, so they load separately
+    @Query("SELECT o FROM Order o JOIN FETCH o.client c LEFT JOIN FETCH c.user " +
+            "LEFT JOIN FETCH o.items i LEFT JOIN FETCH i.produit WHERE o.id = :id")
+    Optional<Order> findWithClientAndItemsById(@Param("id") String id);
+
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.paiements WHERE o.id = :id")
+    Optional<Order> findWithPaiementsById(@Param("id") String id);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o FROM Order o JOIN FETCH o.client c LEFT JOIN FETCH c.user " +
+            "WHERE o.createdAt >= :from AND o.createdAt < :to ORDER BY o.createdAt, o.id")
+    Stream<Order> streamByCreatedAtRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT i FROM OrderItem i JOIN FETCH i.produit WHERE i.order.id IN :orderIds")
+    List<OrderItem> findItemsWithProduitByOrderIds(@Param("orderIds") Collection<String> orderIds);
+
+    @Query("SELECT o.statut, COUNT(o), COALESCE(SUM(o.totalTTC), 0) FROM Order o GROUP BY o.statut")
+    List<Object[]> aggregateByStatus();
+
+    @Query("SELECT o.client.id, COUNT(o), " +
+            "SUM(CASE WHEN o.statut = com.smartshop.enums.OrderStatus.CONFIRMED THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN o.statut = com.smartshop.enums.OrderStatus.CANCELED THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN o.statut = com.smartshop.enums.OrderStatus.PENDING THEN 1 ELSE 0 END), " +
+            "COALESCE(SUM(CASE WHEN o.statut = com.smartshop.enums.OrderStatus.CONFIRMED THEN o.totalTTC ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN o.statut = com.smartshop.enums.OrderStatus.PENDING THEN o.montantRestant ELSE 0 END), 0), " +
+            "MIN(o.createdAt), MAX(o.createdAt) " +
+            "FROM Order o WHERE o.client.id IN :clientIds GROUP BY o.client.id")
+    List<Object[]> aggregateByClientIds(@Param("clientIds") Collection<String> clientIds);
+
+    @Query("SELECT o.client.id, o.dateValidation, o.totalTTC FROM Order o WHERE o.client.id IN :clientIds " +
+            "AND o.statut = com.smartshop.enums.OrderStatus.CONFIRMED AND o.dateValidation >= :since")
+    List<Object[]> findConfirmedSpendSince(@Param("clientIds") Collection<String> clientIds,
+                                           @Param("since") LocalDateTime since);
+
+    @Query(SUMMARY_SELECT + "ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderSummaryView> findKeysetFirstPage(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE o.createdAt < :createdAt " +
+            "OR (o.createdAt = :createdAt AND o.id < :id) ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderSummaryView> findKeysetPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") String id,
+                                               Pageable pageable);
 }
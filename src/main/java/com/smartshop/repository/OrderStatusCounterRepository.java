@@ -0,0 +1,29 @@
+package com.smartshop.repository;
+
+import com.smartshop.entity.OrderStatusCounter;
+import com.smartshop.enums.OrderStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface OrderStatusCounterRepository extends JpaRepository<OrderStatusCounter, OrderStatus> {
+
+    @Modifying
+    @Query("UPDATE OrderStatusCounter c SET c.orderCount = c.orderCount + :delta, " +
+            "c.totalAmount = c.totalAmount + :amount WHERE c.statut = :statut")
+    int adjust(@Param("statut") OrderStatus statut,
+               @Param("delta") long delta,
+               @Param("amount") BigDecimal amount);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM OrderStatusCounter c")
+    List<OrderStatusCounter> findAllForUpdate();
+}
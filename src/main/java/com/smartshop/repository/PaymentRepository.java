@@ -2,18 +2,41 @@ package com.smartshop.repository;
 
 import com.smartshop.entity.Payment;
 import com.smartshop.enums.PaymentStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, String> {
 
     List<Payment> findByOrderId(String orderId);
 
+    @Query("SELECT p FROM Payment p JOIN FETCH p.order o WHERE o.client.id = :clientId " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Payment> findRecentByClientId(@Param("clientId") String clientId, Pageable pageable);
+
+    List<Payment> findByOrderIdIn(Collection<String> orderIds);
+
     int countByOrderId(String orderId);
 
     List<Payment> findByPaymentStatus(PaymentStatus status);
-}
 
+    @Query("SELECT p FROM Payment p LEFT JOIN FETCH p.order o LEFT JOIN FETCH o.client c " +
+            "LEFT JOIN FETCH c.user WHERE p.id = :id")
+    Optional<Payment> findWithOrderAndClientById(@Param("id") String id);
+
+    @Query("SELECT p FROM Payment p ORDER BY p.createdAt DESC, p.id DESC")
+    List<Payment> findKeysetFirstPage(Pageable pageable);
+
+    @Query("SELECT p FROM Payment p WHERE p.createdAt < :createdAt " +
+            "OR (p.createdAt = :createdAt AND p.id < :id) ORDER BY p.createdAt DESC, p.id DESC")
+    List<Payment> findKeysetPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") String id,
+                                   Pageable pageable);
+}
@@ -1,34 +1,76 @@
 package com.smartshop.repository;
 
 import com.smartshop.entity.Product;
+import com.smartshop.repository.projection.ProductStockLevelView;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, String> {
+public interface ProductRepository extends JpaRepository<Product, String>, JpaSpecificationExecutor<Product> {
 
     Optional<Product> findByNom(String nom);
 
-    @Query("SELECT p FROM Product p WHERE p.stockDisponible > 0")
+    @Query("SELECT p.nom FROM Product p WHERE p.nom IN :noms")
+    List<String> findExistingNoms(@Param("noms") Collection<String> noms);
+
+    @Query("SELECT p.id FROM Product p WHERE p.id IN :ids AND p.deleted = false")
+    List<String> findActiveIds(@Param("ids") Collection<String> ids);
+
+    @Query("SELECT p.id AS id, p.nom AS nom, p.stockDisponible AS stockDisponible, " +
+            "p.stockDisponible - p.stockReserve AS availableStock, p.reorderThreshold AS reorderThreshold " +
+            "FROM Product p WHERE p.id IN :ids AND p.reorderThreshold IS NOT NULL " +
+            "AND p.stockDisponible - p.stockReserve <= p.reorderThreshold")
+    List<ProductStockLevelView> findAtOrBelowReorderThreshold(@Param("ids") Collection<String> ids);
+
+    @Query("SELECT p FROM Product p WHERE p.stockDisponible - p.stockReserve > 0")
     Page<Product> findAllInStock(Pageable pageable);
 
-    @Query("SELECT p FROM Product p WHERE p.stockDisponible = 0 OR p.stockDisponible IS NULL")
+    @Query("SELECT p FROM Product p WHERE p.stockDisponible - p.stockReserve <= 0 OR p.stockDisponible IS NULL")
     Page<Product> findAllOutOfStock(Pageable pageable);
 
     Page<Product> findByDeleted(Boolean deleted,Pageable pageable);
 
-    @Query("SELECT p FROM Product p WHERE " +
-            "(LOWER(p.nom) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-            "CAST(p.prix_unitair AS string) LIKE CONCAT('%', :keyword, '%') OR " +
-            "CAST(p.stockDisponible AS string) LIKE CONCAT('%', :keyword, '%')) AND " +
-            "p.deleted = false")
-    List<Product> searchByKeywordInAllFields(@Param("keyword") String keyword);
+    @Modifying
+    @Query("UPDATE Product p SET p.stockDisponible = p.stockDisponible - :quantite, p.updatedAt = LOCAL DATETIME " +
+            "WHERE p.id = :id AND p.stockDisponible - p.stockReserve >= :quantite")
+    int decrementStock(@Param("id") String id, @Param("quantite") Integer quantite);
 
-}
+    @Modifying
+    @Query("UPDATE Product p SET p.stockDisponible = p.stockDisponible + :quantite, p.updatedAt = LOCAL DATETIME WHERE p.id = :id")
+    int incrementStock(@Param("id") String id, @Param("quantite") Integer quantite);
+
+    // held units change the available stock the advanced view shows, so reservations move updated_at and its ETag too
+    @Modifying
+    @Query("UPDATE Product p SET p.stockReserve = p.stockReserve + :quantite, p.updatedAt = LOCAL DATETIME " +
+            "WHERE p.id = :id AND p.stockDisponible - p.stockReserve >= :quantite")
+    int reserveStock(@Param("id") String id, @Param("quantite") Integer quantite);
 
+    @Modifying
+    @Query("UPDATE Product p SET p.stockReserve = p.stockReserve - :quantite, p.updatedAt = LOCAL DATETIME " +
+            "WHERE p.id = :id AND p.stockReserve >= :quantite")
+    int releaseReservedStock(@Param("id") String id, @Param("quantite") Integer quantite);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.stockDisponible = p.stockDisponible - :quantite, " +
+            "p.stockReserve = p.stockReserve - :quantite, p.updatedAt = LOCAL DATETIME " +
+            "WHERE p.id = :id AND p.stockReserve >= :quantite AND p.stockDisponible >= :quantite")
+    int commitReservedStock(@Param("id") String id, @Param("quantite") Integer quantite);
+
+    @Query("SELECT p FROM Product p ORDER BY p.createdAt DESC, p.id DESC")
+    List<Product> findKeysetFirstPage(Pageable pageable);
+
+    @Query("SELECT p FROM Product p WHERE p.createdAt < :createdAt " +
+            "OR (p.createdAt = :createdAt AND p.id < :id) ORDER BY p.createdAt DESC, p.id DESC")
+    List<Product> findKeysetPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") String id,
+                                   Pageable pageable);
+}
@@ -0,0 +1,42 @@
+package com.smartshop.repository;
+
+import com.smartshop.entity.StockReservation;
+import com.smartshop.enums.ReservationStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, String> {
+
+    boolean existsByOrderId(String orderId);
+
+    List<StockReservation> findByOrderIdAndStatut(String orderId, ReservationStatus statut);
+
+    // SKIP LOCKED: concurrent sweepers never pick the same rows
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT r FROM StockReservation r WHERE r.statut = :statut AND r.expiresAt < :now ORDER BY r.expiresAt")
+    List<StockReservation> findExpiredForUpdate(@Param("statut") ReservationStatus statut,
+                                                @Param("now") LocalDateTime now,
+                                                Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.statut = :to WHERE r.id = :id AND r.statut = :from")
+    int transition(@Param("id") String id,
+                   @Param("from") ReservationStatus from,
+                   @Param("to") ReservationStatus to);
+
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.statut = :to WHERE r.id IN :ids AND r.statut = :from")
+    int transitionAll(@Param("ids") Collection<String> ids,
+                      @Param("from") ReservationStatus from,
+                      @Param("to") ReservationStatus to);
+}
@@ -3,7 +3,11 @@ package com.smartshop.repository;
 
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import com.smartshop.entity.User;
 
 @Repository
@@ -12,5 +16,13 @@ public interface UserRepository extends JpaRepository<User, String> {
     Optional<User> findByUsername(String username);
 
     boolean existsByUsername(String username);
+
+    // only replaces the hash that was verified, so a password changed in the meantime is kept
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.id = :id AND u.password = :currentHash")
+    int updatePasswordIfUnchanged(@Param("id") String id,
+                                  @Param("currentHash") String currentHash,
+                                  @Param("newHash") String newHash);
 }
 
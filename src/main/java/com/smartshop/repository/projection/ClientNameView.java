@@ -0,0 +1,13 @@
+package com.smartshop.repository.projection;
+
+/**
+ * The fields the client autocomplete index needs, read without loading the entity.
+ */
+public interface ClientNameView {
+
+    String getId();
+
+    String getNom();
+
+    String getEmail();
+}
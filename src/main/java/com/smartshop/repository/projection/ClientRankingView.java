@@ -0,0 +1,21 @@
+package com.smartshop.repository.projection;
+
+import com.smartshop.enums.ClientTier;
+
+import java.math.BigDecimal;
+
+/**
+ * The fields the client leaderboard ranks on, read without loading the entity.
+ */
+public interface ClientRankingView {
+
+    String getId();
+
+    String getNom();
+
+    ClientTier getTier();
+
+    Integer getTotalOrders();
+
+    BigDecimal getTotalSpent();
+}
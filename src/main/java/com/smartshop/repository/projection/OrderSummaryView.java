@@ -0,0 +1,47 @@
+package com.smartshop.repository.projection;
+
+import com.smartshop.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Flat row backing order listings: client name comes from a join and the item count from a
+ * correlated sub-query, so neither the client nor the items collection is loaded.
+ */
+public interface OrderSummaryView {
+
+    String getId();
+
+    String getClientId();
+
+    String getClientNom();
+
+    Long getItemsCount();
+
+    BigDecimal getSousTotalHT();
+
+    BigDecimal getMontantRemise();
+
+    BigDecimal getMontantHTApresRemise();
+
+    BigDecimal getTauxTVA();
+
+    BigDecimal getMontantTVA();
+
+    BigDecimal getTotalTTC();
+
+    BigDecimal getMontantRestant();
+
+    String getCodePromo();
+
+    BigDecimal getRemiseFidelite();
+
+    BigDecimal getRemisePromo();
+
+    OrderStatus getStatut();
+
+    LocalDateTime getCreatedDate();
+
+    LocalDateTime getLastModifiedDate();
+}
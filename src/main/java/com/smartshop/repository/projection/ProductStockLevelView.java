@@ -0,0 +1,17 @@
+package com.smartshop.repository.projection;
+
+/**
+ * On-hand and available stock of a product next to its reorder threshold, read without loading the entity.
+ */
+public interface ProductStockLevelView {
+
+    String getId();
+
+    String getNom();
+
+    Integer getStockDisponible();
+
+    Integer getAvailableStock();
+
+    Integer getReorderThreshold();
+}
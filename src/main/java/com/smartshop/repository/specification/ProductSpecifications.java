@@ -0,0 +1,66 @@
+package com.smartshop.repository.specification;
+
+import com.smartshop.dto.requist.searchRequistDto.ProductSearchCriteriaDTO;
+import com.smartshop.entity.Product;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+/**
+ * Predicates for the filtered product search. The deleted flag comes first so the (deleted, prix) and
+ * (deleted, stock) indexes can serve the price and stock ranges. Stock filters apply to the available stock,
+ * on-hand units minus those held by reservations.
+ */
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> matching(ProductSearchCriteriaDTO criteria) {
+        Specification<Product> specification = criteria.isIncludeDeleted()
+                ? Specification.unrestricted()
+                : notDeleted();
+
+        if (criteria.getMinPrice() != null) {
+            specification = specification.and(priceAtLeast(criteria.getMinPrice()));
+        }
+        if (criteria.getMaxPrice() != null) {
+            specification = specification.and(priceAtMost(criteria.getMaxPrice()));
+        }
+        if (criteria.getMinStock() != null) {
+            specification = specification.and(stockAtLeast(criteria.getMinStock()));
+        }
+        if (criteria.getKeyword() != null && !criteria.getKeyword().isBlank()) {
+            specification = specification.and(nameContains(criteria.getKeyword()));
+        }
+        return specification;
+    }
+
+    public static Specification<Product> notDeleted() {
+        return (root, query, cb) -> cb.isFalse(root.get("deleted"));
+    }
+
+    public static Specification<Product> priceAtLeast(BigDecimal minPrice) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("prix_unitair"), minPrice);
+    }
+
+    public static Specification<Product> priceAtMost(BigDecimal maxPrice) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("prix_unitair"), maxPrice);
+    }
+
+    public static Specification<Product> stockAtLeast(Integer minStock) {
+        // reservations are never negative, so the on-hand bound is implied and lets the (deleted, stock) index narrow the scan
+        return (root, query, cb) -> cb.and(
+                cb.greaterThanOrEqualTo(root.get("stockDisponible"), minStock),
+                cb.greaterThanOrEqualTo(cb.diff(root.<Integer>get("stockDisponible"), root.<Integer>get("stockReserve")), minStock));
+    }
+
+    public static Specification<Product> nameContains(String keyword) {
+        String pattern = "%" + keyword.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("nom")), pattern, '\\');
+    }
+}
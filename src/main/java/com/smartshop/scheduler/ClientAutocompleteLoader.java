@@ -0,0 +1,60 @@
+package com.smartshop.scheduler;
+
+import com.smartshop.repository.ClientRepository;
+import com.smartshop.repository.projection.ClientNameView;
+import com.smartshop.search.ClientAutocompleteIndex;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class ClientAutocompleteLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientAutocompleteLoader.class);
+
+    private final ClientRepository clientRepository;
+    private final ClientAutocompleteIndex clientAutocompleteIndex;
+
+    @Value("${smartshop.client-autocomplete.load-batch-size:5000}")
+    private int batchSize;
+
+    // loading millions of clients must not hold up startup; suggestions fill in as the load progresses
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        Thread loader = new Thread(this::load, "client-autocomplete-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    void load() {
+        long start = System.currentTimeMillis();
+        clientAutocompleteIndex.beginLoad();
+        try {
+            String lastId = "";
+            List<ClientNameView> batch;
+            do {
+                batch = clientRepository.findNamesAfter(lastId, PageRequest.of(0, batchSize));
+                for (ClientNameView client : batch) {
+                    clientAutocompleteIndex.load(client.getId(), client.getNom(), client.getEmail());
+                }
+                if (!batch.isEmpty()) {
+                    lastId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == batchSize);
+        } catch (RuntimeException e) {
+            log.error("Client autocomplete load failed after {} clients", clientAutocompleteIndex.size(), e);
+        } finally {
+            clientAutocompleteIndex.finishLoad();
+        }
+        log.info("Client autocomplete index loaded with {} clients in {} ms",
+                clientAutocompleteIndex.size(), System.currentTimeMillis() - start);
+    }
+}
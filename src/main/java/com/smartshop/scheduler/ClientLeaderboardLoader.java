@@ -0,0 +1,60 @@
+package com.smartshop.scheduler;
+
+import com.smartshop.leaderboard.ClientLeaderboard;
+import com.smartshop.repository.ClientRepository;
+import com.smartshop.repository.projection.ClientRankingView;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class ClientLeaderboardLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientLeaderboardLoader.class);
+
+    private final ClientRepository clientRepository;
+    private final ClientLeaderboard clientLeaderboard;
+
+    @Value("${smartshop.client-leaderboard.load-batch-size:5000}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        Thread loader = new Thread(this::load, "client-leaderboard-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    void load() {
+        long start = System.currentTimeMillis();
+        clientLeaderboard.beginLoad();
+        try {
+            String lastId = "";
+            List<ClientRankingView> batch;
+            do {
+                batch = clientRepository.findRankingsAfter(lastId, PageRequest.of(0, batchSize));
+                for (ClientRankingView client : batch) {
+                    clientLeaderboard.load(client.getId(), client.getNom(), client.getTier(),
+                            client.getTotalOrders(), client.getTotalSpent());
+                }
+                if (!batch.isEmpty()) {
+                    lastId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == batchSize);
+        } catch (RuntimeException e) {
+            log.error("Client leaderboard load failed after {} clients", clientLeaderboard.size(), e);
+        } finally {
+            clientLeaderboard.finishLoad();
+        }
+        log.info("Client leaderboard loaded with {} clients in {} ms",
+                clientLeaderboard.size(), System.currentTimeMillis() - start);
+    }
+}
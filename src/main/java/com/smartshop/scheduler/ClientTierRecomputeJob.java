@@ -0,0 +1,27 @@
+package com.smartshop.scheduler;
+
+import com.smartshop.exception.BusinessException;
+import com.smartshop.service.ClientTierService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ClientTierRecomputeJob {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientTierRecomputeJob.class);
+
+    private final ClientTierService clientTierService;
+
+    @Scheduled(cron = "${smartshop.client-tier.recompute-cron:0 30 2 * * *}")
+    public void recomputeTiers() {
+        try {
+            clientTierService.recomputeAll();
+        } catch (BusinessException e) {
+            log.warn("Skipping nightly tier recompute: {}", e.getMessage());
+        }
+    }
+}
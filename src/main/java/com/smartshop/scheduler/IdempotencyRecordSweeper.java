@@ -0,0 +1,18 @@
+package com.smartshop.scheduler;
+
+import com.smartshop.service.IdempotencyService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class IdempotencyRecordSweeper {
+
+    private final IdempotencyService idempotencyService;
+
+    @Scheduled(cron = "${smartshop.idempotency.purge-cron:0 0 * * * *}")
+    public void purgeExpiredRecords() {
+        idempotencyService.purgeExpired();
+    }
+}
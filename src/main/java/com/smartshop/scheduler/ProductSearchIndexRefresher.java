@@ -0,0 +1,55 @@
+package com.smartshop.scheduler;
+
+import com.smartshop.entity.Product;
+import com.smartshop.repository.ProductRepository;
+import com.smartshop.search.ProductSearchIndex;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class ProductSearchIndexRefresher {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndexRefresher.class);
+
+    private final ProductRepository productRepository;
+    private final ProductSearchIndex productSearchIndex;
+
+    @Value("${smartshop.search.refresh-batch-size:1000}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        refresh();
+    }
+
+    // stock moves through bulk updates that bypass ProductService, so the index is re-read periodically
+    @Scheduled(fixedDelayString = "${smartshop.search.refresh-interval-ms:600000}",
+            initialDelayString = "${smartshop.search.refresh-interval-ms:600000}")
+    public void refresh() {
+        long start = System.currentTimeMillis();
+        ProductSearchIndex.Rebuild rebuild = productSearchIndex.beginRebuild();
+
+        List<Product> batch = productRepository.findKeysetFirstPage(PageRequest.of(0, batchSize));
+        while (!batch.isEmpty()) {
+            batch.forEach(rebuild::add);
+            if (batch.size() < batchSize) {
+                break;
+            }
+            Product last = batch.get(batch.size() - 1);
+            batch = productRepository.findKeysetPageAfter(last.getCreatedAt(), last.getId(), PageRequest.of(0, batchSize));
+        }
+
+        int indexed = rebuild.publish();
+        log.info("Product search index refreshed with {} products in {} ms", indexed, System.currentTimeMillis() - start);
+    }
+}
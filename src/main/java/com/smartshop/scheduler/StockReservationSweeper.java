@@ -0,0 +1,39 @@
+package com.smartshop.scheduler;
+
+import com.smartshop.service.StockReservationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class StockReservationSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(StockReservationSweeper.class);
+
+    private final StockReservationService stockReservationService;
+    private final int batchSize;
+
+    public StockReservationSweeper(StockReservationService stockReservationService,
+                                   @Value("${smartshop.stock-reservation.sweep-batch-size:500}") int batchSize) {
+        this.stockReservationService = stockReservationService;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${smartshop.stock-reservation.sweep-interval-ms:60000}")
+    public void releaseExpiredReservations() {
+        int released;
+        int total = 0;
+
+        // one transaction per batch keeps row locks short
+        do {
+            released = stockReservationService.releaseExpired(batchSize);
+            total += released;
+        } while (released == batchSize);
+
+        if (total > 0) {
+            log.info("Stock reservation sweep released {} expired reservations", total);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.smartshop.search;
+
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Sorted prefix index over client names and emails. Every client is stored under its full normalized name,
+ * each name token and its email, so "dup" finds "Jean Dupont" and "jean.d" finds "jean.dupont@mail.ma".
+ * Lookups walk the skip list from the prefix and stop after {@code limit} distinct clients, without locking.
+ */
+@Component
+public class ClientAutocompleteIndex {
+
+    // separates the term from the client id in a key; sorts before every character a term can contain
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private final ConcurrentSkipListMap<String, Suggestion> terms = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<String, Suggestion> byId = new ConcurrentHashMap<>();
+    // ids removed while a load is running, so the load does not bring them back
+    private final Set<String> removedDuringLoad = ConcurrentHashMap.newKeySet();
+    private volatile boolean loading;
+    private volatile boolean ready;
+
+    public void index(String id, String nom, String email) {
+        Suggestion suggestion = new Suggestion(id, nom, email);
+        byId.compute(id, (key, previous) -> {
+            unlink(previous);
+            link(suggestion);
+            return suggestion;
+        });
+    }
+
+    public void remove(String id) {
+        if (loading) {
+            removedDuringLoad.add(id);
+        }
+        byId.computeIfPresent(id, (key, previous) -> {
+            unlink(previous);
+            return null;
+        });
+    }
+
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String term = ProductSearchIndex.normalize(prefix == null ? "" : prefix).trim();
+        if (term.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        ConcurrentNavigableMap<String, Suggestion> range = terms.subMap(term, true, term + Character.MAX_VALUE, false);
+        Map<String, Suggestion> matches = new LinkedHashMap<>();
+        for (Suggestion suggestion : range.values()) {
+            matches.putIfAbsent(suggestion.id(), suggestion);
+            if (matches.size() == limit) {
+                break;
+            }
+        }
+        return new ArrayList<>(matches.values());
+    }
+
+    /**
+     * Marks the start of a full load. Entries indexed or removed by live writes meanwhile take precedence
+     * over the rows the load read earlier.
+     */
+    public void beginLoad() {
+        removedDuringLoad.clear();
+        loading = true;
+    }
+
+    public void load(String id, String nom, String email) {
+        Suggestion suggestion = new Suggestion(id, nom, email);
+        // checked inside the map operation so it serialises with a concurrent remove of the same id
+        byId.computeIfAbsent(id, key -> {
+            if (removedDuringLoad.contains(id)) {
+                return null;
+            }
+            link(suggestion);
+            return suggestion;
+        });
+    }
+
+    public void finishLoad() {
+        loading = false;
+        removedDuringLoad.clear();
+        ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    private void link(Suggestion suggestion) {
+        for (String key : keys(suggestion)) {
+            terms.put(key, suggestion);
+        }
+    }
+
+    private void unlink(Suggestion suggestion) {
+        if (suggestion != null) {
+            for (String key : keys(suggestion)) {
+                terms.remove(key, suggestion);
+            }
+        }
+    }
+
+    private static Set<String> keys(Suggestion suggestion) {
+        Set<String> keys = new HashSet<>();
+        if (suggestion.nom() != null) {
+            String name = ProductSearchIndex.normalize(suggestion.nom()).trim();
+            if (!name.isEmpty()) {
+                keys.add(name + KEY_SEPARATOR + suggestion.id());
+            }
+            for (String token : ProductSearchIndex.tokenize(name)) {
+                keys.add(token + KEY_SEPARATOR + suggestion.id());
+            }
+        }
+        if (suggestion.email() != null && !suggestion.email().isBlank()) {
+            keys.add(suggestion.email().trim().toLowerCase(Locale.ROOT) + KEY_SEPARATOR + suggestion.id());
+        }
+        return keys;
+    }
+
+    public record Suggestion(String id, String nom, String email) {
+    }
+}
@@ -0,0 +1,445 @@
+package com.smartshop.search;
+
+import com.smartshop.entity.Product;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-process index over non-deleted products: name tokens (exact and prefix lookups), name trigrams
+ * (substring lookups) and sorted price/stock values (numeric keywords and ranges). Hits are ranked
+ * exact token > prefix > substring.
+ * <p>
+ * A keyword term of the form {@code prix:10..50}, {@code stock:..5}, {@code stock:3} or {@code 10..50} is a range
+ * filter on price, stock or either; every other term is matched against the name.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final int GRAM_SIZE = 3;
+
+    private static final int EXACT_SCORE = 3;
+    private static final int PREFIX_SCORE = 2;
+    private static final int SUBSTRING_SCORE = 1;
+
+    private static final Comparator<Hit> RANKING = Comparator.comparingInt(Hit::score).reversed()
+            .thenComparing(hit -> hit.entry().name())
+            .thenComparing(hit -> hit.entry().id());
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Segment segment = new Segment();
+    private volatile Segment rebuilding;
+
+    /**
+     * Starts a full rebuild into a detached segment; searches keep using the current one until {@link Rebuild#publish()}.
+     */
+    public Rebuild beginRebuild() {
+        Rebuild rebuild = new Rebuild();
+        rebuilding = rebuild.rebuilt;
+        return rebuild;
+    }
+
+    public void rebuild(Iterable<Product> products) {
+        Rebuild rebuild = beginRebuild();
+        products.forEach(rebuild::add);
+        rebuild.publish();
+    }
+
+    public void index(Product product) {
+        Entry entry = Boolean.TRUE.equals(product.getDeleted()) ? null : Entry.of(product);
+        lock.writeLock().lock();
+        try {
+            segment.replace(product.getId(), entry);
+            overrideRebuild(product.getId(), entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String productId) {
+        lock.writeLock().lock();
+        try {
+            segment.remove(productId);
+            overrideRebuild(productId, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // called under the write lock, so publish cannot swap segments between the two writes
+    private void overrideRebuild(String productId, Entry entry) {
+        Segment pending = rebuilding;
+        if (pending != null) {
+            synchronized (pending) {
+                // the rebuild may still add the row it read before this write; the live write wins
+                pending.replace(productId, entry);
+                pending.overridden.add(productId);
+            }
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return segment.entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public SearchResult search(String keyword, int offset, int limit) {
+        String query = normalize(keyword == null ? "" : keyword).trim();
+
+        if (query.isEmpty()) {
+            return new SearchResult(List.of(), 0);
+        }
+
+        List<Hit> hits;
+        lock.readLock().lock();
+        try {
+            hits = segment.match(query);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Hit> ranked = top(hits, (int) Math.min((long) offset + limit, Integer.MAX_VALUE));
+        int from = Math.min(offset, ranked.size());
+        List<String> ids = ranked.subList(from, ranked.size()).stream().map(hit -> hit.entry().id()).toList();
+        return new SearchResult(ids, hits.size());
+    }
+
+    // a broad range can match most of the catalog; only the requested pages are ranked
+    private static List<Hit> top(List<Hit> hits, int count) {
+        if (hits.size() <= count) {
+            hits.sort(RANKING);
+            return hits;
+        }
+        if (count == 0) {
+            return List.of();
+        }
+        PriorityQueue<Hit> heap = new PriorityQueue<>(count + 1, RANKING.reversed());
+        for (Hit hit : hits) {
+            heap.add(hit);
+            if (heap.size() > count) {
+                heap.poll();
+            }
+        }
+        List<Hit> top = new ArrayList<>(heap);
+        top.sort(RANKING);
+        return top;
+    }
+
+    static String normalize(String value) {
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    static List<String> tokenize(String normalized) {
+        return Arrays.stream(TOKEN_SEPARATOR.split(normalized)).filter(token -> !token.isEmpty()).toList();
+    }
+
+    private static Set<String> grams(String normalized) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+
+    private static BigDecimal parseNumber(String query) {
+        try {
+            return new BigDecimal(query);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public record SearchResult(List<String> ids, long total) {
+    }
+
+    public final class Rebuild {
+
+        private final Segment rebuilt = new Segment();
+
+        private Rebuild() {
+        }
+
+        public void add(Product product) {
+            if (!Boolean.TRUE.equals(product.getDeleted())) {
+                Entry entry = Entry.of(product);
+                synchronized (rebuilt) {
+                    if (!rebuilt.overridden.contains(entry.id())) {
+                        rebuilt.add(entry);
+                    }
+                }
+            }
+        }
+
+        public int publish() {
+            lock.writeLock().lock();
+            try {
+                synchronized (rebuilt) {
+                    segment = rebuilt;
+                    if (rebuilding == rebuilt) {
+                        rebuilding = null;
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return rebuilt.entries.size();
+        }
+    }
+
+    private record Entry(String id, String name, List<String> tokens, BigDecimal prix, Integer stock) {
+
+        static Entry of(Product product) {
+            String name = normalize(product.getNom() == null ? "" : product.getNom());
+            return new Entry(product.getId(), name, tokenize(name), product.getPrix_unitair(), product.getStockDisponible());
+        }
+    }
+
+    private record Hit(Entry entry, int score) {
+    }
+
+    private record RangeTerm(boolean prices, boolean stocks, BigDecimal from, BigDecimal to) {
+
+        /**
+         * Parses {@code [prix:|stock:]from..to} with either bound optional, or {@code prix:value} / {@code stock:value};
+         * returns null for a plain name term.
+         */
+        static RangeTerm parse(String term) {
+            boolean prices = true;
+            boolean stocks = true;
+            String bounds = term;
+            if (term.startsWith("prix:")) {
+                stocks = false;
+                bounds = term.substring("prix:".length());
+            } else if (term.startsWith("stock:")) {
+                prices = false;
+                bounds = term.substring("stock:".length());
+            }
+
+            int separator = bounds.indexOf("..");
+            if (separator < 0) {
+                if (prices && stocks) {
+                    return null;
+                }
+                BigDecimal value = parseBound(bounds);
+                return value == null ? null : new RangeTerm(prices, stocks, value, value);
+            }
+
+            String fromText = bounds.substring(0, separator);
+            String toText = bounds.substring(separator + 2);
+            BigDecimal from = fromText.isEmpty() ? null : parseBound(fromText);
+            BigDecimal to = toText.isEmpty() ? null : parseBound(toText);
+            if ((from == null && !fromText.isEmpty()) || (to == null && !toText.isEmpty()) || (from == null && to == null)) {
+                return null;
+            }
+            return new RangeTerm(prices, stocks, from, to);
+        }
+
+        private static BigDecimal parseBound(String text) {
+            BigDecimal value = parseNumber(text);
+            return value != null && value.signum() >= 0 ? value : null;
+        }
+
+        boolean isEmpty() {
+            return from != null && to != null && from.compareTo(to) > 0;
+        }
+    }
+
+    private static final class Segment {
+
+        private final Map<String, Entry> entries = new HashMap<>();
+        private final NavigableMap<String, Set<String>> tokens = new TreeMap<>();
+        private final Map<String, Set<String>> grams = new HashMap<>();
+        // TreeMap compares with compareTo, so 20 and 20.00 land on the same key
+        private final NavigableMap<BigDecimal, Set<String>> prices = new TreeMap<>();
+        private final NavigableMap<Integer, Set<String>> stocks = new TreeMap<>();
+        // ids written through index/remove while this segment is being rebuilt
+        private final Set<String> overridden = new HashSet<>();
+
+        void replace(String id, Entry entry) {
+            remove(id);
+            if (entry != null) {
+                add(entry);
+            }
+        }
+
+        void add(Entry entry) {
+            remove(entry.id());
+            entries.put(entry.id(), entry);
+            for (String token : entry.tokens()) {
+                tokens.computeIfAbsent(token, key -> new HashSet<>()).add(entry.id());
+            }
+            for (String gram : grams(entry.name())) {
+                this.grams.computeIfAbsent(gram, key -> new HashSet<>()).add(entry.id());
+            }
+            if (entry.prix() != null) {
+                prices.computeIfAbsent(entry.prix(), key -> new HashSet<>()).add(entry.id());
+            }
+            if (entry.stock() != null) {
+                stocks.computeIfAbsent(entry.stock(), key -> new HashSet<>()).add(entry.id());
+            }
+        }
+
+        void remove(String id) {
+            Entry entry = entries.remove(id);
+            if (entry == null) {
+                return;
+            }
+            for (String token : entry.tokens()) {
+                detach(tokens, token, id);
+            }
+            for (String gram : grams(entry.name())) {
+                detach(this.grams, gram, id);
+            }
+            if (entry.prix() != null) {
+                detach(prices, entry.prix(), id);
+            }
+            if (entry.stock() != null) {
+                detach(stocks, entry.stock(), id);
+            }
+        }
+
+        List<Hit> match(String query) {
+            Map<String, Integer> scores = null;
+            StringBuilder text = new StringBuilder();
+            for (String term : WHITESPACE.split(query)) {
+                RangeTerm range = RangeTerm.parse(term);
+                if (range == null) {
+                    text.append(term).append(' ');
+                    continue;
+                }
+                scores = intersect(scores, matchRange(range));
+                if (scores.isEmpty()) {
+                    return new ArrayList<>();
+                }
+            }
+
+            for (String term : tokenize(text.toString())) {
+                // every term of the keyword must match the name
+                scores = intersect(scores, matchTerm(term));
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+            if (scores == null) {
+                scores = new HashMap<>();
+            }
+
+            BigDecimal number = parseNumber(query);
+            if (number != null) {
+                for (String id : prices.getOrDefault(number, Set.of())) {
+                    scores.merge(id, EXACT_SCORE, Math::max);
+                }
+                if (number.signum() >= 0 && number.stripTrailingZeros().scale() <= 0
+                        && number.compareTo(BigDecimal.valueOf(Integer.MAX_VALUE)) <= 0) {
+                    for (String id : stocks.getOrDefault(number.intValue(), Set.of())) {
+                        scores.merge(id, EXACT_SCORE, Math::max);
+                    }
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>(scores.size());
+            scores.forEach((id, score) -> hits.add(new Hit(entries.get(id), score)));
+            return hits;
+        }
+
+        private static Map<String, Integer> intersect(Map<String, Integer> scores, Map<String, Integer> termScores) {
+            if (scores == null) {
+                return termScores;
+            }
+            scores.keySet().retainAll(termScores.keySet());
+            scores.replaceAll((id, score) -> score + termScores.get(id));
+            return scores;
+        }
+
+        private Map<String, Integer> matchRange(RangeTerm range) {
+            Map<String, Integer> scores = new HashMap<>();
+            if (range.isEmpty()) {
+                return scores;
+            }
+
+            if (range.prices()) {
+                NavigableMap<BigDecimal, Set<String>> matching = prices;
+                if (range.from() != null) {
+                    matching = matching.tailMap(range.from(), true);
+                }
+                if (range.to() != null) {
+                    matching = matching.headMap(range.to(), true);
+                }
+                matching.values().forEach(ids -> ids.forEach(id -> scores.put(id, EXACT_SCORE)));
+            }
+
+            if (range.stocks()) {
+                // stock is whole units: 2.5..7.5 covers 3 to 7
+                BigDecimal from = range.from() == null ? BigDecimal.ZERO : range.from().setScale(0, RoundingMode.CEILING);
+                BigDecimal to = range.to() == null ? null : range.to().setScale(0, RoundingMode.FLOOR);
+                BigDecimal max = BigDecimal.valueOf(Integer.MAX_VALUE);
+                if (from.compareTo(max) <= 0 && (to == null || from.compareTo(to) <= 0)) {
+                    int toStock = to == null || to.compareTo(max) > 0 ? Integer.MAX_VALUE : to.intValue();
+                    stocks.subMap(from.intValue(), true, toStock, true).values()
+                            .forEach(ids -> ids.forEach(id -> scores.put(id, EXACT_SCORE)));
+                }
+            }
+            return scores;
+        }
+
+        private Map<String, Integer> matchTerm(String term) {
+            Map<String, Integer> scores = new HashMap<>();
+
+            for (Map.Entry<String, Set<String>> token : tokens.subMap(term, true, term + Character.MAX_VALUE, false).entrySet()) {
+                int score = token.getKey().equals(term) ? EXACT_SCORE : PREFIX_SCORE;
+                for (String id : token.getValue()) {
+                    scores.merge(id, score, Math::max);
+                }
+            }
+
+            if (term.length() >= GRAM_SIZE) {
+                for (String id : substringCandidates(term)) {
+                    if (entries.get(id).name().contains(term)) {
+                        scores.putIfAbsent(id, SUBSTRING_SCORE);
+                    }
+                }
+            }
+            return scores;
+        }
+
+        private Set<String> substringCandidates(String term) {
+            Set<String> candidates = null;
+            for (String gram : grams(term)) {
+                Set<String> ids = grams.getOrDefault(gram, Set.of());
+                if (candidates == null) {
+                    candidates = new HashSet<>(ids);
+                } else {
+                    candidates.retainAll(ids);
+                }
+                if (candidates.isEmpty()) {
+                    break;
+                }
+            }
+            return candidates == null ? Set.of() : candidates;
+        }
+
+        private static <K> void detach(Map<K, Set<String>> index, K key, String id) {
+            Set<String> ids = index.get(key);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    index.remove(key);
+                }
+            }
+        }
+    }
+}
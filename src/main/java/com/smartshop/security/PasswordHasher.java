@@ -0,0 +1,284 @@
+package com.smartshop.security;
+
+import com.smartshop.dto.response.PasswordHashingStatsDTO;
+import com.smartshop.exception.ServiceUnavailableException;
+import jakarta.annotation.PreDestroy;
+import org.mindrot.jbcrypt.BCrypt;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Runs BCrypt hashing and verification on a fixed pool with a bounded queue, so a burst of registrations or
+ * logins uses at most {@code threads} cores instead of every request thread. When the queue is full, or an
+ * operation waits longer than the timeout, the caller gets a {@link ServiceUnavailableException} and can retry later.
+ * <p>
+ * New hashes use the configured cost or, when it is 0, the highest cost that hashes within {@code target-ms}
+ * on this machine, measured at startup.
+ */
+@Component
+public class PasswordHasher {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHasher.class);
+
+    static final int MIN_COST = 10;
+    static final int MAX_COST = 16;
+    private static final long QUEUE_POLL_MS = 10;
+
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final long timeoutMs;
+    private final int cost;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder rehashed = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+
+    public PasswordHasher(@Value("${smartshop.password-hashing.threads:0}") int threads,
+                          @Value("${smartshop.password-hashing.queue-capacity:64}") int queueCapacity,
+                          @Value("${smartshop.password-hashing.timeout-ms:5000}") long timeoutMs,
+                          @Value("${smartshop.password-hashing.cost:0}") int cost,
+                          @Value("${smartshop.password-hashing.target-ms:250}") long targetMs) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.queueCapacity = queueCapacity;
+        this.timeoutMs = timeoutMs;
+        this.cost = cost > 0 ? cost : calibrate(targetMs);
+        log.info("Password hashing pool started with {} threads, a queue of {} and cost {}", poolSize, queueCapacity, this.cost);
+    }
+
+    public String hash(String rawPassword) {
+        return await(() -> doHash(rawPassword));
+    }
+
+    /**
+     * Hashes a batch on the pool, keeping at most one task per pool thread queued so interactive hashing and
+     * logins still get their turn. When the queue is full the batch waits for room, up to the timeout for each
+     * password, and then fails with a {@link ServiceUnavailableException} so the caller can retry the chunk.
+     */
+    public List<String> hashAll(List<String> rawPasswords) {
+        String[] hashes = new String[rawPasswords.size()];
+        Semaphore inFlight = new Semaphore(executor.getMaximumPoolSize());
+        List<Future<?>> futures = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < rawPasswords.size(); i++) {
+                int index = i;
+                inFlight.acquire();
+                try {
+                    futures.add(submitWhenQueued(measured(() -> {
+                        try {
+                            hashes[index] = doHash(rawPasswords.get(index));
+                            return null;
+                        } finally {
+                            inFlight.release();
+                        }
+                    })));
+                } catch (RejectedExecutionException e) {
+                    inFlight.release();
+                    futures.forEach(future -> future.cancel(true));
+                    log.warn("Password hashing batch rejected, queue stayed full for {} ms", timeoutMs);
+                    throw new ServiceUnavailableException("Too many password operations in progress, please retry shortly");
+                }
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Password hashing was interrupted");
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+        return List.of(hashes);
+    }
+
+    public boolean verify(String rawPassword, String hashedPassword) {
+        return await(() -> BCrypt.checkpw(rawPassword, hashedPassword));
+    }
+
+    /**
+     * Whether the hash was made with a lower cost than the current one and should be replaced at the next login.
+     */
+    public boolean needsRehash(String hashedPassword) {
+        Integer hashCost = costOf(hashedPassword);
+        return hashCost != null && hashCost < cost;
+    }
+
+    /**
+     * Hashes the password again with the current cost in the background and hands the result to {@code onRehashed}.
+     * Best effort: when the pool is saturated the rehash is dropped and happens on a later login.
+     */
+    public void rehashAsync(String rawPassword, Consumer<String> onRehashed) {
+        try {
+            executor.execute(() -> {
+                try {
+                    onRehashed.accept(doHash(rawPassword));
+                    rehashed.increment();
+                } catch (RuntimeException e) {
+                    log.warn("Password rehash failed", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Password rehash skipped, hashing pool saturated");
+        }
+    }
+
+    protected String doHash(String rawPassword) {
+        return BCrypt.hashpw(rawPassword, BCrypt.gensalt(cost));
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    public PasswordHashingStatsDTO stats() {
+        long done = completed.sum();
+        return PasswordHashingStatsDTO.builder()
+                .threads(executor.getMaximumPoolSize())
+                .activeThreads(executor.getActiveCount())
+                .queueDepth(executor.getQueue().size())
+                .queueCapacity(queueCapacity)
+                .cost(cost)
+                .completed(done)
+                .rejected(rejected.sum())
+                .timedOut(timedOut.sum())
+                .rehashed(rehashed.sum())
+                .averageHashMs(done == 0 ? 0 : hashNanos.sum() / 1_000_000.0 / done)
+                .maxHashMs(maxHashNanos.get() / 1_000_000.0)
+                .averageQueueWaitMs(done == 0 ? 0 : queueWaitNanos.sum() / 1_000_000.0 / done)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    static Integer costOf(String hashedPassword) {
+        // $2a$10$...: the cost sits between the second and third '$'
+        if (hashedPassword == null || hashedPassword.length() < 7 || hashedPassword.charAt(0) != '$'
+                || hashedPassword.charAt(3) != '$' || hashedPassword.charAt(6) != '$') {
+            return null;
+        }
+        try {
+            return Integer.parseInt(hashedPassword.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static int calibrate(long targetMs) {
+        BCrypt.hashpw("calibration", BCrypt.gensalt(MIN_COST));
+
+        int chosen = MIN_COST;
+        for (int candidate = MIN_COST; candidate <= MAX_COST; candidate++) {
+            long start = System.nanoTime();
+            BCrypt.hashpw("calibration", BCrypt.gensalt(candidate));
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            log.debug("BCrypt cost {} took {} ms", candidate, elapsedMs);
+
+            if (elapsedMs > targetMs) {
+                if (candidate == MIN_COST) {
+                    log.warn("BCrypt cost {} takes {} ms, over the {} ms budget; using it anyway", MIN_COST, elapsedMs, targetMs);
+                }
+                break;
+            }
+            chosen = candidate;
+            // each step doubles the work, so the next cost would exceed the budget
+            if (elapsedMs * 2 > targetMs) {
+                break;
+            }
+        }
+        log.info("BCrypt cost calibrated to {} for a {} ms budget", chosen, targetMs);
+        return chosen;
+    }
+
+    private <T> T await(Callable<T> operation) {
+        Future<T> future;
+        try {
+            future = executor.submit(measured(operation));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("Password hashing rejected, queue full with {} pending", executor.getQueue().size());
+            throw new ServiceUnavailableException("Too many password operations in progress, please retry shortly");
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.increment();
+            log.warn("Password hashing timed out after {} ms", timeoutMs);
+            throw new ServiceUnavailableException("Too many password operations in progress, please retry shortly");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Password hashing was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    // hashing on the caller thread instead would let a batch use more cores than the pool allows
+    private Future<?> submitWhenQueued(Callable<?> task) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        while (true) {
+            try {
+                return executor.submit(task);
+            } catch (RejectedExecutionException e) {
+                if (executor.isShutdown() || System.nanoTime() >= deadline) {
+                    rejected.increment();
+                    throw e;
+                }
+                TimeUnit.MILLISECONDS.sleep(QUEUE_POLL_MS);
+            }
+        }
+    }
+
+    private <T> Callable<T> measured(Callable<T> operation) {
+        long submittedAt = System.nanoTime();
+        return () -> {
+            long startedAt = System.nanoTime();
+            queueWaitNanos.add(startedAt - submittedAt);
+            T result = operation.call();
+            record(System.nanoTime() - startedAt);
+            return result;
+        };
+    }
+
+    private void record(long nanos) {
+        completed.increment();
+        hashNanos.add(nanos);
+        maxHashNanos.accumulateAndGet(nanos, Math::max);
+    }
+}
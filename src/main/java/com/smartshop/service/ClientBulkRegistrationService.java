@@ -0,0 +1,16 @@
+package com.smartshop.service;
+
+import com.smartshop.dto.requist.createRequistDto.UserClientRegistrationDTO;
+import com.smartshop.dto.response.client.BulkClientRegistrationJobDTO;
+import com.smartshop.dto.response.client.BulkClientRegistrationReportDTO;
+
+import java.util.List;
+
+public interface ClientBulkRegistrationService {
+
+    BulkClientRegistrationReportDTO register(List<UserClientRegistrationDTO> registrations);
+
+    BulkClientRegistrationJobDTO submit(List<UserClientRegistrationDTO> registrations);
+
+    BulkClientRegistrationJobDTO getJob(String jobId);
+}
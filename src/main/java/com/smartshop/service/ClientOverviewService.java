@@ -0,0 +1,8 @@
+package com.smartshop.service;
+
+import com.smartshop.dto.response.client.ClientOverviewDTO;
+
+public interface ClientOverviewService {
+
+    ClientOverviewDTO getOverview(String clientId);
+}
@@ -2,12 +2,20 @@ package com.smartshop.service;
 
 import com.smartshop.dto.requist.createRequistDto.UserClientRegistrationDTO;
 import com.smartshop.dto.requist.updateRequistDto.ClientUpdateDTO;
+import com.smartshop.dto.response.CursorPageDTO;
+import com.smartshop.dto.response.PasswordHashingStatsDTO;
 import com.smartshop.dto.response.client.ClientResponseDTO;
 import com.smartshop.dto.response.client.ClientStatisticsDTO;
+import com.smartshop.dto.response.client.ClientSuggestionDTO;
 import com.smartshop.dto.response.client.ClientWithUserResponseDTO;
+import com.smartshop.dto.response.client.LeaderboardEntryDTO;
+import com.smartshop.enums.ClientTier;
+import com.smartshop.enums.LeaderboardMetric;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
+
 
 public interface ClientService {
 
@@ -15,11 +23,15 @@ public interface ClientService {
     ClientResponseDTO getClientById(String id);
     ClientWithUserResponseDTO getClientWithUserById(String id);
     Page<ClientResponseDTO> getAllClients(Pageable pageable);
+    CursorPageDTO<ClientResponseDTO> getClientsByCursor(String cursor, int limit, boolean includeTotal);
     Page<ClientWithUserResponseDTO> getAllClientsWithUser(Pageable pageable);
     ClientWithUserResponseDTO update(String id, ClientUpdateDTO dto);
     void delete(String id);
     ClientResponseDTO changeTair(String id, String tair);
     ClientStatisticsDTO getClientStatistics(String clientId);
+    List<ClientSuggestionDTO> autocomplete(String query, int limit);
+    List<LeaderboardEntryDTO> getLeaderboard(LeaderboardMetric metric, ClientTier tier, int limit);
+    PasswordHashingStatsDTO getPasswordHashingStats();
 
 }
 
@@ -0,0 +1,18 @@
+package com.smartshop.service;
+
+import com.smartshop.entity.Order;
+
+import java.math.BigDecimal;
+
+public interface ClientStatisticsService {
+
+    void recordOrderPlaced(Order order);
+
+    void recordOrderConfirmed(Order order);
+
+    void recordOrderCancelled(Order order);
+
+    void recordPayment(Order order, BigDecimal amount);
+
+    long rebuildAll();
+}
@@ -0,0 +1,12 @@
+package com.smartshop.service;
+
+import com.smartshop.dto.response.client.TierRecomputeReportDTO;
+
+public interface ClientTierService {
+
+    TierRecomputeReportDTO recomputeAll();
+
+    TierRecomputeReportDTO startRecompute();
+
+    TierRecomputeReportDTO getProgress();
+}
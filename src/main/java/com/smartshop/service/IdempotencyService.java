@@ -0,0 +1,10 @@
+package com.smartshop.service;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+
+    <T> T execute(String scope, String idempotencyKey, Object request, Class<T> responseType, Supplier<T> action);
+
+    int purgeExpired();
+}
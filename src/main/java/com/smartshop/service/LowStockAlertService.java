@@ -0,0 +1,16 @@
+package com.smartshop.service;
+
+import com.smartshop.dto.response.product.LowStockAlertDTO;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+
+public interface LowStockAlertService {
+
+    void checkThresholds(Map<String, Integer> decrementedQuantities);
+
+    SseEmitter subscribe(Long lastEventId);
+
+    List<LowStockAlertDTO> getRecentAlerts(Long afterSequence);
+}
@@ -0,0 +1,11 @@
+package com.smartshop.service;
+
+import com.smartshop.enums.ExportFormat;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+public interface OrderExportService {
+
+    long exportOrders(LocalDateTime from, LocalDateTime to, ExportFormat format, OutputStream out);
+}
@@ -2,6 +2,7 @@ package com.smartshop.service;
 
 import com.smartshop.dto.requist.createRequistDto.OrderCreateDTO;
 import com.smartshop.dto.requist.updateRequistDto.OrderUpdateDTO;
+import com.smartshop.dto.response.CursorPageDTO;
 import com.smartshop.dto.response.order.OrderAdvancedResponseDTO;
 import com.smartshop.dto.response.order.OrderResponseDTO;
 import com.smartshop.dto.response.order.OrderStatisticsDTO;
@@ -27,6 +28,7 @@ public interface OrderService {
     List<OrderResponseDTO> getOrdersByClient(String clientId);
 
     Page<OrderResponseDTO> getAllOrders(Pageable pageable);
+    CursorPageDTO<OrderResponseDTO> getOrdersByCursor(String cursor, int limit, boolean includeTotal);
 
     void decrementStock(Order order);
 
@@ -39,4 +41,6 @@ public interface OrderService {
     OrderResponseDTO updateOrderStatus(String orderId, OrderStatus status);
 
     OrderStatisticsDTO getOrderStatistics();
+
+    OrderStatisticsDTO rebuildOrderStatistics();
 }
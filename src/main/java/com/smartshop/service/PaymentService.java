@@ -1,6 +1,7 @@
 package com.smartshop.service;
 
 import com.smartshop.dto.requist.createRequistDto.PaymentCreateDTO;
+import com.smartshop.dto.response.CursorPageDTO;
 import com.smartshop.dto.response.payement.PaymentAdvancedResponseDTO;
 import com.smartshop.dto.response.payement.PaymentResponseDTO;
 import com.smartshop.enums.PaymentStatus;
@@ -20,6 +21,7 @@ public interface PaymentService {
     List<PaymentResponseDTO> getPaymentsByOrder(String orderId);
 
     Page<PaymentResponseDTO> getAllPayments(Pageable pageable);
+    CursorPageDTO<PaymentResponseDTO> getPaymentsByCursor(String cursor, int limit, boolean includeTotal);
 
     PaymentResponseDTO updatePaymentStatus(String paymentId, PaymentStatus status);
 }
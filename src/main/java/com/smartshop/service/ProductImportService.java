@@ -0,0 +1,11 @@
+package com.smartshop.service;
+
+import com.smartshop.dto.response.product.ProductImportReportDTO;
+import com.smartshop.enums.ImportFormat;
+
+import java.io.InputStream;
+
+public interface ProductImportService {
+
+    ProductImportReportDTO importProducts(InputStream input, ImportFormat format);
+}
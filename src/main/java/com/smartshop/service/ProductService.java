@@ -2,9 +2,14 @@ package com.smartshop.service;
 
 
 import com.smartshop.dto.requist.createRequistDto.CreateProductDTO;
+import com.smartshop.dto.requist.searchRequistDto.ProductSearchCriteriaDTO;
+import com.smartshop.dto.requist.updateRequistDto.StockAdjustmentDTO;
 import com.smartshop.dto.requist.updateRequistDto.UpdateProductDTO;
+import com.smartshop.dto.response.CursorPageDTO;
 import com.smartshop.dto.response.product.ProductAdvancedResponseDTO;
+import com.smartshop.dto.response.product.ProductCacheStatsDTO;
 import com.smartshop.dto.response.product.ProductResponseDTO;
+import com.smartshop.dto.response.product.StockLevelDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import java.util.List;
@@ -19,6 +24,8 @@ public interface ProductService {
 
     Page<ProductResponseDTO> getAll(Pageable pageable);
 
+    CursorPageDTO<ProductResponseDTO> getProductsByCursor(String cursor, int limit, boolean includeTotal);
+
     Page<ProductResponseDTO> getProductsDeleted(Boolean deleted,Pageable pageable);
 
     Page<ProductAdvancedResponseDTO> getAllAdvanced(Pageable pageable);
@@ -29,8 +36,16 @@ public interface ProductService {
 
     ProductAdvancedResponseDTO update(String id, UpdateProductDTO dto);
 
-    List<ProductResponseDTO> searchProducts(String keyword);
+    List<StockLevelDTO> adjustStock(StockAdjustmentDTO dto);
+
+    Page<ProductResponseDTO> searchProducts(String keyword, Pageable pageable);
+
+    Page<ProductResponseDTO> filterProducts(ProductSearchCriteriaDTO criteria, Pageable pageable);
 
     void delete(String id);
+
+    List<ProductCacheStatsDTO> getCacheStatistics();
+
+    String getCatalogVersion();
 }
 
@@ -0,0 +1,17 @@
+package com.smartshop.service;
+
+import com.smartshop.entity.Order;
+import com.smartshop.entity.OrderItem;
+
+import java.util.List;
+
+public interface StockReservationService {
+
+    void reserve(Order order);
+
+    List<OrderItem> confirm(Order order);
+
+    boolean release(Order order);
+
+    int releaseExpired(int batchSize);
+}
@@ -0,0 +1,441 @@
+package com.smartshop.service.impl;
+
+import com.smartshop.dto.requist.createRequistDto.UserClientRegistrationDTO;
+import com.smartshop.dto.response.client.BulkClientRegistrationJobDTO;
+import com.smartshop.dto.response.client.BulkClientRegistrationReportDTO;
+import com.smartshop.dto.response.client.BulkClientRegistrationReportDTO.RowResultDTO;
+import com.smartshop.entity.Client;
+import com.smartshop.entity.ClientStatistics;
+import com.smartshop.enums.ClientTier;
+import com.smartshop.enums.JobStatus;
+import com.smartshop.enums.RegistrationOutcome;
+import com.smartshop.enums.UserRole;
+import com.smartshop.exception.ResourceNotFoundException;
+import com.smartshop.exception.ServiceUnavailableException;
+import com.smartshop.exception.ValidationException;
+import com.smartshop.leaderboard.ClientLeaderboard;
+import com.smartshop.repository.ClientRepository;
+import com.smartshop.search.ClientAutocompleteIndex;
+import com.smartshop.security.PasswordHasher;
+import com.smartshop.service.ClientBulkRegistrationService;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Registers clients in chunks: one uniqueness query per chunk, passwords hashed in parallel on the hashing pool,
+ * then users, clients and their statistics rows inserted with JDBC batches in one transaction per chunk.
+ * <p>
+ * Imports submitted over HTTP run one at a time on a background thread and are polled by job id. A chunk that
+ * fails stops the import: the report keeps the rows already created and marks the others FAILED.
+ */
+@Service
+public class ClientBulkRegistrationServiceImpl implements ClientBulkRegistrationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientBulkRegistrationServiceImpl.class);
+
+    private static final String INSERT_USER_SQL = "INSERT INTO users " +
+            "(id, username, password, role, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_CLIENT_SQL = "INSERT INTO clients " +
+            "(id, nom, email, tier, total_orders, total_spent, user_id, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, 0, 0, ?, ?, ?)";
+    private static final String INSERT_STATISTICS_SQL = "INSERT INTO client_statistics " +
+            "(client_id, order_count, confirmed_orders, cancelled_orders, pending_orders, confirmed_spent, pending_balance, " +
+            "bucket_day, daily_spend, created_at, updated_at) " +
+            "VALUES (?, 0, 0, 0, 0, 0, 0, ?, array_fill(0::numeric, ARRAY[?]), ?, ?)";
+
+    private static final List<String> UNIQUE_CONSTRAINTS = List.of("uk_users_username", "uk_clients_email");
+
+    private final ClientRepository clientRepository;
+    private final PasswordHasher passwordHasher;
+    private final ClientAutocompleteIndex clientAutocompleteIndex;
+    private final ClientLeaderboard clientLeaderboard;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final int chunkSize;
+    private final int maxRows;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, Job> jobs;
+
+    public ClientBulkRegistrationServiceImpl(ClientRepository clientRepository,
+                                             PasswordHasher passwordHasher,
+                                             ClientAutocompleteIndex clientAutocompleteIndex,
+                                             ClientLeaderboard clientLeaderboard,
+                                             JdbcTemplate jdbcTemplate,
+                                             PlatformTransactionManager transactionManager,
+                                             Validator validator,
+                                             @Value("${smartshop.client-bulk.chunk-size:1000}") int chunkSize,
+                                             @Value("${smartshop.client-bulk.max-rows:50000}") int maxRows,
+                                             @Value("${smartshop.client-bulk.max-queued-jobs:4}") int maxQueuedJobs,
+                                             @Value("${smartshop.client-bulk.retained-jobs:100}") int retainedJobs) {
+        this.clientRepository = clientRepository;
+        this.passwordHasher = passwordHasher;
+        this.clientAutocompleteIndex = clientAutocompleteIndex;
+        this.clientLeaderboard = clientLeaderboard;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.maxRows = maxRows;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxQueuedJobs),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "client-bulk-registration");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        // finished jobs are forgotten oldest first; at most maxQueuedJobs + 1 are ever unfinished
+        this.jobs = Collections.synchronizedMap(new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Job> eldest) {
+                return size() > Math.max(retainedJobs, maxQueuedJobs + 1);
+            }
+        });
+    }
+
+    @Override
+    public BulkClientRegistrationJobDTO submit(List<UserClientRegistrationDTO> registrations) {
+        checkSize(registrations);
+
+        Job job = new Job(registrations.size());
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job, registrations));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            log.warn("Bulk registration of {} rows rejected, {} imports already queued", registrations.size(), executor.getQueue().size());
+            throw new ServiceUnavailableException("Too many bulk registrations in progress, please retry shortly");
+        }
+        log.info("Queued bulk registration job {} with {} rows", job.id, registrations.size());
+        return job.toDTO();
+    }
+
+    @Override
+    public BulkClientRegistrationJobDTO getJob(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Bulk registration job not found with id: " + jobId);
+        }
+        return job.toDTO();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(Job job, List<UserClientRegistrationDTO> registrations) {
+        job.status = JobStatus.RUNNING;
+        try {
+            job.report = register(registrations);
+            job.finishedAt = LocalDateTime.now();
+            job.status = JobStatus.COMPLETED;
+        } catch (RuntimeException e) {
+            log.error("Bulk registration job {} failed", job.id, e);
+            job.error = e.getMessage();
+            job.finishedAt = LocalDateTime.now();
+            job.status = JobStatus.FAILED;
+        }
+    }
+
+    @Override
+    public BulkClientRegistrationReportDTO register(List<UserClientRegistrationDTO> registrations) {
+        log.info("Starting ClientBulkRegistrationService.register with {} rows",
+                registrations == null ? 0 : registrations.size());
+
+        checkSize(registrations);
+
+        long start = System.currentTimeMillis();
+        RowResultDTO[] results = new RowResultDTO[registrations.size()];
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        List<Pending> chunk = new ArrayList<>(chunkSize);
+        String error = null;
+
+        for (int i = 0; i < registrations.size() && error == null; i++) {
+            UserClientRegistrationDTO dto = registrations.get(i);
+            String invalid = validate(dto);
+            if (invalid == null && usernames.contains(dto.getUsername())) {
+                invalid = "Duplicate username in request";
+            } else if (invalid == null && emails.contains(dto.getEmail())) {
+                invalid = "Duplicate email in request";
+            }
+            if (invalid != null) {
+                results[i] = rejected(i, dto, invalid);
+                continue;
+            }
+
+            usernames.add(dto.getUsername());
+            emails.add(dto.getEmail());
+            chunk.add(new Pending(i, dto));
+            if (chunk.size() == chunkSize) {
+                error = flushOrStop(chunk, results);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty() && error == null) {
+            error = flushOrStop(chunk, results);
+        }
+
+        if (error != null) {
+            for (int i = 0; i < results.length; i++) {
+                if (results[i] == null) {
+                    results[i] = failed(i, registrations.get(i), "Not registered, the import stopped: " + error);
+                }
+            }
+        }
+
+        List<RowResultDTO> rows = Arrays.asList(results);
+        int created = count(rows, RegistrationOutcome.CREATED);
+        int rejected = count(rows, RegistrationOutcome.REJECTED);
+        int failed = count(rows, RegistrationOutcome.FAILED);
+        long elapsedMs = System.currentTimeMillis() - start;
+
+        log.info("Finished ClientBulkRegistrationService.register - rows={}, created={}, rejected={}, failed={}, elapsedMs={}",
+                rows.size(), created, rejected, failed, elapsedMs);
+
+        return BulkClientRegistrationReportDTO.builder()
+                .totalRows(rows.size())
+                .created(created)
+                .rejected(rejected)
+                .failed(failed)
+                .error(error)
+                .elapsedMs(elapsedMs)
+                .rows(rows)
+                .build();
+    }
+
+    private void checkSize(List<UserClientRegistrationDTO> registrations) {
+        if (registrations == null || registrations.isEmpty()) {
+            throw new ValidationException("At least one client registration is required");
+        }
+        if (registrations.size() > maxRows) {
+            throw new ValidationException("A bulk registration accepts at most " + maxRows + " clients, got " + registrations.size());
+        }
+    }
+
+    // earlier chunks are committed, so a failure stops the import and the report still lists what was created
+    private String flushOrStop(List<Pending> chunk, RowResultDTO[] results) {
+        try {
+            flush(chunk, results);
+            return null;
+        } catch (RuntimeException e) {
+            log.error("Bulk registration chunk of {} rows failed, stopping the import", chunk.size(), e);
+            return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        }
+    }
+
+    private static int count(List<RowResultDTO> rows, RegistrationOutcome outcome) {
+        return (int) rows.stream().filter(row -> row.getOutcome() == outcome).count();
+    }
+
+    private String validate(UserClientRegistrationDTO dto) {
+        if (dto == null) {
+            return "Empty row";
+        }
+        Set<ConstraintViolation<UserClientRegistrationDTO>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (dto.getRole() == UserRole.ADMIN) {
+            return "Admin role is not allowed";
+        }
+        return null;
+    }
+
+    private void flush(List<Pending> chunk, RowResultDTO[] results) {
+        List<Pending> pending = withoutTaken(chunk, results);
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // hashed before the transaction so no connection is held while the CPU-bound work runs
+        List<String> hashes = passwordHasher.hashAll(pending.stream().map(row -> row.dto.getPassword()).toList());
+        for (int i = 0; i < pending.size(); i++) {
+            pending.get(i).passwordHash = hashes.get(i);
+        }
+
+        try {
+            insert(pending);
+        } catch (DataIntegrityViolationException first) {
+            if (!isUniqueViolation(first)) {
+                throw first;
+            }
+            // a concurrent registration took a username or email after the check; the chunk rolled back as a whole
+            log.warn("Bulk registration chunk hit a unique constraint, re-checking {} rows", pending.size());
+            pending = withoutTaken(pending, results);
+            try {
+                insert(pending);
+            } catch (DataIntegrityViolationException second) {
+                if (!isUniqueViolation(second)) {
+                    throw second;
+                }
+                log.error("Bulk registration chunk of {} rows failed twice on unique constraints", pending.size(), second);
+                for (Pending row : pending) {
+                    results[row.index] = rejected(row.index, row.dto, "Username or email was registered concurrently, retry this row");
+                }
+                return;
+            }
+        }
+
+        for (Pending row : pending) {
+            results[row.index] = RowResultDTO.builder()
+                    .index(row.index)
+                    .username(row.dto.getUsername())
+                    .email(row.dto.getEmail())
+                    .outcome(RegistrationOutcome.CREATED)
+                    .clientId(row.clientId)
+                    .build();
+            clientAutocompleteIndex.index(row.clientId, row.dto.getNom(), row.dto.getEmail());
+            clientLeaderboard.update(Client.builder().id(row.clientId).nom(row.dto.getNom()).email(row.dto.getEmail()).build());
+        }
+        log.debug("Registered chunk of {} clients", pending.size());
+    }
+
+    private static boolean isUniqueViolation(DataIntegrityViolationException e) {
+        String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        return message != null && UNIQUE_CONSTRAINTS.stream().anyMatch(message::contains);
+    }
+
+    private List<Pending> withoutTaken(List<Pending> rows, RowResultDTO[] results) {
+        if (rows.isEmpty()) {
+            return rows;
+        }
+        Set<String> takenUsernames = new HashSet<>();
+        Set<String> takenEmails = new HashSet<>();
+        List<Object[]> taken = clientRepository.findTakenUsernamesAndEmails(
+                rows.stream().map(row -> row.dto.getUsername()).toList(),
+                rows.stream().map(row -> row.dto.getEmail()).toList());
+        for (Object[] key : taken) {
+            ("USERNAME".equals(key[0]) ? takenUsernames : takenEmails).add((String) key[1]);
+        }
+
+        List<Pending> free = new ArrayList<>(rows.size());
+        for (Pending row : rows) {
+            if (takenUsernames.contains(row.dto.getUsername())) {
+                results[row.index] = rejected(row.index, row.dto, "Username already exists");
+            } else if (takenEmails.contains(row.dto.getEmail())) {
+                results[row.index] = rejected(row.index, row.dto, "Email already exists");
+            } else {
+                free.add(row);
+            }
+        }
+        return free;
+    }
+
+    private void insert(List<Pending> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long today = LocalDate.now().toEpochDay();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_USER_SQL, rows, rows.size(), (ps, row) -> {
+                ps.setString(1, row.userId);
+                ps.setString(2, row.dto.getUsername());
+                ps.setString(3, row.passwordHash);
+                ps.setString(4, row.dto.getRole().name());
+                ps.setTimestamp(5, now);
+                ps.setTimestamp(6, now);
+            });
+            jdbcTemplate.batchUpdate(INSERT_CLIENT_SQL, rows, rows.size(), (ps, row) -> {
+                ps.setString(1, row.clientId);
+                ps.setString(2, row.dto.getNom());
+                ps.setString(3, row.dto.getEmail());
+                ps.setString(4, ClientTier.BASIC.name());
+                ps.setString(5, row.userId);
+                ps.setTimestamp(6, now);
+                ps.setTimestamp(7, now);
+            });
+            jdbcTemplate.batchUpdate(INSERT_STATISTICS_SQL, rows, rows.size(), (ps, row) -> {
+                ps.setString(1, row.clientId);
+                ps.setLong(2, today);
+                ps.setInt(3, ClientStatistics.WINDOW_DAYS);
+                ps.setTimestamp(4, now);
+                ps.setTimestamp(5, now);
+            });
+        });
+    }
+
+    private static RowResultDTO rejected(int index, UserClientRegistrationDTO dto, String message) {
+        return row(index, dto, RegistrationOutcome.REJECTED, message);
+    }
+
+    private static RowResultDTO failed(int index, UserClientRegistrationDTO dto, String message) {
+        return row(index, dto, RegistrationOutcome.FAILED, message);
+    }
+
+    private static RowResultDTO row(int index, UserClientRegistrationDTO dto, RegistrationOutcome outcome, String message) {
+        return RowResultDTO.builder()
+                .index(index)
+                .username(dto != null ? dto.getUsername() : null)
+                .email(dto != null ? dto.getEmail() : null)
+                .outcome(outcome)
+                .message(message)
+                .build();
+    }
+
+    private static final class Job {
+        private final String id = UUID.randomUUID().toString();
+        private final int totalRows;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private volatile JobStatus status = JobStatus.QUEUED;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+        private volatile BulkClientRegistrationReportDTO report;
+
+        private Job(int totalRows) {
+            this.totalRows = totalRows;
+        }
+
+        BulkClientRegistrationJobDTO toDTO() {
+            return BulkClientRegistrationJobDTO.builder()
+                    .id(id)
+                    .status(status)
+                    .totalRows(totalRows)
+                    .submittedAt(submittedAt)
+                    .finishedAt(finishedAt)
+                    .error(error)
+                    .report(report)
+                    .build();
+        }
+    }
+
+    private static final class Pending {
+        private final int index;
+        private final UserClientRegistrationDTO dto;
+        private final String userId = UUID.randomUUID().toString();
+        private final String clientId = UUID.randomUUID().toString();
+        private String passwordHash;
+
+        private Pending(int index, UserClientRegistrationDTO dto) {
+            this.index = index;
+            this.dto = dto;
+        }
+    }
+}
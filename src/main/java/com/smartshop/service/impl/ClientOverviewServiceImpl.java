@@ -0,0 +1,186 @@
+package com.smartshop.service.impl;
+
+import com.smartshop.dto.response.client.ClientOverviewDTO;
+import com.smartshop.dto.response.client.ClientWithUserResponseDTO;
+import com.smartshop.dto.response.order.OrderResponseDTO;
+import com.smartshop.dto.response.payement.PaymentResponseDTO;
+import com.smartshop.exception.ResourceNotFoundException;
+import com.smartshop.exception.ServiceUnavailableException;
+import com.smartshop.mapper.OrderMapper;
+import com.smartshop.mapper.PaymentMapper;
+import com.smartshop.repository.OrderRepository;
+import com.smartshop.repository.PaymentRepository;
+import com.smartshop.service.ClientOverviewService;
+import com.smartshop.service.ClientService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds the client overview from four independent reads run in parallel on a bounded pool. The whole call
+ * waits at most {@code budget-ms}: an order or payment section still running then is cancelled and reported in
+ * timedOutSections, and one that failed is reported in failedSections, while the other sections are still returned.
+ * The client section is what tells an unknown client from one without orders, so an unknown client fails the
+ * call with 404 and a client section that timed out or failed fails it with 503.
+ */
+@Service
+public class ClientOverviewServiceImpl implements ClientOverviewService {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientOverviewServiceImpl.class);
+
+    static final String CLIENT = "client";
+    static final String RECENT_ORDERS = "recentOrders";
+    static final String OUTSTANDING_ORDERS = "outstandingOrders";
+    static final String RECENT_PAYMENTS = "recentPayments";
+
+    private final ClientService clientService;
+    private final OrderRepository orderRepository;
+    private final PaymentRepository paymentRepository;
+    private final OrderMapper orderMapper;
+    private final PaymentMapper paymentMapper;
+    private final ThreadPoolExecutor executor;
+    private final long budgetMs;
+    private final int recentLimit;
+
+    public ClientOverviewServiceImpl(ClientService clientService,
+                                     OrderRepository orderRepository,
+                                     PaymentRepository paymentRepository,
+                                     OrderMapper orderMapper,
+                                     PaymentMapper paymentMapper,
+                                     @Value("${smartshop.client-overview.threads:4}") int threads,
+                                     @Value("${smartshop.client-overview.queue-capacity:100}") int queueCapacity,
+                                     @Value("${smartshop.client-overview.budget-ms:800}") long budgetMs,
+                                     @Value("${smartshop.client-overview.recent-limit:10}") int recentLimit) {
+        this.clientService = clientService;
+        this.orderRepository = orderRepository;
+        this.paymentRepository = paymentRepository;
+        this.orderMapper = orderMapper;
+        this.paymentMapper = paymentMapper;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "client-overview-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.budgetMs = budgetMs;
+        this.recentLimit = recentLimit;
+    }
+
+    @Override
+    public ClientOverviewDTO getOverview(String clientId) {
+        log.info("Starting ClientOverviewService.getOverview with clientId={}", clientId);
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(budgetMs);
+
+        List<Future<?>> submitted = new ArrayList<>();
+        Future<ClientWithUserResponseDTO> client = submit(submitted,
+                () -> clientService.getClientWithUserById(clientId));
+        Future<List<OrderResponseDTO>> recentOrders = submit(submitted,
+                () -> orderMapper.fromSummaryViewList(
+                        orderRepository.findRecentSummariesByClientId(clientId, PageRequest.of(0, recentLimit))));
+        Future<List<OrderResponseDTO>> outstandingOrders = submit(submitted,
+                () -> orderMapper.fromSummaryViewList(orderRepository.findOutstandingSummariesByClientId(clientId)));
+        Future<List<PaymentResponseDTO>> recentPayments = submit(submitted,
+                () -> paymentMapper.toSimpleDTOList(
+                        paymentRepository.findRecentByClientId(clientId, PageRequest.of(0, recentLimit))));
+
+        List<String> timedOut = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
+        ClientWithUserResponseDTO clientSection;
+        List<OrderResponseDTO> recentOrdersSection;
+        List<OrderResponseDTO> outstandingSection;
+        List<PaymentResponseDTO> paymentsSection;
+        try {
+            clientSection = await(CLIENT, client, deadline, timedOut, failed);
+            if (clientSection == null) {
+                log.warn("Client overview for clientId={} aborted, client section {}", clientId,
+                        timedOut.contains(CLIENT) ? "timed out" : "failed");
+                throw new ServiceUnavailableException("Client details could not be loaded, please retry shortly");
+            }
+            recentOrdersSection = await(RECENT_ORDERS, recentOrders, deadline, timedOut, failed);
+            outstandingSection = await(OUTSTANDING_ORDERS, outstandingOrders, deadline, timedOut, failed);
+            paymentsSection = await(RECENT_PAYMENTS, recentPayments, deadline, timedOut, failed);
+        } catch (RuntimeException e) {
+            submitted.forEach(future -> future.cancel(true));
+            throw e;
+        }
+
+        BigDecimal outstandingBalance = null;
+        if (outstandingSection != null) {
+            outstandingBalance = outstandingSection.stream()
+                    .map(OrderResponseDTO::getMontantRestant)
+                    .filter(Objects::nonNull)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        if (!timedOut.isEmpty() || !failed.isEmpty()) {
+            log.warn("Partial overview for clientId={} after {} ms: timedOut={}, failed={}", clientId, elapsedMs, timedOut, failed);
+        }
+        log.info("Finished ClientOverviewService.getOverview with clientId={} in {} ms", clientId, elapsedMs);
+
+        return ClientOverviewDTO.builder()
+                .client(clientSection)
+                .recentOrders(recentOrdersSection)
+                .outstandingOrders(outstandingSection)
+                .outstandingBalance(outstandingBalance)
+                .recentPayments(paymentsSection)
+                .partial(!timedOut.isEmpty() || !failed.isEmpty())
+                .timedOutSections(timedOut)
+                .failedSections(failed)
+                .elapsedMs(elapsedMs)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> Future<T> submit(List<Future<?>> submitted, Callable<T> section) {
+        try {
+            Future<T> future = executor.submit(section);
+            submitted.add(future);
+            return future;
+        } catch (RejectedExecutionException e) {
+            submitted.forEach(future -> future.cancel(true));
+            log.warn("Client overview rejected, {} sections already queued", executor.getQueue().size());
+            throw new ServiceUnavailableException("Too many client overviews in progress, please retry shortly");
+        }
+    }
+
+    private <T> T await(String section, Future<T> future, long deadline, List<String> timedOut, List<String> failed) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.add(section);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Client overview was interrupted");
+        } catch (ExecutionException e) {
+            // an unknown client is an answer, not a partial result
+            if (e.getCause() instanceof ResourceNotFoundException notFound) {
+                throw notFound;
+            }
+            log.warn("Client overview section {} failed", section, e.getCause());
+            failed.add(section);
+            return null;
+        }
+    }
+}
@@ -2,31 +2,51 @@ package com.smartshop.service.impl;
 
 import com.smartshop.dto.requist.createRequistDto.UserClientRegistrationDTO;
 import com.smartshop.dto.requist.updateRequistDto.ClientUpdateDTO;
+import com.smartshop.dto.response.CursorPageDTO;
+import com.smartshop.dto.response.PasswordHashingStatsDTO;
 import com.smartshop.dto.response.client.ClientResponseDTO;
 import com.smartshop.dto.response.client.ClientStatisticsDTO;
+import com.smartshop.dto.response.client.ClientSuggestionDTO;
 import com.smartshop.dto.response.client.ClientWithUserResponseDTO;
+import com.smartshop.dto.response.client.LeaderboardEntryDTO;
 import com.smartshop.entity.Client;
+import com.smartshop.entity.ClientStatistics;
 import com.smartshop.entity.User;
 import com.smartshop.enums.ClientTier;
+import com.smartshop.enums.LeaderboardMetric;
 import com.smartshop.enums.UserRole;
 import com.smartshop.exception.DuplicateResourceException;
 import com.smartshop.exception.ResourceNotFoundException;
 import com.smartshop.exception.ValidationException;
+import com.smartshop.leaderboard.ClientLeaderboard;
 import com.smartshop.mapper.ClientMapper;
+import com.smartshop.pagination.Cursor;
 import com.smartshop.repository.ClientRepository;
+import com.smartshop.repository.ClientStatisticsRepository;
 import com.smartshop.repository.UserRepository;
+import com.smartshop.search.ClientAutocompleteIndex;
+import com.smartshop.security.PasswordHasher;
 import com.smartshop.service.ClientService;
-import org.mindrot.jbcrypt.BCrypt;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
 
 
 @Service
@@ -34,6 +54,8 @@ import java.math.RoundingMode;
 public class ClientServiceImpl implements ClientService {
 
     private static final Logger log = LoggerFactory.getLogger(ClientServiceImpl.class);
+    private static final int MAX_AUTOCOMPLETE_LIMIT = 50;
+    private static final int MAX_LEADERBOARD_LIMIT = 100;
 
     @Autowired
     private UserRepository userRepository;
@@ -44,44 +66,72 @@ public class ClientServiceImpl implements ClientService {
     @Autowired
     private  ClientMapper clientMapper;
 
+    @Autowired
+    private ClientStatisticsRepository clientStatisticsRepository;
+
+    @Autowired
+    private ClientAutocompleteIndex clientAutocompleteIndex;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private ClientLeaderboard clientLeaderboard;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Hashes the password before the first query of the request: a connection is taken on first use and, with
+     * open-in-view, kept until the response, so a hash waiting on the hashing pool must not come after a query.
+     * The checks and inserts then run in one transaction.
+     */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ClientWithUserResponseDTO create(UserClientRegistrationDTO dto) {
         log.info("Starting ClientService.create with username={}", dto.getUsername());
 
-        if (userRepository.findByUsername(dto.getUsername()).isPresent()) {
-            log.warn("Username already exists: {}", dto.getUsername());
-            throw new DuplicateResourceException("Username already exists");
-        }
-        if (clientRepository.findByEmail(dto.getEmail()).isPresent()) {
-            log.warn("Email already exists: {}", dto.getEmail());
-            throw new DuplicateResourceException("Email already exists");
-        }
-
-        if (dto.getRole().equals(UserRole.ADMIN)) {
+        if (UserRole.ADMIN.equals(dto.getRole())) {
             log.warn("Attempt to create client with ADMIN role for username={}", dto.getUsername());
             throw new ValidationException("Admin role is not allowed");
         }
-        String hashPassword =  BCrypt.hashpw(dto.getPassword(), BCrypt.gensalt());
+        String hashPassword = passwordHasher.hash(dto.getPassword());
 
-        User user = User.builder()
-                .username(dto.getUsername())
-                .password(hashPassword)
-                .role(dto.getRole() != null ? dto.getRole() : UserRole.CLIENT)
-                .build();
-
-        Client client = Client.builder()
-                .nom(dto.getNom())
-                .email(dto.getEmail())
-                .user(user)
-                .build();
+        ClientWithUserResponseDTO created = inTransaction(() -> {
+            if (userRepository.findByUsername(dto.getUsername()).isPresent()) {
+                log.warn("Username already exists: {}", dto.getUsername());
+                throw new DuplicateResourceException("Username already exists");
+            }
+            if (clientRepository.findByEmail(dto.getEmail()).isPresent()) {
+                log.warn("Email already exists: {}", dto.getEmail());
+                throw new DuplicateResourceException("Email already exists");
+            }
 
-        user.setClient(client);
-        User savedUser = userRepository.save(user);
+            User user = User.builder()
+                    .username(dto.getUsername())
+                    .password(hashPassword)
+                    .role(dto.getRole() != null ? dto.getRole() : UserRole.CLIENT)
+                    .build();
+
+            Client client = Client.builder()
+                    .nom(dto.getNom())
+                    .email(dto.getEmail())
+                    .user(user)
+                    .build();
+
+            user.setClient(client);
+            User savedUser = userRepository.save(user);
+            clientStatisticsRepository.save(ClientStatistics.builder().client(savedUser.getClient()).build());
+            Client savedClient = savedUser.getClient();
+            afterCommit(() -> clientAutocompleteIndex.index(savedClient.getId(), savedClient.getNom(), savedClient.getEmail()));
+            clientLeaderboard.update(savedClient);
+
+            log.info("Client created successfully with id={} for username={}", savedClient.getId(), dto.getUsername());
+            return clientMapper.toClientWithUserResponse(savedClient);
+        });
 
-        log.info("Client created successfully with id={} for username={}", savedUser.getClient().getId(), dto.getUsername());
         log.info("Finished ClientService.create with username={}", dto.getUsername());
-
-        return clientMapper.toClientWithUserResponse(savedUser.getClient());
+        return created;
     }
 
     @Override
@@ -118,6 +168,28 @@ public class ClientServiceImpl implements ClientService {
         return clientsPage.map(clientMapper::toClientResponse);
     }
 
+    @Override
+    public CursorPageDTO<ClientResponseDTO> getClientsByCursor(String cursor, int limit, boolean includeTotal) {
+        log.info("Starting ClientService.getClientsByCursor with cursor={}, limit={}", cursor, limit);
+
+        int pageSize = Cursor.clampLimit(limit);
+        Cursor after = Cursor.decode(cursor);
+        Pageable window = PageRequest.of(0, pageSize + 1);
+
+        List<Client> rows = after == null
+                ? clientRepository.findKeysetFirstPage(window)
+                : clientRepository.findKeysetPageAfter(after.createdAt(), after.id(), window);
+        Long total = includeTotal ? clientRepository.count() : null;
+
+        CursorPageDTO<ClientResponseDTO> page = CursorPageDTO.of(rows, pageSize,
+                c -> new Cursor(c.getCreatedAt(), c.getId()), clientMapper::toClientResponse, total);
+
+        log.info("Retrieved {} clients, hasNext={}", page.getContent().size(), page.isHasNext());
+        log.info("Finished ClientService.getClientsByCursor");
+
+        return page;
+    }
+
     @Override
     public Page<ClientWithUserResponseDTO> getAllClientsWithUser(Pageable pageable) {
         log.info("Starting ClientService.getAllClientsWithUser with page={}, size={}", pageable.getPageNumber(), pageable.getPageSize());
@@ -130,52 +202,60 @@ public class ClientServiceImpl implements ClientService {
         return clientsPage.map(clientMapper::toClientWithUserResponse);
     }
 
+    /**
+     * Like {@link #create}, hashes a new password before any query and applies the changes in one transaction.
+     */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ClientWithUserResponseDTO update(String id, ClientUpdateDTO dto) {
         log.info("Starting ClientService.update with id={}", id);
 
-        Client client = clientRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Client not found with id: " + id));
+        String hashPassword = dto.getPassword() != null ? passwordHasher.hash(dto.getPassword()) : null;
 
-        User user = client.getUser();
+        ClientWithUserResponseDTO updated = inTransaction(() -> {
+            Client client = clientRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Client not found with id: " + id));
 
-        if (dto.getUsername() != null && !dto.getUsername().equals(user.getUsername())) {
-            if (userRepository.findByUsername(dto.getUsername()).isPresent()) {
-                log.warn("Username already exists during update: {}", dto.getUsername());
-                throw new DuplicateResourceException("Username already exists");
-            }
-            user.setUsername(dto.getUsername());
-            log.info("Username updated for client id={}", id);
-        }
-
-        String hashPassword =  BCrypt.hashpw(dto.getPassword(), BCrypt.gensalt());
+            User user = client.getUser();
 
+            if (dto.getUsername() != null && !dto.getUsername().equals(user.getUsername())) {
+                if (userRepository.findByUsername(dto.getUsername()).isPresent()) {
+                    log.warn("Username already exists during update: {}", dto.getUsername());
+                    throw new DuplicateResourceException("Username already exists");
+                }
+                user.setUsername(dto.getUsername());
+                log.info("Username updated for client id={}", id);
+            }
 
-        if (dto.getPassword() != null) {
-            user.setPassword(hashPassword);
-            log.info("Password updated for client id={}", id);
-        }
+            if (dto.getNom() != null) {
+                client.setNom(dto.getNom());
+                log.info("Name updated for client id={}", id);
+            }
 
-        if (dto.getNom() != null) {
-            client.setNom(dto.getNom());
-            log.info("Name updated for client id={}", id);
-        }
+            if (dto.getEmail() != null && !dto.getEmail().equals(client.getEmail())) {
+                if (clientRepository.findByEmail(dto.getEmail()).isPresent()) {
+                    log.warn("Email already exists during update: {}", dto.getEmail());
+                    throw new DuplicateResourceException("Email already exists");
+                }
+                client.setEmail(dto.getEmail());
+                log.info("Email updated for client id={}", id);
+            }
 
-        if (dto.getEmail() != null && !dto.getEmail().equals(client.getEmail())) {
-            if (clientRepository.findByEmail(dto.getEmail()).isPresent()) {
-                log.warn("Email already exists during update: {}", dto.getEmail());
-                throw new DuplicateResourceException("Email already exists");
+            if (hashPassword != null) {
+                user.setPassword(hashPassword);
+                log.info("Password updated for client id={}", id);
             }
-            client.setEmail(dto.getEmail());
-            log.info("Email updated for client id={}", id);
-        }
 
-        Client updatedClient = clientRepository.save(client);
+            Client updatedClient = clientRepository.save(client);
+            afterCommit(() -> clientAutocompleteIndex.index(updatedClient.getId(), updatedClient.getNom(), updatedClient.getEmail()));
+            clientLeaderboard.update(updatedClient);
 
-        log.info("Client updated successfully with id={}", id);
-        log.info("Finished ClientService.update with id={}", id);
+            log.info("Client updated successfully with id={}", id);
+            return clientMapper.toClientWithUserResponse(updatedClient);
+        });
 
-        return clientMapper.toClientWithUserResponse(updatedClient);
+        log.info("Finished ClientService.update with id={}", id);
+        return updated;
     }
 
     @Override
@@ -184,12 +264,61 @@ public class ClientServiceImpl implements ClientService {
 
         Client client = clientRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Client not found with id: " + id));
+        // client_statistics references clients without ON DELETE CASCADE, so its row has to go first
+        clientStatisticsRepository.deleteByClientId(id);
         clientRepository.delete(client);
+        afterCommit(() -> clientAutocompleteIndex.remove(id));
+        clientLeaderboard.remove(id);
 
         log.info("Client deleted successfully with id={}", id);
         log.info("Finished ClientService.delete with id={}", id);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<ClientSuggestionDTO> autocomplete(String query, int limit) {
+        log.info("Starting ClientService.autocomplete with query={}, limit={}", query, limit);
+
+        int size = Math.max(1, Math.min(limit, MAX_AUTOCOMPLETE_LIMIT));
+        if (!clientAutocompleteIndex.isReady()) {
+            log.debug("Client autocomplete index still loading, results may be incomplete");
+        }
+        List<ClientSuggestionDTO> suggestions = clientAutocompleteIndex.suggest(query, size).stream()
+                .map(s -> ClientSuggestionDTO.builder().id(s.id()).nom(s.nom()).email(s.email()).build())
+                .toList();
+
+        log.info("Finished ClientService.autocomplete with {} suggestions", suggestions.size());
+        return suggestions;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LeaderboardEntryDTO> getLeaderboard(LeaderboardMetric metric, ClientTier tier, int limit) {
+        log.info("Starting ClientService.getLeaderboard with metric={}, tier={}, limit={}", metric, tier, limit);
+
+        int size = Math.max(1, Math.min(limit, MAX_LEADERBOARD_LIMIT));
+        List<ClientLeaderboard.Entry> entries = clientLeaderboard.top(metric, tier, size);
+        List<LeaderboardEntryDTO> leaderboard = new ArrayList<>(entries.size());
+        for (ClientLeaderboard.Entry entry : entries) {
+            leaderboard.add(LeaderboardEntryDTO.builder()
+                    .rank(leaderboard.size() + 1)
+                    .clientId(entry.clientId())
+                    .nom(entry.nom())
+                    .tier(entry.tier())
+                    .totalOrders(entry.totalOrders())
+                    .totalSpent(entry.totalSpent())
+                    .build());
+        }
+
+        log.info("Finished ClientService.getLeaderboard with {} entries", leaderboard.size());
+        return leaderboard;
+    }
+
+    @Override
+    public PasswordHashingStatsDTO getPasswordHashingStats() {
+        return passwordHasher.stats();
+    }
+
     @Override
     public ClientResponseDTO changeTair(String id, String tair) {
         log.info("Starting ClientService.changeTair with id={} and tier={}", id, tair);
@@ -200,6 +329,7 @@ public class ClientServiceImpl implements ClientService {
         ClientTier clientTier = ClientTier.valueOf(tair.toUpperCase());
         client.setTier(clientTier);
         Client updatedClient = clientRepository.save(client);
+        clientLeaderboard.update(updatedClient);
 
         log.info("Client tier changed successfully to {} for id={}", clientTier, id);
         log.info("Finished ClientService.changeTair with id={}", id);
@@ -211,17 +341,20 @@ public class ClientServiceImpl implements ClientService {
     public ClientStatisticsDTO getClientStatistics(String clientId) {
         log.info("Starting ClientService.getClientStatistics with clientId={}", clientId);
 
-        Client client = clientRepository.findById(clientId)
-                .orElseThrow(() -> new ResourceNotFoundException("Client not found with id: " + clientId));
+        ClientStatistics statistics = clientStatisticsRepository.findWithClientByClientId(clientId)
+                .orElseGet(() -> ClientStatistics.builder()
+                        .client(clientRepository.findById(clientId)
+                                .orElseThrow(() -> new ResourceNotFoundException("Client not found with id: " + clientId)))
+                        .build());
+        Client client = statistics.getClient();
 
         BigDecimal averageOrderValue = BigDecimal.ZERO;
-        if (client.getTotalOrders() > 0) {
-            averageOrderValue = client.getTotalSpent()
-                    .divide(new BigDecimal(client.getTotalOrders()), 2, RoundingMode.HALF_UP);
+        if (statistics.getConfirmedOrders() > 0) {
+            averageOrderValue = statistics.getConfirmedSpent()
+                    .divide(new BigDecimal(statistics.getConfirmedOrders()), 2, RoundingMode.HALF_UP);
         }
+        LocalDate today = LocalDate.now();
 
-        log.info("Statistics calculated for client id={}: totalOrders={}, totalSpent={}",
-                clientId, client.getTotalOrders(), client.getTotalSpent());
         log.info("Finished ClientService.getClientStatistics with clientId={}", clientId);
 
         return ClientStatisticsDTO.builder()
@@ -229,8 +362,33 @@ public class ClientServiceImpl implements ClientService {
                 .nom(client.getNom())
                 .email(client.getEmail())
                 .tier(client.getTier())
-                .totalOrders(client.getTotalOrders())
-                .totalSpent(client.getTotalSpent())
+                .totalOrders(statistics.getConfirmedOrders())
+                .totalSpent(statistics.getConfirmedSpent())
+                .averageOrderValue(averageOrderValue)
+                .pendingOrders(statistics.getPendingOrders())
+                .pendingBalance(statistics.getPendingBalance())
+                .cancelledOrders(statistics.getCancelledOrders())
+                .firstOrderDate(statistics.getFirstOrderAt())
+                .lastOrderDate(statistics.getLastOrderAt())
+                .spentLast30Days(statistics.spendOverLastDays(today, 30))
+                .spentLast90Days(statistics.spendOverLastDays(today, 90))
                 .build();
     }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        return new TransactionTemplate(transactionManager).execute(status -> work.get());
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 }
@@ -0,0 +1,193 @@
+package com.smartshop.service.impl;
+
+import com.smartshop.entity.Client;
+import com.smartshop.entity.ClientStatistics;
+import com.smartshop.entity.Order;
+import com.smartshop.enums.OrderStatus;
+import com.smartshop.repository.ClientRepository;
+import com.smartshop.repository.ClientStatisticsRepository;
+import com.smartshop.repository.OrderRepository;
+import com.smartshop.service.ClientStatisticsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the client_statistics row of a client in step with its orders. Every write locks the row, so concurrent
+ * order and payment transactions of one client apply their deltas one after the other.
+ */
+@Service
+public class ClientStatisticsServiceImpl implements ClientStatisticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientStatisticsServiceImpl.class);
+
+    private final ClientStatisticsRepository clientStatisticsRepository;
+    private final ClientRepository clientRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int rebuildChunkSize;
+
+    public ClientStatisticsServiceImpl(ClientStatisticsRepository clientStatisticsRepository,
+                                       ClientRepository clientRepository,
+                                       OrderRepository orderRepository,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${smartshop.client-statistics.rebuild-chunk-size:1000}") int rebuildChunkSize) {
+        this.clientStatisticsRepository = clientStatisticsRepository;
+        this.clientRepository = clientRepository;
+        this.orderRepository = orderRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rebuildChunkSize = rebuildChunkSize;
+    }
+
+    @Override
+    @Transactional
+    public void recordOrderPlaced(Order order) {
+        ClientStatistics statistics = lock(order.getClient());
+
+        statistics.setOrderCount(statistics.getOrderCount() + 1);
+        statistics.setPendingOrders(statistics.getPendingOrders() + 1);
+        statistics.setPendingBalance(statistics.getPendingBalance().add(order.getMontantRestant()));
+        statistics.recordOrderPlaced(order.getCreatedAt() != null ? order.getCreatedAt() : LocalDateTime.now());
+
+        clientStatisticsRepository.save(statistics);
+        log.debug("Client statistics updated for placed order {} of clientId={}", order.getId(), statistics.getClientId());
+    }
+
+    @Override
+    @Transactional
+    public void recordOrderConfirmed(Order order) {
+        ClientStatistics statistics = lock(order.getClient());
+        LocalDateTime confirmedAt = order.getDateValidation() != null ? order.getDateValidation() : LocalDateTime.now();
+
+        statistics.setPendingOrders(statistics.getPendingOrders() - 1);
+        statistics.setPendingBalance(statistics.getPendingBalance().subtract(order.getMontantRestant()));
+        statistics.setConfirmedOrders(statistics.getConfirmedOrders() + 1);
+        statistics.setConfirmedSpent(statistics.getConfirmedSpent().add(order.getTotalTTC()));
+        statistics.addDailySpend(confirmedAt.toLocalDate(), order.getTotalTTC());
+
+        clientStatisticsRepository.save(statistics);
+        log.debug("Client statistics updated for confirmed order {} of clientId={}", order.getId(), statistics.getClientId());
+    }
+
+    @Override
+    @Transactional
+    public void recordOrderCancelled(Order order) {
+        ClientStatistics statistics = lock(order.getClient());
+
+        statistics.setPendingOrders(statistics.getPendingOrders() - 1);
+        statistics.setPendingBalance(statistics.getPendingBalance().subtract(order.getMontantRestant()));
+        statistics.setCancelledOrders(statistics.getCancelledOrders() + 1);
+
+        clientStatisticsRepository.save(statistics);
+        log.debug("Client statistics updated for cancelled order {} of clientId={}", order.getId(), statistics.getClientId());
+    }
+
+    @Override
+    @Transactional
+    public void recordPayment(Order order, BigDecimal amount) {
+        if (order.getStatut() != OrderStatus.PENDING) {
+            return;
+        }
+        ClientStatistics statistics = lock(order.getClient());
+
+        statistics.setPendingBalance(statistics.getPendingBalance().subtract(amount));
+
+        clientStatisticsRepository.save(statistics);
+        log.debug("Client statistics updated for payment of {} on order {}", amount, order.getId());
+    }
+
+    @Override
+    public long rebuildAll() {
+        log.info("Starting ClientStatisticsService.rebuildAll with chunkSize={}", rebuildChunkSize);
+
+        long rebuilt = 0;
+        String lastId = "";
+        List<String> clientIds;
+        do {
+            clientIds = clientRepository.findIdsAfter(lastId, PageRequest.of(0, rebuildChunkSize));
+            if (clientIds.isEmpty()) {
+                break;
+            }
+            List<String> chunk = clientIds;
+            transactionTemplate.executeWithoutResult(status -> rebuildChunk(chunk));
+            rebuilt += clientIds.size();
+            lastId = clientIds.get(clientIds.size() - 1);
+            log.debug("Rebuilt statistics for {} clients so far", rebuilt);
+        } while (clientIds.size() == rebuildChunkSize);
+
+        log.info("Finished ClientStatisticsService.rebuildAll - {} clients", rebuilt);
+        return rebuilt;
+    }
+
+    private void rebuildChunk(List<String> clientIds) {
+        // locking the existing rows first makes concurrent order writes wait for the rebuilt values
+        Map<String, ClientStatistics> existing = clientStatisticsRepository.findAllByClientIdInForUpdate(clientIds).stream()
+                .collect(Collectors.toMap(ClientStatistics::getClientId, Function.identity()));
+
+        Map<String, Object[]> aggregates = new HashMap<>();
+        for (Object[] row : orderRepository.aggregateByClientIds(clientIds)) {
+            aggregates.put((String) row[0], row);
+        }
+
+        LocalDate today = LocalDate.now();
+        Map<String, List<Object[]>> recentSpend = orderRepository
+                .findConfirmedSpendSince(clientIds, today.minusDays(ClientStatistics.WINDOW_DAYS - 1).atStartOfDay())
+                .stream()
+                .collect(Collectors.groupingBy(row -> (String) row[0]));
+
+        List<ClientStatistics> rebuilt = new ArrayList<>(clientIds.size());
+        for (String clientId : clientIds) {
+            ClientStatistics statistics = existing.get(clientId);
+            if (statistics == null) {
+                statistics = ClientStatistics.builder().client(clientRepository.getReferenceById(clientId)).build();
+            }
+
+            Object[] row = aggregates.get(clientId);
+            statistics.setOrderCount(row != null ? ((Number) row[1]).intValue() : 0);
+            statistics.setConfirmedOrders(row != null ? ((Number) row[2]).intValue() : 0);
+            statistics.setCancelledOrders(row != null ? ((Number) row[3]).intValue() : 0);
+            statistics.setPendingOrders(row != null ? ((Number) row[4]).intValue() : 0);
+            statistics.setConfirmedSpent(row != null ? toBigDecimal(row[5]) : BigDecimal.ZERO);
+            statistics.setPendingBalance(row != null ? toBigDecimal(row[6]) : BigDecimal.ZERO);
+            statistics.setFirstOrderAt(row != null ? (LocalDateTime) row[7] : null);
+            statistics.setLastOrderAt(row != null ? (LocalDateTime) row[8] : null);
+
+            statistics.setBucketDay(today.toEpochDay());
+            statistics.setDailySpend(ClientStatistics.emptyBuckets());
+            for (Object[] spend : recentSpend.getOrDefault(clientId, List.of())) {
+                statistics.addDailySpend(((LocalDateTime) spend[1]).toLocalDate(), toBigDecimal(spend[2]));
+            }
+            rebuilt.add(statistics);
+        }
+
+        clientStatisticsRepository.saveAll(rebuilt);
+    }
+
+    private ClientStatistics lock(Client client) {
+        Optional<ClientStatistics> locked = clientStatisticsRepository.findByClientIdForUpdate(client.getId());
+        if (locked.isPresent()) {
+            return locked.get();
+        }
+        log.warn("Client statistics missing for clientId={}, starting from zero until the next rebuild", client.getId());
+        // two first orders of the same client can both get here; ON CONFLICT lets the loser fall through to the lock
+        clientStatisticsRepository.insertIfAbsent(client.getId(), LocalDate.now().toEpochDay(), ClientStatistics.WINDOW_DAYS);
+        return clientStatisticsRepository.findByClientIdForUpdate(client.getId())
+                .orElseThrow(() -> new IllegalStateException("Client statistics row missing after insert for clientId=" + client.getId()));
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+}
@@ -0,0 +1,253 @@
+package com.smartshop.service.impl;
+
+import com.smartshop.dto.response.client.TierRecomputeReportDTO;
+import com.smartshop.enums.ClientTier;
+import com.smartshop.exception.BusinessException;
+import com.smartshop.exception.ServiceUnavailableException;
+import com.smartshop.leaderboard.ClientLeaderboard;
+import com.smartshop.service.ClientTierService;
+import com.smartshop.tier.ClientTierRules;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Re-applies {@link ClientTierRules} to every client, e.g. after the thresholds changed. Clients are read in
+ * id-ordered keyset chunks, one short transaction per chunk, and only rows whose tier changes are written.
+ * A recompute started over HTTP runs on a background thread; its progress and last report are read with
+ * {@link #getProgress()}.
+ */
+@Service
+public class ClientTierServiceImpl implements ClientTierService {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientTierServiceImpl.class);
+
+    private static final String SELECT_CHUNK_SQL = "SELECT id, tier, total_orders, total_spent FROM clients " +
+            "WHERE id > ? ORDER BY id LIMIT ?";
+
+    // the totals guard skips clients whose statistics moved since the read: their order confirmation re-tiered them already
+    private static final String UPDATE_TIER_SQL = "UPDATE clients SET tier = ?, updated_at = ? " +
+            "WHERE id = ? AND tier = ? AND total_orders = ? AND total_spent = ?";
+
+    private static final long PROGRESS_LOG_INTERVAL_MS = 5_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ClientTierRules clientTierRules;
+    private final ClientLeaderboard clientLeaderboard;
+    private final int chunkSize;
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Progress progress;
+
+    public ClientTierServiceImpl(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 ClientTierRules clientTierRules,
+                                 ClientLeaderboard clientLeaderboard,
+                                 @Value("${smartshop.client-tier.recompute-chunk-size:5000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clientTierRules = clientTierRules;
+        this.clientLeaderboard = clientLeaderboard;
+        this.chunkSize = chunkSize;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "client-tier-recompute");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public TierRecomputeReportDTO recomputeAll() {
+        return recompute(claim());
+    }
+
+    @Override
+    public TierRecomputeReportDTO startRecompute() {
+        Progress current = claim();
+        try {
+            executor.execute(() -> {
+                try {
+                    recompute(current);
+                } catch (RuntimeException e) {
+                    log.error("Client tier recompute failed after scanning {} clients", current.scanned, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            current.finish();
+            running.set(false);
+            throw new ServiceUnavailableException("The client tier recompute could not be started, please retry shortly");
+        }
+        return current.toReport(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Progress claim() {
+        if (!running.compareAndSet(false, true)) {
+            throw new BusinessException("A client tier recompute is already running");
+        }
+        Progress current = new Progress();
+        progress = current;
+        return current;
+    }
+
+    private TierRecomputeReportDTO recompute(Progress current) {
+        log.info("Starting ClientTierService.recomputeAll with chunkSize={}", chunkSize);
+        try {
+            String lastId = "";
+            long lastLog = System.nanoTime();
+            int read;
+            do {
+                String from = lastId;
+                ChunkResult result = transactionTemplate.execute(status -> recomputeChunk(from));
+                read = result.read();
+                if (read > 0) {
+                    lastId = result.lastId();
+                    current.record(result);
+                }
+
+                if (System.nanoTime() - lastLog >= Duration.ofMillis(PROGRESS_LOG_INTERVAL_MS).toNanos()) {
+                    lastLog = System.nanoTime();
+                    log.info("Tier recompute progress: scanned={}, updated={}, {} clients/s",
+                            current.scanned, current.updated, String.format("%.0f", current.rate()));
+                }
+            } while (read == chunkSize);
+        } catch (RuntimeException e) {
+            current.error = e.getMessage();
+            throw e;
+        } finally {
+            current.finish();
+            running.set(false);
+        }
+
+        TierRecomputeReportDTO report = current.toReport(false);
+        log.info("Finished ClientTierService.recomputeAll - scanned={}, updated={}, skipped={}, elapsed={}ms, {} clients/s",
+                report.getScanned(), report.getUpdated(), report.getSkippedConcurrentlyModified(),
+                report.getElapsedMs(), String.format("%.0f", report.getClientsPerSecond()));
+        return report;
+    }
+
+    @Override
+    public TierRecomputeReportDTO getProgress() {
+        Progress current = progress;
+        if (current == null) {
+            return TierRecomputeReportDTO.builder().running(false).build();
+        }
+        return current.toReport(running.get());
+    }
+
+    private ChunkResult recomputeChunk(String afterId) {
+        List<ClientTotals> clients = jdbcTemplate.query(SELECT_CHUNK_SQL, (rs, rowNum) -> new ClientTotals(
+                rs.getString("id"),
+                ClientTier.valueOf(rs.getString("tier")),
+                rs.getInt("total_orders"),
+                rs.getBigDecimal("total_spent")), afterId, chunkSize);
+        if (clients.isEmpty()) {
+            return new ChunkResult(0, afterId, 0, 0);
+        }
+
+        List<Object[]> changes = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (ClientTotals client : clients) {
+            ClientTier tier = clientTierRules.evaluate(client.totalOrders(), client.totalSpent());
+            if (tier != client.tier()) {
+                changes.add(new Object[]{tier.name(), now, client.id(), client.tier().name(),
+                        client.totalOrders(), client.totalSpent()});
+            }
+        }
+
+        int updated = 0;
+        if (!changes.isEmpty()) {
+            int[] counts = jdbcTemplate.batchUpdate(UPDATE_TIER_SQL, changes);
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    updated++;
+                    Object[] change = changes.get(i);
+                    clientLeaderboard.updateTier((String) change[2], ClientTier.valueOf((String) change[0]));
+                }
+            }
+        }
+        return new ChunkResult(clients.size(), clients.get(clients.size() - 1).id(), updated, changes.size() - updated);
+    }
+
+    private record ClientTotals(String id, ClientTier tier, int totalOrders, BigDecimal totalSpent) {
+    }
+
+    private record ChunkResult(int read, String lastId, int updated, int skipped) {
+    }
+
+    private static final class Progress {
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final long startedNanos = System.nanoTime();
+        private volatile LocalDateTime finishedAt;
+        private volatile long finishedNanos;
+        private volatile long scanned;
+        private volatile long updated;
+        private volatile long skipped;
+        private volatile long chunks;
+        private volatile String error;
+
+        // only the job thread writes, readers just need a recent value
+        void record(ChunkResult result) {
+            scanned += result.read();
+            updated += result.updated();
+            skipped += result.skipped();
+            chunks++;
+        }
+
+        void finish() {
+            finishedNanos = System.nanoTime();
+            finishedAt = LocalDateTime.now();
+        }
+
+        long elapsedMs() {
+            long end = finishedAt != null ? finishedNanos : System.nanoTime();
+            return Duration.ofNanos(end - startedNanos).toMillis();
+        }
+
+        double rate() {
+            long elapsed = elapsedMs();
+            return elapsed == 0 ? 0 : scanned * 1000.0 / elapsed;
+        }
+
+        TierRecomputeReportDTO toReport(boolean running) {
+            return TierRecomputeReportDTO.builder()
+                    .running(running)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .scanned(scanned)
+                    .updated(updated)
+                    .skippedConcurrentlyModified(skipped)
+                    .chunks(chunks)
+                    .elapsedMs(elapsedMs())
+                    .clientsPerSecond(rate())
+                    .error(error)
+                    .build();
+        }
+    }
+}
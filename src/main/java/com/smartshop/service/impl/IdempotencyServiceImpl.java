@@ -0,0 +1,230 @@
+package com.smartshop.service.impl;
+
+import com.smartshop.entity.IdempotencyRecord;
+import com.smartshop.enums.IdempotencyStatus;
+import com.smartshop.exception.BusinessException;
+import com.smartshop.exception.DuplicateResourceException;
+import com.smartshop.repository.IdempotencyRecordRepository;
+import com.smartshop.service.IdempotencyService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyServiceImpl.class);
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final long waitTimeoutMs;
+    private final long retentionHours;
+    private final long leaseMs;
+
+    private final Map<String, StoredResponse> recentResponses;
+    private final ConcurrentMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyServiceImpl(IdempotencyRecordRepository idempotencyRecordRepository,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${smartshop.idempotency.cache-size:10000}") int cacheSize,
+                                  @Value("${smartshop.idempotency.wait-timeout-ms:30000}") long waitTimeoutMs,
+                                  @Value("${smartshop.idempotency.retention-hours:24}") long retentionHours,
+                                  @Value("${smartshop.idempotency.lease-ms:60000}") long leaseMs) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.retentionHours = retentionHours;
+        this.leaseMs = leaseMs;
+        this.recentResponses = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    @Override
+    public <T> T execute(String scope, String idempotencyKey, Object request, Class<T> responseType, Supplier<T> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+
+        String id = scope + ":" + idempotencyKey;
+        String requestHash = hash(objectMapper.writeValueAsString(request));
+
+        StoredResponse cached = getRecent(id);
+        if (cached != null) {
+            log.info("Replaying cached response for idempotency key {} on {}", idempotencyKey, scope);
+            return replay(cached, requestHash, responseType);
+        }
+
+        CompletableFuture<StoredResponse> pending = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> existing = inFlight.putIfAbsent(id, pending);
+        if (existing != null) {
+            log.info("Waiting for in-flight request with idempotency key {} on {}", idempotencyKey, scope);
+            return replay(await(existing), requestHash, responseType);
+        }
+
+        try {
+            IdempotencyRecord record;
+            Optional<IdempotencyRecord> stored = idempotencyRecordRepository.findById(id);
+            if (stored.isPresent() && stored.get().getStatut() == IdempotencyStatus.COMPLETED) {
+                StoredResponse response = fromRecord(stored.get());
+                pending.complete(response);
+                return replay(response, requestHash, responseType);
+            } else if (stored.isPresent()) {
+                record = takeOver(stored.get(), requestHash);
+            } else {
+                record = startRecord(id, scope, idempotencyKey, requestHash);
+            }
+
+            StoredResponse[] response = new StoredResponse[1];
+            T result;
+            try {
+                // the COMPLETED row commits with the action's own writes, so a key is never left deletable
+                // after its side effect is durable
+                result = transactionTemplate.execute(status -> {
+                    T value = action.get();
+                    response[0] = new StoredResponse(requestHash, objectMapper.writeValueAsString(value));
+                    record.setStatut(IdempotencyStatus.COMPLETED);
+                    record.setResponseBody(response[0].body());
+                    record.setLeaseExpiresAt(null);
+                    idempotencyRecordRepository.save(record);
+                    return value;
+                });
+            } catch (RuntimeException e) {
+                // the action rolled back with the completion, so the client may retry with the same key
+                idempotencyRecordRepository.deleteInProgress(id, record.getVersion());
+                throw e;
+            }
+
+            putRecent(id, response[0]);
+            pending.complete(response[0]);
+            return result;
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, pending);
+        }
+    }
+
+    @Override
+    public int purgeExpired() {
+        int deleted = idempotencyRecordRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(retentionHours));
+        log.info("Purged {} idempotency records older than {} hours", deleted, retentionHours);
+        return deleted;
+    }
+
+    private IdempotencyRecord startRecord(String id, String scope, String idempotencyKey, String requestHash) {
+        IdempotencyRecord record = IdempotencyRecord.builder()
+                .id(id)
+                .scope(scope)
+                .idempotencyKey(idempotencyKey)
+                .requestHash(requestHash)
+                .statut(IdempotencyStatus.IN_PROGRESS)
+                .leaseExpiresAt(LocalDateTime.now().plus(Duration.ofMillis(leaseMs)))
+                .build();
+        try {
+            return idempotencyRecordRepository.saveAndFlush(record);
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Idempotency key {} on {} claimed concurrently by another instance", idempotencyKey, scope);
+            throw new DuplicateResourceException("A request with this Idempotency-Key is still being processed");
+        }
+    }
+
+    /**
+     * Claims an IN_PROGRESS row whose lease ran out, which is what an instance that crashed mid-request leaves
+     * behind. Its action never committed, since completion commits with it.
+     */
+    private IdempotencyRecord takeOver(IdempotencyRecord stale, String requestHash) {
+        if (!stale.getRequestHash().equals(requestHash)) {
+            throw new BusinessException("Idempotency-Key was already used with a different request payload");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (stale.getLeaseExpiresAt() != null && stale.getLeaseExpiresAt().isAfter(now)) {
+            throw new DuplicateResourceException("A request with this Idempotency-Key is still being processed");
+        }
+        if (idempotencyRecordRepository.takeOver(stale.getId(), stale.getVersion(), now.plus(Duration.ofMillis(leaseMs))) == 0) {
+            log.warn("Idempotency key {} on {} taken over concurrently by another request", stale.getIdempotencyKey(), stale.getScope());
+            throw new DuplicateResourceException("A request with this Idempotency-Key is still being processed");
+        }
+        log.warn("Taking over idempotency key {} on {}, its lease expired at {}",
+                stale.getIdempotencyKey(), stale.getScope(), stale.getLeaseExpiresAt());
+        return idempotencyRecordRepository.findById(stale.getId())
+                .orElseThrow(() -> new DuplicateResourceException("A request with this Idempotency-Key is still being processed"));
+    }
+
+    private StoredResponse fromRecord(IdempotencyRecord record) {
+        StoredResponse response = new StoredResponse(record.getRequestHash(), record.getResponseBody());
+        putRecent(record.getId(), response);
+        return response;
+    }
+
+    private <T> T replay(StoredResponse response, String requestHash, Class<T> responseType) {
+        if (!response.requestHash().equals(requestHash)) {
+            throw new BusinessException("Idempotency-Key was already used with a different request payload");
+        }
+        return objectMapper.readValue(response.body(), responseType);
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> pending) {
+        try {
+            return pending.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new DuplicateResourceException("A request with this Idempotency-Key is still being processed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for in-flight request", e);
+        }
+    }
+
+    private StoredResponse getRecent(String id) {
+        synchronized (recentResponses) {
+            return recentResponses.get(id);
+        }
+    }
+
+    private void putRecent(String id, StoredResponse response) {
+        synchronized (recentResponses) {
+            recentResponses.put(id, response);
+        }
+    }
+
+    private static String hash(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record StoredResponse(String requestHash, String body) {
+    }
+}
@@ -0,0 +1,193 @@
+package com.smartshop.service.impl;
+
+import com.smartshop.dto.response.product.LowStockAlertDTO;
+import com.smartshop.repository.ProductRepository;
+import com.smartshop.repository.projection.ProductStockLevelView;
+import com.smartshop.service.LowStockAlertService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emits an alert when a reservation or a stock decrement takes the available stock of a product (on hand minus
+ * reserved) from above its reorder threshold to at or below it. Alerts are published after commit to the connected
+ * SSE subscribers and kept in a bounded replay buffer, so a client reconnecting with Last-Event-ID receives what it
+ * missed.
+ */
+@Service
+public class LowStockAlertServiceImpl implements LowStockAlertService {
+
+    private static final Logger log = LoggerFactory.getLogger(LowStockAlertServiceImpl.class);
+
+    static final String EVENT_NAME = "low-stock";
+
+    private final ProductRepository productRepository;
+    private final int replaySize;
+    private final long emitterTimeoutMs;
+
+    // guarded by "this": appending, replaying and registering share the lock so sequences reach every subscriber in order
+    private final Deque<LowStockAlertDTO> replay = new ArrayDeque<>();
+    private final List<SseEmitter> emitters = new ArrayList<>();
+    private long sequence;
+
+    // one thread keeps deliveries in publish order; a slow subscriber delays the others but never the lock holders
+    private final ThreadPoolExecutor deliveryExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "low-stock-alerts");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    public LowStockAlertServiceImpl(ProductRepository productRepository,
+                                    @Value("${smartshop.low-stock.replay-size:500}") int replaySize,
+                                    @Value("${smartshop.low-stock.emitter-timeout-ms:1800000}") long emitterTimeoutMs) {
+        this.productRepository = productRepository;
+        this.replaySize = replaySize;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+    }
+
+    @Override
+    public void checkThresholds(Map<String, Integer> decrementedQuantities) {
+        if (decrementedQuantities.isEmpty()) {
+            return;
+        }
+
+        List<ProductStockLevelView> crossed = new ArrayList<>();
+        // the update holds the row lock, so available + quantity is exactly the level before this transaction
+        for (ProductStockLevelView level : productRepository.findAtOrBelowReorderThreshold(decrementedQuantities.keySet())) {
+            int before = level.getAvailableStock() + decrementedQuantities.get(level.getId());
+            if (before > level.getReorderThreshold()) {
+                crossed.add(level);
+            }
+        }
+        if (crossed.isEmpty()) {
+            return;
+        }
+
+        log.info("{} products crossed their reorder threshold", crossed.size());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(crossed);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(crossed);
+            }
+        });
+    }
+
+    @Override
+    public synchronized SseEmitter subscribe(Long lastEventId) {
+        log.info("Starting LowStockAlertService.subscribe with lastEventId={}", lastEventId);
+
+        SseEmitter emitter = createEmitter(emitterTimeoutMs);
+        emitter.onCompletion(() -> unregister(emitter));
+        emitter.onTimeout(() -> unregister(emitter));
+        emitter.onError(error -> unregister(emitter));
+
+        int replayed = 0;
+        if (lastEventId != null) {
+            for (LowStockAlertDTO alert : replay) {
+                if (alert.getSequence() > lastEventId) {
+                    if (!send(emitter, alert)) {
+                        return emitter;
+                    }
+                    replayed++;
+                }
+            }
+        }
+        emitters.add(emitter);
+
+        log.info("Finished LowStockAlertService.subscribe - replayed {} alerts, {} subscribers", replayed, emitters.size());
+        return emitter;
+    }
+
+    @Override
+    public synchronized List<LowStockAlertDTO> getRecentAlerts(Long afterSequence) {
+        return replay.stream()
+                .filter(alert -> afterSequence == null || alert.getSequence() > afterSequence)
+                .toList();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        deliveryExecutor.shutdownNow();
+    }
+
+    protected SseEmitter createEmitter(long timeoutMs) {
+        return new SseEmitter(timeoutMs);
+    }
+
+    private void publish(List<ProductStockLevelView> crossed) {
+        List<LowStockAlertDTO> alerts = new ArrayList<>(crossed.size());
+        List<SseEmitter> subscribers;
+        synchronized (this) {
+            LocalDateTime now = LocalDateTime.now();
+            for (ProductStockLevelView level : crossed) {
+                LowStockAlertDTO alert = LowStockAlertDTO.builder()
+                        .sequence(++sequence)
+                        .productId(level.getId())
+                        .nom(level.getNom())
+                        .stockDisponible(level.getStockDisponible())
+                        .availableStock(level.getAvailableStock())
+                        .reorderThreshold(level.getReorderThreshold())
+                        .occurredAt(now)
+                        .build();
+
+                replay.addLast(alert);
+                if (replay.size() > replaySize) {
+                    replay.removeFirst();
+                }
+                alerts.add(alert);
+            }
+            subscribers = List.copyOf(emitters);
+            // submitted under the lock so the single delivery thread sees batches in sequence order
+            deliveryExecutor.execute(() -> deliver(subscribers, alerts));
+        }
+        log.debug("Queued low-stock alerts #{}..#{} for {} subscribers",
+                alerts.get(0).getSequence(), alerts.get(alerts.size() - 1).getSequence(), subscribers.size());
+    }
+
+    private void deliver(List<SseEmitter> subscribers, List<LowStockAlertDTO> alerts) {
+        for (SseEmitter emitter : subscribers) {
+            for (LowStockAlertDTO alert : alerts) {
+                if (!send(emitter, alert)) {
+                    unregister(emitter);
+                    break;
+                }
+            }
+        }
+    }
+
+    private synchronized void unregister(SseEmitter emitter) {
+        emitters.remove(emitter);
+    }
+
+    private static boolean send(SseEmitter emitter, LowStockAlertDTO alert) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .id(String.valueOf(alert.getSequence()))
+                    .name(EVENT_NAME)
+                    .data(alert));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // the container completes the emitter itself after an I/O error; it only has to stop receiving alerts
+            log.debug("Dropping low-stock subscriber: {}", e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.smartshop.service.impl;
+
+import com.smartshop.dto.response.order.OrderAdvancedResponseDTO;
+import com.smartshop.entity.Order;
+import com.smartshop.entity.OrderItem;
+import com.smartshop.entity.Payment;
+import com.smartshop.enums.ExportFormat;
+import com.smartshop.exception.ValidationException;
+import com.smartshop.mapper.OrderMapper;
+import com.smartshop.repository.OrderRepository;
+import com.smartshop.repository.PaymentRepository;
+import com.smartshop.service.OrderExportService;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+public class OrderExportServiceImpl implements OrderExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderExportServiceImpl.class);
+
+    private static final String CSV_HEADER = "orderId,createdDate,clientId,clientNom,statut,totalTTC,montantRestant," +
+            "paymentsCount,montantPaye,produitId,produitNom,quantite,prixUnitaireHT,totalLigneHT";
+
+    private final OrderRepository orderRepository;
+    private final PaymentRepository paymentRepository;
+    private final OrderMapper orderMapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final int chunkSize;
+
+    public OrderExportServiceImpl(OrderRepository orderRepository,
+                                  PaymentRepository paymentRepository,
+                                  OrderMapper orderMapper,
+                                  ObjectMapper objectMapper,
+                                  EntityManager entityManager,
+                                  @Value("${smartshop.export.chunk-size:500}") int chunkSize) {
+        this.orderRepository = orderRepository;
+        this.paymentRepository = paymentRepository;
+        this.orderMapper = orderMapper;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportOrders(LocalDateTime from, LocalDateTime to, ExportFormat format, OutputStream out) {
+        log.info("Starting OrderExportService.exportOrders with from={}, to={}, format={}", from, to, format);
+
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new ValidationException("Export range requires from < to");
+        }
+
+        long exported = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try (Stream<Order> orders = orderRepository.streamByCreatedAtRange(from, to)) {
+            if (format == ExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+
+            List<Order> chunk = new ArrayList<>(chunkSize);
+            Iterator<Order> iterator = orders.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == chunkSize) {
+                    exported += writeChunk(chunk, format, writer);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                exported += writeChunk(chunk, format, writer);
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Order export aborted after " + exported + " orders", e);
+        }
+
+        log.info("Finished OrderExportService.exportOrders, exported {} orders", exported);
+        return exported;
+    }
+
+    private int writeChunk(List<Order> chunk, ExportFormat format, Writer writer) throws IOException {
+        List<String> orderIds = chunk.stream().map(Order::getId).toList();
+
+        Map<String, List<OrderItem>> linesByOrder = orderRepository.findItemsWithProduitByOrderIds(orderIds).stream()
+                .collect(Collectors.groupingBy(item -> item.getId().getOrderId()));
+        Map<String, List<Payment>> paymentsByOrder = paymentRepository.findByOrderIdIn(orderIds).stream()
+                .collect(Collectors.groupingBy(payment -> payment.getOrder().getId()));
+
+        for (Order order : chunk) {
+            OrderAdvancedResponseDTO dto = orderMapper.toExportDTO(order,
+                    linesByOrder.getOrDefault(order.getId(), List.of()),
+                    paymentsByOrder.getOrDefault(order.getId(), List.of()));
+            if (format == ExportFormat.CSV) {
+                writeCsv(dto, writer);
+            } else {
+                writer.write(objectMapper.writeValueAsString(dto));
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+
+        // the chunk has been written: drop it from the persistence context so memory stays flat
+        entityManager.clear();
+        log.debug("Exported chunk of {} orders", chunk.size());
+        return chunk.size();
+    }
+
+    private void writeCsv(OrderAdvancedResponseDTO dto, Writer writer) throws IOException {
+        List<OrderAdvancedResponseDTO.PaymentSummaryDTO> payments = dto.getPaiements();
+        BigDecimal paid = payments.stream()
+                .map(OrderAdvancedResponseDTO.PaymentSummaryDTO::getMontant)
+                .filter(Objects::nonNull)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        String orderColumns = String.join(",",
+                csv(dto.getId()),
+                csv(dto.getCreatedDate()),
+                csv(dto.getClient() != null ? dto.getClient().getId() : null),
+                csv(dto.getClient() != null ? dto.getClient().getNom() : null),
+                csv(dto.getStatut()),
+                csv(dto.getTotalTTC()),
+                csv(dto.getMontantRestant()),
+                csv(payments.size()),
+                csv(paid));
+
+        List<OrderAdvancedResponseDTO.OrderItemResponseDTO> lines = dto.getItems();
+        if (lines.isEmpty()) {
+            writer.write(orderColumns + ",,,,,\n");
+            return;
+        }
+        for (OrderAdvancedResponseDTO.OrderItemResponseDTO line : lines) {
+            writer.write(String.join(",",
+                    orderColumns,
+                    csv(line.getProduitId()),
+                    csv(line.getProduitNom()),
+                    csv(line.getQuantite()),
+                    csv(line.getPrixUnitaireHT()),
+                    csv(line.getTotalLigneHT())));
+            writer.write('\n');
+        }
+    }
+
+    // RFC 4180: a field with a comma, a quote or a line break is quoted, and its quotes are doubled
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
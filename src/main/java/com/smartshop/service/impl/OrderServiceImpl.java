@@ -1,7 +1,9 @@
 package com.smartshop.service.impl;
 
+import com.smartshop.cache.ProductCache;
 import com.smartshop.dto.requist.createRequistDto.OrderCreateDTO;
 import com.smartshop.dto.requist.updateRequistDto.OrderUpdateDTO;
+import com.smartshop.dto.response.CursorPageDTO;
 import com.smartshop.dto.response.order.OrderAdvancedResponseDTO;
 import com.smartshop.dto.response.order.OrderResponseDTO;
 import com.smartshop.dto.response.order.OrderStatisticsDTO;
@@ -10,16 +12,26 @@ import com.smartshop.enums.ClientTier;
 import com.smartshop.enums.OrderStatus;
 import com.smartshop.exception.BusinessException;
 import com.smartshop.exception.ResourceNotFoundException;
+import com.smartshop.leaderboard.ClientLeaderboard;
 import com.smartshop.mapper.OrderMapper;
+import com.smartshop.pagination.Cursor;
+import com.smartshop.repository.CatalogVersionRepository;
 import com.smartshop.repository.ClientRepository;
 import com.smartshop.repository.OrderRepository;
+import com.smartshop.repository.OrderStatusCounterRepository;
 import com.smartshop.repository.ProductRepository;
 import com.smartshop.repository.PromoCodeRepository;
+import com.smartshop.repository.projection.OrderSummaryView;
+import com.smartshop.service.ClientStatisticsService;
+import com.smartshop.service.LowStockAlertService;
 import com.smartshop.service.OrderService;
+import com.smartshop.service.StockReservationService;
+import com.smartshop.tier.ClientTierRules;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -28,7 +40,13 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -39,11 +57,20 @@ public class OrderServiceImpl implements OrderService {
     private final OrderRepository orderRepository;
     private final OrderMapper orderMapper;
     private final ProductRepository productRepository;
+    private final CatalogVersionRepository catalogVersionRepository;
     private final ClientRepository clientRepository;
     private final PromoCodeRepository promoCodeRepository;
+    private final StockReservationService stockReservationService;
+    private final OrderStatusCounterRepository orderStatusCounterRepository;
+    private final ProductCache productCache;
+    private final LowStockAlertService lowStockAlertService;
+    private final ClientTierRules clientTierRules;
+    private final ClientStatisticsService clientStatisticsService;
+    private final ClientLeaderboard clientLeaderboard;
 
     @Override
-     public OrderResponseDTO createOrder(OrderCreateDTO dto) {
+    @Transactional
+    public OrderResponseDTO createOrder(OrderCreateDTO dto) {
         log.info("Starting OrderService.createOrder for clientId={}", dto.getClientId());
 
         Client client = clientRepository.findById(dto.getClientId())
@@ -84,16 +111,10 @@ public class OrderServiceImpl implements OrderService {
 
         log.debug("Processing {} order items", dto.getItems().size());
 
-        for (OrderCreateDTO.OrderItemCreateDTO itemDTO : dto.getItems()) {
-            Product product = productRepository.findById(itemDTO.getProduitId())
-                    .orElseThrow(() -> new ResourceNotFoundException("No product found with ID: " + itemDTO.getProduitId()));
+        Map<String, Product> productsById = loadOrderProducts(dto.getItems());
 
-            if (itemDTO.getQuantite() > product.getStockDisponible()) {
-                log.warn("Insufficient stock for product {}: available={}, requested={}",
-                        product.getNom(), product.getStockDisponible(), itemDTO.getQuantite());
-                throw new BusinessException("Insufficient stock for product: " + product.getNom() +
-                        ". Available: " + product.getStockDisponible() + ", Requested: " + itemDTO.getQuantite());
-            }
+        for (OrderCreateDTO.OrderItemCreateDTO itemDTO : dto.getItems()) {
+            Product product = productsById.get(itemDTO.getProduitId());
 
             BigDecimal lineTotal = product.getPrix_unitair()
                     .multiply(new BigDecimal(itemDTO.getQuantite()))
@@ -155,7 +176,10 @@ public class OrderServiceImpl implements OrderService {
         Order savedOrder = orderRepository.save(order);
         log.info("Order created successfully with id={}", savedOrder.getId());
 
-        decrementStock(savedOrder);
+        moveStatusCounter(null, OrderStatus.PENDING, totalTTC);
+        clientStatisticsService.recordOrderPlaced(savedOrder);
+
+        stockReservationService.reserve(savedOrder);
 
         if (promoCode != null) {
             promoCode.setDisponible(false);
@@ -167,27 +191,55 @@ public class OrderServiceImpl implements OrderService {
         return orderMapper.toSimpleDTO(savedOrder);
     }
 
-    @Override
-    @Transactional
-    public void decrementStock(Order order) {
-        log.info("Starting OrderService.decrementStock for orderId={}", order.getId());
+    private Map<String, Product> loadOrderProducts(List<OrderCreateDTO.OrderItemCreateDTO> items) {
+        Map<String, Integer> requestedQuantities = new LinkedHashMap<>();
+        for (OrderCreateDTO.OrderItemCreateDTO itemDTO : items) {
+            requestedQuantities.merge(itemDTO.getProduitId(), itemDTO.getQuantite(), Integer::sum);
+        }
 
-        for (OrderItem item : order.getItems()) {
-            Product product = item.getProduit();
+        Map<String, Product> productsById = productRepository.findAllById(requestedQuantities.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        log.debug("Loaded {} of {} requested products in one query", productsById.size(), requestedQuantities.size());
+
+        List<String> missingIds = new ArrayList<>();
+        List<String> insufficientLines = new ArrayList<>();
+
+        requestedQuantities.forEach((productId, requested) -> {
+            Product product = productsById.get(productId);
+            if (product == null) {
+                missingIds.add(productId);
+            } else if (requested > product.availableStock()) {
+                log.warn("Insufficient stock for product {}: available={}, requested={}",
+                        product.getNom(), product.availableStock(), requested);
+                insufficientLines.add(product.getNom() + " (Available: " + product.availableStock() +
+                        ", Requested: " + requested + ")");
+            }
+        });
 
-            if (product.getStockDisponible() < item.getQuantite()) {
-                log.error("Stock validation failed for product {}: available={}, required={}",
-                        product.getNom(), product.getStockDisponible(), item.getQuantite());
-                throw new BusinessException("Stock changed! Insufficient stock for: " + product.getNom());
+        if (!missingIds.isEmpty()) {
+            log.warn("Order references unknown products: {}", missingIds);
+            StringBuilder message = new StringBuilder("No product found with ID(s): " + String.join(", ", missingIds));
+            if (!insufficientLines.isEmpty()) {
+                message.append(". Insufficient stock for: ").append(String.join("; ", insufficientLines));
             }
+            throw new ResourceNotFoundException(message.toString());
+        }
 
-            Integer newStock = product.getStockDisponible() - item.getQuantite();
-            product.setStockDisponible(newStock);
-            productRepository.save(product);
-            log.debug("Stock decremented for product {}: {} -> {}",
-                    product.getNom(), product.getStockDisponible() + item.getQuantite(), newStock);
+        if (!insufficientLines.isEmpty()) {
+            throw new BusinessException("Insufficient stock for: " + String.join("; ", insufficientLines));
         }
 
+        return productsById;
+    }
+
+    @Override
+    @Transactional
+    public void decrementStock(Order order) {
+        log.info("Starting OrderService.decrementStock for orderId={}", order.getId());
+
+        decrementItems(order.getItems());
+
         log.info("Finished OrderService.decrementStock for orderId={}", order.getId());
     }
 
@@ -241,11 +293,14 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public OrderAdvancedResponseDTO getOrderByIdAdvanced(String orderId) {
         log.info("Starting OrderService.getOrderByIdAdvanced with orderId={}", orderId);
 
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findWithClientAndItemsById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("No order found with ID: " + orderId));
+        // initialises order.paiements on the same managed instance
+        orderRepository.findWithPaiementsById(orderId);
 
         log.info("Finished OrderService.getOrderByIdAdvanced with orderId={}", orderId);
         return orderMapper.toAdvancedDTO(order);
@@ -255,12 +310,12 @@ public class OrderServiceImpl implements OrderService {
     public List<OrderResponseDTO> getOrdersByClient(String clientId) {
         log.info("Starting OrderService.getOrdersByClient with clientId={}", clientId);
 
-        List<Order> orders = orderRepository.findAllByClientId(clientId);
+        List<OrderSummaryView> orders = orderRepository.findSummariesByClientId(clientId);
 
         log.info("Retrieved {} orders for clientId={}", orders.size(), clientId);
         log.info("Finished OrderService.getOrdersByClient with clientId={}", clientId);
 
-        return orderMapper.toSimpleDTOList(orders);
+        return orderMapper.fromSummaryViewList(orders);
     }
 
     @Override
@@ -268,7 +323,7 @@ public class OrderServiceImpl implements OrderService {
         log.info("Starting OrderService.getAllOrders with page={}, size={}",
                 pageable.getPageNumber(), pageable.getPageSize());
 
-        Page<OrderResponseDTO> ordersPage = orderRepository.findAll(pageable).map(orderMapper::toSimpleDTO);
+        Page<OrderResponseDTO> ordersPage = orderRepository.findAllSummaries(pageable).map(orderMapper::fromSummaryView);
 
         log.info("Retrieved {} total orders", ordersPage.getTotalElements());
         log.info("Finished OrderService.getAllOrders");
@@ -276,6 +331,28 @@ public class OrderServiceImpl implements OrderService {
         return ordersPage;
     }
 
+    @Override
+    public CursorPageDTO<OrderResponseDTO> getOrdersByCursor(String cursor, int limit, boolean includeTotal) {
+        log.info("Starting OrderService.getOrdersByCursor with cursor={}, limit={}", cursor, limit);
+
+        int pageSize = Cursor.clampLimit(limit);
+        Cursor after = Cursor.decode(cursor);
+        Pageable window = PageRequest.of(0, pageSize + 1);
+
+        List<OrderSummaryView> rows = after == null
+                ? orderRepository.findKeysetFirstPage(window)
+                : orderRepository.findKeysetPageAfter(after.createdAt(), after.id(), window);
+        Long total = includeTotal ? orderRepository.count() : null;
+
+        CursorPageDTO<OrderResponseDTO> page = CursorPageDTO.of(rows, pageSize,
+                o -> new Cursor(o.getCreatedDate(), o.getId()), orderMapper::fromSummaryView, total);
+
+        log.info("Retrieved {} orders, hasNext={}", page.getContent().size(), page.isHasNext());
+        log.info("Finished OrderService.getOrdersByCursor");
+
+        return page;
+    }
+
     @Override
     @Transactional
     public OrderResponseDTO confirmOrder(String orderId) {
@@ -284,23 +361,7 @@ public class OrderServiceImpl implements OrderService {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("No order found with ID: " + orderId));
 
-        if (order.getMontantRestant().compareTo(BigDecimal.ZERO) != 0) {
-            log.warn("Cannot confirm order {} - not fully paid. Remaining: {}", orderId, order.getMontantRestant());
-            throw new BusinessException("Cannot confirm order, it is not fully paid. Remaining: " + order.getMontantRestant());
-        }
-
-        if (!order.getStatut().equals(OrderStatus.PENDING)) {
-            log.warn("Cannot confirm order {} - invalid status: {}", orderId, order.getStatut());
-            throw new BusinessException("Order cannot be confirmed. Current status: " + order.getStatut());
-        }
-
-        order.setStatut(OrderStatus.CONFIRMED);
-        order.setDateValidation(LocalDateTime.now());
-
-        Order confirmedOrder = orderRepository.save(order);
-        log.info("Order {} confirmed successfully", orderId);
-
-        updateClientStatistics(confirmedOrder);
+        Order confirmedOrder = confirm(order);
 
         log.info("Finished OrderService.confirmOrder with orderId={}", orderId);
         return orderMapper.toSimpleDTO(confirmedOrder);
@@ -319,18 +380,16 @@ public class OrderServiceImpl implements OrderService {
             throw new BusinessException("Only PENDING orders can be cancelled. Current status: " + order.getStatut());
         }
 
-        order.setStatut(OrderStatus.CANCELED);
-        order.setDateAnnulation(LocalDateTime.now());
-
-        restoreStock(order);
-
-        Order cancelledOrder = orderRepository.save(order);
-        log.info("Order {} cancelled successfully", orderId);
+        Order cancelledOrder = close(order, OrderStatus.CANCELED);
 
         log.info("Finished OrderService.cancelOrder with orderId={}", orderId);
         return orderMapper.toSimpleDTO(cancelledOrder);
     }
 
+    /**
+     * Moves a PENDING order to another status through the same paths as confirm and cancel, so reservations are
+     * committed or released with it. Orders that already left PENDING keep their status.
+     */
     @Override
     @Transactional
     public OrderResponseDTO updateOrderStatus(String orderId, OrderStatus status) {
@@ -339,10 +398,19 @@ public class OrderServiceImpl implements OrderService {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("No order found with ID: " + orderId));
 
-        log.debug("Updating order {} status from {} to {}", orderId, order.getStatut(), status);
+        OrderStatus previousStatus = order.getStatut();
+        if (previousStatus == status) {
+            log.info("Order {} already has status {}", orderId, status);
+            return orderMapper.toSimpleDTO(order);
+        }
+        if (previousStatus != OrderStatus.PENDING) {
+            log.warn("Cannot change status of order {} from {} to {}", orderId, previousStatus, status);
+            throw new BusinessException("Only PENDING orders can change status. Current status: " + previousStatus);
+        }
 
-        order.setStatut(status);
-        Order updatedOrder = orderRepository.save(order);
+        log.debug("Updating order {} status from {} to {}", orderId, previousStatus, status);
+
+        Order updatedOrder = status == OrderStatus.CONFIRMED ? confirm(order) : close(order, status);
 
         log.info("Order status updated successfully for orderId={}", orderId);
         log.info("Finished OrderService.updateOrderStatus with orderId={}", orderId);
@@ -350,6 +418,57 @@ public class OrderServiceImpl implements OrderService {
         return orderMapper.toSimpleDTO(updatedOrder);
     }
 
+    private Order confirm(Order order) {
+        if (order.getMontantRestant().compareTo(BigDecimal.ZERO) != 0) {
+            log.warn("Cannot confirm order {} - not fully paid. Remaining: {}", order.getId(), order.getMontantRestant());
+            throw new BusinessException("Cannot confirm order, it is not fully paid. Remaining: " + order.getMontantRestant());
+        }
+
+        if (!order.getStatut().equals(OrderStatus.PENDING)) {
+            log.warn("Cannot confirm order {} - invalid status: {}", order.getId(), order.getStatut());
+            throw new BusinessException("Order cannot be confirmed. Current status: " + order.getStatut());
+        }
+
+        List<OrderItem> unreservedItems = stockReservationService.confirm(order);
+        if (!unreservedItems.isEmpty()) {
+            log.info("Decrementing stock directly for {} lines whose reservation expired on orderId={}",
+                    unreservedItems.size(), order.getId());
+            decrementItems(unreservedItems);
+        }
+
+        order.setStatut(OrderStatus.CONFIRMED);
+        order.setDateValidation(LocalDateTime.now());
+
+        Order confirmedOrder = orderRepository.save(order);
+        log.info("Order {} confirmed successfully", order.getId());
+
+        moveStatusCounter(OrderStatus.PENDING, OrderStatus.CONFIRMED, confirmedOrder.getTotalTTC());
+
+        updateClientStatistics(confirmedOrder);
+        clientStatisticsService.recordOrderConfirmed(confirmedOrder);
+        return confirmedOrder;
+    }
+
+    // CANCELED and REJECTED both end a PENDING order without a sale: the stock goes back and the client aggregate
+    // counts it with the cancelled orders
+    private Order close(Order order, OrderStatus status) {
+        order.setStatut(status);
+        if (status == OrderStatus.CANCELED) {
+            order.setDateAnnulation(LocalDateTime.now());
+        }
+
+        if (!stockReservationService.release(order)) {
+            restoreStock(order);
+        }
+
+        Order closedOrder = orderRepository.save(order);
+        log.info("Order {} moved to {}", order.getId(), status);
+
+        moveStatusCounter(OrderStatus.PENDING, status, closedOrder.getTotalTTC());
+        clientStatisticsService.recordOrderCancelled(closedOrder);
+        return closedOrder;
+    }
+
     @Override
     @Transactional
     public OrderResponseDTO updateOrder(String orderId, OrderUpdateDTO dto) {
@@ -370,17 +489,45 @@ public class OrderServiceImpl implements OrderService {
         return orderMapper.toSimpleDTO(updatedOrder);
     }
 
+    private void decrementItems(List<OrderItem> items) {
+        List<String> rejectedProducts = new ArrayList<>();
+        Map<String, Integer> decremented = new HashMap<>();
+
+        for (OrderItem item : items) {
+            Product product = item.getProduit();
+
+            int updatedRows = productRepository.decrementStock(product.getId(), item.getQuantite());
+            if (updatedRows == 0) {
+                log.error("Atomic stock decrement rejected for product {}: required={}",
+                        product.getNom(), item.getQuantite());
+                rejectedProducts.add(product.getNom());
+                continue;
+            }
+
+            decremented.merge(product.getId(), item.getQuantite(), Integer::sum);
+            log.debug("Stock decremented for product {} by {}", product.getNom(), item.getQuantite());
+        }
+        if (!decremented.isEmpty()) {
+            catalogVersionRepository.increment();
+        }
+        productCache.evictAll(items.stream().map(item -> item.getProduit().getId()).toList());
+
+        if (!rejectedProducts.isEmpty()) {
+            throw new BusinessException("Stock changed! Insufficient stock for: " + String.join(", ", rejectedProducts));
+        }
+        lowStockAlertService.checkThresholds(decremented);
+    }
+
     private void restoreStock(Order order) {
         log.info("Restoring stock for cancelled order: orderId={}", order.getId());
 
         for (OrderItem item : order.getItems()) {
             Product product = item.getProduit();
-            Integer newStock = product.getStockDisponible() + item.getQuantite();
-            product.setStockDisponible(newStock);
-            productRepository.save(product);
-            log.debug("Stock restored for product {}: {} -> {}",
-                    product.getNom(), product.getStockDisponible() - item.getQuantite(), newStock);
+            productRepository.incrementStock(product.getId(), item.getQuantite());
+            log.debug("Stock restored for product {} by {}", product.getNom(), item.getQuantite());
         }
+        catalogVersionRepository.increment();
+        productCache.evictAll(order.getItems().stream().map(item -> item.getProduit().getId()).toList());
 
         log.info("Stock restoration completed for orderId={}", order.getId());
     }
@@ -401,6 +548,7 @@ public class OrderServiceImpl implements OrderService {
 
         updateClientTier(client);
         clientRepository.save(client);
+        clientLeaderboard.update(client);
 
         log.info("Client statistics saved for clientId={}", client.getId());
     }
@@ -413,15 +561,7 @@ public class OrderServiceImpl implements OrderService {
         BigDecimal totalSpent = client.getTotalSpent();
         ClientTier previousTier = client.getTier();
 
-        if (totalOrders >= 20 || totalSpent.compareTo(new BigDecimal("15000")) >= 0) {
-            client.setTier(ClientTier.PLATINUM);
-        } else if (totalOrders >= 10 || totalSpent.compareTo(new BigDecimal("5000")) >= 0) {
-            client.setTier(ClientTier.GOLD);
-        } else if (totalOrders >= 3 || totalSpent.compareTo(new BigDecimal("1000")) >= 0) {
-            client.setTier(ClientTier.SILVER);
-        } else {
-            client.setTier(ClientTier.BASIC);
-        }
+        client.setTier(clientTierRules.evaluate(totalOrders, totalSpent));
 
         if (!previousTier.equals(client.getTier())) {
             log.info("Client tier upgraded for clientId={}: {} -> {}", client.getId(), previousTier, client.getTier());
@@ -435,14 +575,7 @@ public class OrderServiceImpl implements OrderService {
     public OrderStatisticsDTO getOrderStatistics() {
         log.info("Starting OrderService.getOrderStatistics");
 
-        OrderStatisticsDTO statistics = OrderStatisticsDTO.builder()
-                .totalConfirmedOrders(orderRepository.countConfirmedOrders())
-                .totalConfirmedAmount(orderRepository.sumConfirmedOrdersAmount())
-                .totalPendingOrders(orderRepository.countPendingOrders())
-                .totalCancelledOrders(orderRepository.countCancelledOrders())
-                .averageOrderAmount(orderRepository.averageConfirmedOrderAmount())
-                .lastUpdated(LocalDateTime.now())
-                .build();
+        OrderStatisticsDTO statistics = toStatistics(orderStatusCounterRepository.findAll());
 
         log.info("Order statistics retrieved: confirmed={}, pending={}, cancelled={}, avgAmount={}",
                 statistics.getTotalConfirmedOrders(), statistics.getTotalPendingOrders(),
@@ -451,4 +584,71 @@ public class OrderServiceImpl implements OrderService {
         log.info("Finished OrderService.getOrderStatistics");
         return statistics;
     }
+
+    @Override
+    @Transactional
+    public OrderStatisticsDTO rebuildOrderStatistics() {
+        log.info("Starting OrderService.rebuildOrderStatistics");
+
+        // locking the counter rows first makes concurrent adjustments wait for the rebuilt values
+        Map<OrderStatus, OrderStatusCounter> counters = new EnumMap<>(OrderStatus.class);
+        for (OrderStatusCounter counter : orderStatusCounterRepository.findAllForUpdate()) {
+            counters.put(counter.getStatut(), counter);
+        }
+
+        Map<OrderStatus, Object[]> aggregates = new EnumMap<>(OrderStatus.class);
+        for (Object[] row : orderRepository.aggregateByStatus()) {
+            aggregates.put((OrderStatus) row[0], row);
+        }
+
+        for (OrderStatus status : OrderStatus.values()) {
+            OrderStatusCounter counter = counters.computeIfAbsent(status,
+                    s -> OrderStatusCounter.builder().statut(s).build());
+            Object[] row = aggregates.get(status);
+            counter.setOrderCount(row != null ? ((Number) row[1]).longValue() : 0L);
+            counter.setTotalAmount(row != null ? (BigDecimal) row[2] : BigDecimal.ZERO);
+        }
+
+        List<OrderStatusCounter> saved = orderStatusCounterRepository.saveAll(counters.values());
+
+        log.info("Finished OrderService.rebuildOrderStatistics");
+        return toStatistics(saved);
+    }
+
+    private void moveStatusCounter(OrderStatus from, OrderStatus to, BigDecimal amount) {
+        if (from != null && orderStatusCounterRepository.adjust(from, -1, amount.negate()) == 0) {
+            log.warn("Order status counter missing for {}, statistics need a rebuild", from);
+        }
+        if (orderStatusCounterRepository.adjust(to, 1, amount) == 0) {
+            log.warn("Order status counter missing for {}, statistics need a rebuild", to);
+        }
+    }
+
+    private OrderStatisticsDTO toStatistics(List<OrderStatusCounter> counters) {
+        Map<OrderStatus, OrderStatusCounter> byStatus = new EnumMap<>(OrderStatus.class);
+        for (OrderStatusCounter counter : counters) {
+            byStatus.put(counter.getStatut(), counter);
+        }
+
+        OrderStatusCounter confirmed = byStatus.getOrDefault(OrderStatus.CONFIRMED,
+                OrderStatusCounter.builder().statut(OrderStatus.CONFIRMED).build());
+
+        BigDecimal averageOrderAmount = confirmed.getOrderCount() > 0
+                ? confirmed.getTotalAmount().divide(BigDecimal.valueOf(confirmed.getOrderCount()), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO;
+
+        return OrderStatisticsDTO.builder()
+                .totalConfirmedOrders(confirmed.getOrderCount())
+                .totalConfirmedAmount(confirmed.getTotalAmount())
+                .totalPendingOrders(countOf(byStatus, OrderStatus.PENDING))
+                .totalCancelledOrders(countOf(byStatus, OrderStatus.CANCELED))
+                .averageOrderAmount(averageOrderAmount)
+                .lastUpdated(LocalDateTime.now())
+                .build();
+    }
+
+    private Long countOf(Map<OrderStatus, OrderStatusCounter> byStatus, OrderStatus status) {
+        OrderStatusCounter counter = byStatus.get(status);
+        return counter != null ? counter.getOrderCount() : 0L;
+    }
 }
@@ -1,6 +1,7 @@
 package com.smartshop.service.impl;
 
 import com.smartshop.dto.requist.createRequistDto.PaymentCreateDTO;
+import com.smartshop.dto.response.CursorPageDTO;
 import com.smartshop.dto.response.payement.PaymentAdvancedResponseDTO;
 import com.smartshop.dto.response.payement.PaymentResponseDTO;
 import com.smartshop.entity.Order;
@@ -9,13 +10,16 @@ import com.smartshop.enums.PaymentStatus;
 import com.smartshop.exception.BusinessException;
 import com.smartshop.exception.ResourceNotFoundException;
 import com.smartshop.mapper.PaymentMapper;
+import com.smartshop.pagination.Cursor;
 import com.smartshop.repository.OrderRepository;
 import com.smartshop.repository.PaymentRepository;
+import com.smartshop.service.ClientStatisticsService;
 import com.smartshop.service.PaymentService;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -32,6 +36,7 @@ public class PaymentServiceImpl implements PaymentService {
     private final PaymentRepository paymentRepository;
     private final PaymentMapper paymentMapper;
     private final OrderRepository orderRepository;
+    private final ClientStatisticsService clientStatisticsService;
 
     @Override
     @Transactional
@@ -67,6 +72,7 @@ public class PaymentServiceImpl implements PaymentService {
         log.info("Payment created successfully with id={}, paymentNumber={}", savedPayment.getId(), savedPayment.getPaymentNumber());
 
         updateOrderRemainingAmount(order, dto.getMontant());
+        clientStatisticsService.recordPayment(order, dto.getMontant());
 
         log.info("Finished PaymentService.createPayment - paymentId={}, orderId={}", savedPayment.getId(), dto.getOrderId());
         return paymentMapper.toSimpleDTO(savedPayment);
@@ -85,10 +91,11 @@ public class PaymentServiceImpl implements PaymentService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public PaymentAdvancedResponseDTO getPaymentByIdAdvanced(String paymentId) {
         log.info("Starting PaymentService.getPaymentByIdAdvanced with paymentId={}", paymentId);
 
-        Payment payment = paymentRepository.findById(paymentId)
+        Payment payment = paymentRepository.findWithOrderAndClientById(paymentId)
                 .orElseThrow(() -> new ResourceNotFoundException("No payment found with ID: " + paymentId));
 
         log.info("Finished PaymentService.getPaymentByIdAdvanced with paymentId={}", paymentId);
@@ -119,6 +126,28 @@ public class PaymentServiceImpl implements PaymentService {
         return paymentsPage;
     }
 
+    @Override
+    public CursorPageDTO<PaymentResponseDTO> getPaymentsByCursor(String cursor, int limit, boolean includeTotal) {
+        log.info("Starting PaymentService.getPaymentsByCursor with cursor={}, limit={}", cursor, limit);
+
+        int pageSize = Cursor.clampLimit(limit);
+        Cursor after = Cursor.decode(cursor);
+        Pageable window = PageRequest.of(0, pageSize + 1);
+
+        List<Payment> rows = after == null
+                ? paymentRepository.findKeysetFirstPage(window)
+                : paymentRepository.findKeysetPageAfter(after.createdAt(), after.id(), window);
+        Long total = includeTotal ? paymentRepository.count() : null;
+
+        CursorPageDTO<PaymentResponseDTO> page = CursorPageDTO.of(rows, pageSize,
+                p -> new Cursor(p.getCreatedAt(), p.getId()), paymentMapper::toSimpleDTO, total);
+
+        log.info("Retrieved {} payments, hasNext={}", page.getContent().size(), page.isHasNext());
+        log.info("Finished PaymentService.getPaymentsByCursor");
+
+        return page;
+    }
+
     @Override
     @Transactional
     public PaymentResponseDTO updatePaymentStatus(String paymentId, PaymentStatus status) {
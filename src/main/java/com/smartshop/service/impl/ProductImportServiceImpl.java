@@ -0,0 +1,318 @@
+package com.smartshop.service.impl;
+
+import com.smartshop.dto.requist.createRequistDto.CreateProductDTO;
+import com.smartshop.dto.response.product.ProductImportReportDTO;
+import com.smartshop.entity.Product;
+import com.smartshop.enums.ImportFormat;
+import com.smartshop.exception.ValidationException;
+import com.smartshop.repository.CatalogVersionRepository;
+import com.smartshop.repository.ProductRepository;
+import com.smartshop.search.ProductSearchIndex;
+import com.smartshop.service.ProductImportService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Service
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductImportServiceImpl.class);
+
+    private static final String INSERT_SQL = "INSERT INTO products " +
+            "(id, name, prix, stock, reorder_threshold, stock_reserve, deleted, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, 0, false, ?, ?)";
+
+    private final ProductRepository productRepository;
+    private final CatalogVersionRepository catalogVersionRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    public ProductImportServiceImpl(ProductRepository productRepository,
+                                    CatalogVersionRepository catalogVersionRepository,
+                                    ProductSearchIndex productSearchIndex,
+                                    JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    Validator validator,
+                                    ObjectMapper objectMapper,
+                                    @Value("${smartshop.import.chunk-size:1000}") int chunkSize,
+                                    @Value("${smartshop.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.productRepository = productRepository;
+        this.catalogVersionRepository = catalogVersionRepository;
+        this.productSearchIndex = productSearchIndex;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    @Override
+    public ProductImportReportDTO importProducts(InputStream input, ImportFormat format) {
+        log.info("Starting ProductImportService.importProducts with format={}", format);
+
+        Report report = new Report();
+        List<Row> chunk = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            Map<String, Integer> columns = format == ImportFormat.CSV ? readCsvHeader(reader) : null;
+            long lineNumber = format == ImportFormat.CSV ? 1 : 0;
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                report.totalRows++;
+
+                Row row = parse(line, lineNumber, format, columns, report);
+                if (row == null) {
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    flush(chunk, report);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            // the rows read so far are still imported; the report says where the input broke off
+            log.error("Product import input failed after {} rows", report.totalRows, e);
+            report.error = "Input could not be read after " + report.totalRows + " rows: " + e.getMessage();
+        }
+        if (!chunk.isEmpty()) {
+            flush(chunk, report);
+        }
+
+        log.info("Finished ProductImportService.importProducts - rows={}, imported={}, rejected={}, failed={}",
+                report.totalRows, report.imported, report.rejected, report.failed);
+
+        return ProductImportReportDTO.builder()
+                .totalRows(report.totalRows)
+                .imported(report.imported)
+                .rejected(report.rejected)
+                .failed(report.failed)
+                .error(report.error)
+                .errorsTruncated(report.truncated)
+                .errors(report.errors)
+                .build();
+    }
+
+    private Map<String, Integer> readCsvHeader(BufferedReader reader) throws IOException {
+        String header = reader.readLine();
+        if (header == null) {
+            throw new ValidationException("CSV import file is empty");
+        }
+
+        List<String> names = splitCsv(header.replace("\uFEFF", ""));
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim(), i);
+        }
+        if (!columns.containsKey("nom") || !columns.containsKey("prixUnitaire")) {
+            throw new ValidationException("CSV header must contain the columns nom and prixUnitaire " +
+                    "(optional: stockDisponible, reorderThreshold)");
+        }
+        return columns;
+    }
+
+    private Row parse(String line, long lineNumber, ImportFormat format, Map<String, Integer> columns, Report report) {
+        CreateProductDTO dto;
+        try {
+            dto = format == ImportFormat.CSV ? fromCsv(line, columns) : objectMapper.readValue(line, CreateProductDTO.class);
+        } catch (JacksonException | IllegalArgumentException e) {
+            report.reject(lineNumber, null, "Malformed row: " + e.getMessage());
+            return null;
+        }
+
+        if (dto.getStockDisponible() == null) {
+            dto.setStockDisponible(0);
+        }
+        Set<ConstraintViolation<CreateProductDTO>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            report.reject(lineNumber, dto.getNom(), violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+            return null;
+        }
+        return new Row(lineNumber, dto);
+    }
+
+    private CreateProductDTO fromCsv(String line, Map<String, Integer> columns) {
+        List<String> values = splitCsv(line);
+        String nom = column(values, columns, "nom");
+        String prix = column(values, columns, "prixUnitaire");
+        String stock = column(values, columns, "stockDisponible");
+        String threshold = column(values, columns, "reorderThreshold");
+
+        return CreateProductDTO.builder()
+                .nom(nom)
+                .prixUnitaire(prix == null ? null : new BigDecimal(prix))
+                .stockDisponible(stock == null ? 0 : Integer.valueOf(stock))
+                .reorderThreshold(threshold == null ? null : Integer.valueOf(threshold))
+                .build();
+    }
+
+    private void flush(List<Row> chunk, Report report) {
+        // first occurrence wins when the same name appears twice in one chunk
+        Map<String, Row> byNom = new LinkedHashMap<>();
+        for (Row row : chunk) {
+            if (byNom.putIfAbsent(row.dto().getNom(), row) != null) {
+                report.reject(row.line(), row.dto().getNom(), "Duplicate product name in import file");
+            }
+        }
+
+        List<Row> alreadyExisting = new ArrayList<>();
+        List<Product> inserted;
+        try {
+            inserted = transactionTemplate.execute(status -> insert(byNom, alreadyExisting));
+        } catch (RuntimeException e) {
+            // the chunk rolled back as a whole; the next chunks are independent and still run
+            log.error("Product import chunk of {} rows failed", byNom.size(), e);
+            String message = "Chunk failed, row not imported: " + (e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            byNom.values().forEach(row -> report.fail(row.line(), row.dto().getNom(), message));
+            return;
+        }
+
+        alreadyExisting.forEach(row -> report.reject(row.line(), row.dto().getNom(),
+                "Product with name '" + row.dto().getNom() + "' already exists"));
+        inserted.forEach(productSearchIndex::index);
+        report.imported += inserted.size();
+        log.debug("Imported chunk of {} products ({} rows read so far)", inserted.size(), report.totalRows);
+    }
+
+    private List<Product> insert(Map<String, Row> byNom, List<Row> alreadyExisting) {
+        Set<String> existing = new HashSet<>(productRepository.findExistingNoms(byNom.keySet()));
+        LocalDateTime now = LocalDateTime.now();
+        List<Product> products = new ArrayList<>(byNom.size());
+
+        for (Row row : byNom.values()) {
+            if (existing.contains(row.dto().getNom())) {
+                alreadyExisting.add(row);
+                continue;
+            }
+            products.add(Product.builder()
+                    .id(UUID.randomUUID().toString())
+                    .nom(row.dto().getNom())
+                    .prix_unitair(row.dto().getPrixUnitaire())
+                    .stockDisponible(row.dto().getStockDisponible())
+                    .reorderThreshold(row.dto().getReorderThreshold())
+                    .build());
+        }
+
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(INSERT_SQL, products, products.size(), (ps, product) -> {
+            ps.setString(1, product.getId());
+            ps.setString(2, product.getNom());
+            ps.setBigDecimal(3, product.getPrix_unitair());
+            ps.setInt(4, product.getStockDisponible());
+            ps.setObject(5, product.getReorderThreshold(), Types.INTEGER);
+            ps.setTimestamp(6, timestamp);
+            ps.setTimestamp(7, timestamp);
+        });
+        if (!products.isEmpty()) {
+            catalogVersionRepository.increment();
+        }
+        return products;
+    }
+
+    private static String column(List<String> values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Splits one CSV record, honouring double-quoted fields with "" escapes. Records cannot span lines.
+     */
+    static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private record Row(long line, CreateProductDTO dto) {
+    }
+
+    private final class Report {
+        private long totalRows;
+        private long imported;
+        private long rejected;
+        private long failed;
+        private String error;
+        private boolean truncated;
+        private final List<ProductImportReportDTO.RowErrorDTO> errors = new ArrayList<>();
+
+        void reject(long line, String nom, String message) {
+            rejected++;
+            record(line, nom, message);
+        }
+
+        void fail(long line, String nom, String message) {
+            failed++;
+            record(line, nom, message);
+        }
+
+        private void record(long line, String nom, String message) {
+            // the report stays bounded even when a whole file is rejected
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ProductImportReportDTO.RowErrorDTO(line, nom, message));
+            } else {
+                truncated = true;
+            }
+        }
+    }
+}
@@ -1,24 +1,45 @@
 package com.smartshop.service.impl;
 
+import com.smartshop.cache.ProductCache;
 import com.smartshop.dto.requist.createRequistDto.CreateProductDTO;
+import com.smartshop.dto.requist.searchRequistDto.ProductSearchCriteriaDTO;
+import com.smartshop.dto.requist.updateRequistDto.StockAdjustmentDTO;
 import com.smartshop.dto.requist.updateRequistDto.UpdateProductDTO;
+import com.smartshop.dto.response.CursorPageDTO;
 import com.smartshop.dto.response.product.ProductAdvancedResponseDTO;
+import com.smartshop.dto.response.product.ProductCacheStatsDTO;
 import com.smartshop.dto.response.product.ProductResponseDTO;
+import com.smartshop.dto.response.product.StockLevelDTO;
 import com.smartshop.entity.Product;
 import com.smartshop.exception.DuplicateResourceException;
+import com.smartshop.exception.InsufficientStockException;
 import com.smartshop.exception.ResourceNotFoundException;
+import com.smartshop.exception.ValidationException;
 import com.smartshop.mapper.ProductMapper;
+import com.smartshop.pagination.Cursor;
+import com.smartshop.repository.CatalogVersionRepository;
 import com.smartshop.repository.ProductRepository;
+import com.smartshop.repository.specification.ProductSpecifications;
+import com.smartshop.search.ProductSearchIndex;
+import com.smartshop.service.LowStockAlertService;
 import com.smartshop.service.ProductService;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,8 +49,19 @@ public class ProductServiceImpl implements ProductService {
 
     private static final Logger log = LoggerFactory.getLogger(ProductServiceImpl.class);
 
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("nom", "prix_unitair", "stockDisponible", "createdAt");
+
+    // a product created without stock has a NULL stock column, which counts as 0 here
+    private static final String ADJUST_STOCK_SQL = "UPDATE products SET stock = COALESCE(stock, 0) + ?, updated_at = ? " +
+            "WHERE id = ? AND COALESCE(stock, 0) + ? >= stock_reserve";
+
     private final ProductRepository productRepository;
+    private final CatalogVersionRepository catalogVersionRepository;
     private final ProductMapper productMapper;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductCache productCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final LowStockAlertService lowStockAlertService;
 
     @Override
     public ProductAdvancedResponseDTO create(CreateProductDTO dto) {
@@ -48,8 +80,10 @@ public class ProductServiceImpl implements ProductService {
         }
 
         Product savedProduct = productRepository.save(product);
+        catalogVersionRepository.increment();
         log.info("Product created successfully with id={}, name={}, stock={}",
                 savedProduct.getId(), savedProduct.getNom(), savedProduct.getStockDisponible());
+        afterCommit(() -> productSearchIndex.index(savedProduct));
 
         log.info("Finished ProductService.create - productId={}", savedProduct.getId());
         return productMapper.toAdvancedResponseDTO(savedProduct);
@@ -59,22 +93,24 @@ public class ProductServiceImpl implements ProductService {
     public ProductResponseDTO getById(String id) {
         log.info("Starting ProductService.getById with id={}", id);
 
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+        ProductResponseDTO product = productCache.get(ProductCache.PRODUCTS, id, () -> productMapper.toResponseDTO(
+                productRepository.findById(id)
+                        .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id))));
 
         log.info("Finished ProductService.getById with id={}", id);
-        return productMapper.toResponseDTO(product);
+        return product;
     }
 
     @Override
     public ProductAdvancedResponseDTO getAdvancedById(String id) {
         log.info("Starting ProductService.getAdvancedById with id={}", id);
 
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+        ProductAdvancedResponseDTO product = productCache.get(ProductCache.PRODUCTS_ADVANCED, id, () -> productMapper.toAdvancedResponseDTO(
+                productRepository.findById(id)
+                        .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id))));
 
         log.info("Finished ProductService.getAdvancedById with id={}", id);
-        return productMapper.toAdvancedResponseDTO(product);
+        return product;
     }
 
     @Override
@@ -90,6 +126,28 @@ public class ProductServiceImpl implements ProductService {
         return products.map(productMapper::toResponseDTO);
     }
 
+    @Override
+    public CursorPageDTO<ProductResponseDTO> getProductsByCursor(String cursor, int limit, boolean includeTotal) {
+        log.info("Starting ProductService.getProductsByCursor with cursor={}, limit={}", cursor, limit);
+
+        int pageSize = Cursor.clampLimit(limit);
+        Cursor after = Cursor.decode(cursor);
+        Pageable window = PageRequest.of(0, pageSize + 1);
+
+        List<Product> rows = after == null
+                ? productRepository.findKeysetFirstPage(window)
+                : productRepository.findKeysetPageAfter(after.createdAt(), after.id(), window);
+        Long total = includeTotal ? productRepository.count() : null;
+
+        CursorPageDTO<ProductResponseDTO> page = CursorPageDTO.of(rows, pageSize,
+                p -> new Cursor(p.getCreatedAt(), p.getId()), productMapper::toResponseDTO, total);
+
+        log.info("Retrieved {} products, hasNext={}", page.getContent().size(), page.isHasNext());
+        log.info("Finished ProductService.getProductsByCursor");
+
+        return page;
+    }
+
     @Override
     public Page<ProductAdvancedResponseDTO> getAllAdvanced(Pageable pageable) {
         log.info("Starting ProductService.getAllAdvanced with page={}, size={}",
@@ -168,13 +226,85 @@ public class ProductServiceImpl implements ProductService {
             product.setStockDisponible(dto.getStockDisponible());
         }
 
+        if (dto.getReorderThreshold() != null) {
+            log.debug("Updating reorder threshold for id={}: {} -> {}", id, product.getReorderThreshold(), dto.getReorderThreshold());
+            product.setReorderThreshold(dto.getReorderThreshold());
+        }
+
         Product updatedProduct = productRepository.save(product);
+        catalogVersionRepository.increment();
         log.info("Product updated successfully with id={}", id);
+        afterCommit(() -> productSearchIndex.index(updatedProduct));
+        productCache.evict(id);
 
         log.info("Finished ProductService.update with id={}", id);
         return productMapper.toAdvancedResponseDTO(updatedProduct);
     }
 
+    @Override
+    public List<StockLevelDTO> adjustStock(StockAdjustmentDTO dto) {
+        log.info("Starting ProductService.adjustStock with {} items", dto.getItems().size());
+
+        // duplicate ids are merged; the sorted order keeps row locks in a fixed order across concurrent adjustments
+        Map<String, Integer> deltas = new TreeMap<>();
+        for (StockAdjustmentDTO.StockDeltaDTO item : dto.getItems()) {
+            deltas.merge(item.getProduitId(), item.getDelta(), Integer::sum);
+        }
+
+        Set<String> known = new HashSet<>(productRepository.findActiveIds(deltas.keySet()));
+        if (known.size() != deltas.size()) {
+            List<String> unknown = deltas.keySet().stream().filter(id -> !known.contains(id)).toList();
+            log.warn("Stock adjustment rejected, unknown products: {}", unknown);
+            throw new ResourceNotFoundException("Products not found with ids: " + unknown);
+        }
+
+        List<Map.Entry<String, Integer>> rows = new ArrayList<>(deltas.entrySet());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] counts = jdbcTemplate.batchUpdate(ADJUST_STOCK_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setInt(1, row.getValue());
+            ps.setTimestamp(2, now);
+            ps.setString(3, row.getKey());
+            ps.setInt(4, row.getValue());
+        });
+
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    String productId = rows.get(index).getKey();
+                    log.error("Stock adjustment rejected for product {}: delta={}", productId, rows.get(index).getValue());
+                    throw new InsufficientStockException("Stock adjustment for product " + productId
+                            + " would leave less stock than is currently reserved");
+                }
+                index++;
+            }
+        }
+        catalogVersionRepository.increment();
+
+        Map<String, Integer> decremented = new HashMap<>();
+        deltas.forEach((productId, delta) -> {
+            if (delta < 0) {
+                decremented.put(productId, -delta);
+            }
+        });
+        lowStockAlertService.checkThresholds(decremented);
+
+        List<Product> products = productRepository.findAllById(deltas.keySet());
+        afterCommit(() -> products.forEach(productSearchIndex::index));
+        productCache.evictAll(deltas.keySet());
+
+        log.info("Finished ProductService.adjustStock - {} products adjusted", products.size());
+        return products.stream()
+                .sorted(Comparator.comparing(Product::getId))
+                .map(product -> StockLevelDTO.builder()
+                        .id(product.getId())
+                        .nom(product.getNom())
+                        .stockDisponible(product.getStockDisponible())
+                        .stockReserve(product.getStockReserve())
+                        .build())
+                .toList();
+    }
+
     @Override
     public void delete(String id) {
         log.info("Starting ProductService.delete with id={}", id);
@@ -185,27 +315,99 @@ public class ProductServiceImpl implements ProductService {
         product.setDeleted(true);
         product.setDeletedAt(LocalDateTime.now());
         productRepository.save(product);
+        catalogVersionRepository.increment();
+        afterCommit(() -> productSearchIndex.remove(id));
+        productCache.evict(id);
 
         log.info("Product soft deleted successfully with id={}, name={}", id, product.getNom());
         log.info("Finished ProductService.delete with id={}", id);
     }
 
     @Override
-    public List<ProductResponseDTO> searchProducts(String keyword) {
-        log.info("Starting ProductService.searchProducts with keyword={}", keyword);
+    @Transactional(readOnly = true)
+    public Page<ProductResponseDTO> searchProducts(String keyword, Pageable pageable) {
+        log.info("Starting ProductService.searchProducts with keyword={}, page={}, size={}",
+                keyword, pageable.getPageNumber(), pageable.getPageSize());
+
+        if (keyword == null || keyword.isBlank()) {
+            log.info("Finished ProductService.searchProducts - blank keyword matches nothing");
+            return Page.empty(pageable);
+        }
 
-        List<Product> products = productRepository.searchByKeywordInAllFields(keyword);
+        ProductSearchIndex.SearchResult result = productSearchIndex.search(keyword,
+                (int) pageable.getOffset(), pageable.getPageSize());
 
-        if (products.isEmpty()) {
+        if (result.total() == 0) {
             log.warn("No products found for keyword: {}", keyword);
             throw new ResourceNotFoundException("No products found for keyword: " + keyword);
         }
 
-        log.info("Found {} products matching keyword: {}", products.size(), keyword);
+        Map<String, Product> products = productRepository.findAllById(result.ids()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        // keep the index ranking; rows removed or soft-deleted since the index saw them are skipped
+        List<ProductResponseDTO> content = result.ids().stream()
+                .map(products::get)
+                .filter(product -> product != null && !Boolean.TRUE.equals(product.getDeleted()))
+                .map(productMapper::toResponseDTO)
+                .toList();
+
+        log.info("Found {} products matching keyword: {}", result.total(), keyword);
         log.info("Finished ProductService.searchProducts with keyword={}", keyword);
 
-        return products.stream()
-                .map(productMapper::toResponseDTO)
-                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, result.total());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ProductResponseDTO> filterProducts(ProductSearchCriteriaDTO criteria, Pageable pageable) {
+        log.info("Starting ProductService.filterProducts with criteria={}, page={}, size={}",
+                criteria, pageable.getPageNumber(), pageable.getPageSize());
+
+        if (criteria.getMinPrice() != null && criteria.getMaxPrice() != null
+                && criteria.getMinPrice().compareTo(criteria.getMaxPrice()) > 0) {
+            throw new ValidationException("minPrice must be lower than or equal to maxPrice");
+        }
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                throw new ValidationException("Cannot sort products by '" + order.getProperty()
+                        + "'. Allowed: " + SORTABLE_PROPERTIES);
+            }
+        }
+
+        Page<Product> products = productRepository.findAll(ProductSpecifications.matching(criteria), pageable);
+
+        log.info("Retrieved {} products matching filters", products.getTotalElements());
+        log.info("Finished ProductService.filterProducts");
+
+        return products.map(productMapper::toResponseDTO);
+    }
+
+    @Override
+    public List<ProductCacheStatsDTO> getCacheStatistics() {
+        log.info("Starting ProductService.getCacheStatistics");
+
+        List<ProductCacheStatsDTO> stats = productCache.stats();
+
+        log.info("Finished ProductService.getCacheStatistics");
+        return stats;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getCatalogVersion() {
+        return Long.toString(catalogVersionRepository.findCurrent(), 36);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
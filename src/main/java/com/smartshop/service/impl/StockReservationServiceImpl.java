@@ -0,0 +1,175 @@
+package com.smartshop.service.impl;
+
+import com.smartshop.cache.ProductCache;
+import com.smartshop.entity.Order;
+import com.smartshop.entity.OrderItem;
+import com.smartshop.entity.StockReservation;
+import com.smartshop.enums.ReservationStatus;
+import com.smartshop.exception.BusinessException;
+import com.smartshop.repository.CatalogVersionRepository;
+import com.smartshop.repository.ProductRepository;
+import com.smartshop.repository.StockReservationRepository;
+import com.smartshop.service.LowStockAlertService;
+import com.smartshop.service.StockReservationService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class StockReservationServiceImpl implements StockReservationService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockReservationServiceImpl.class);
+
+    private final StockReservationRepository stockReservationRepository;
+    private final ProductRepository productRepository;
+    private final CatalogVersionRepository catalogVersionRepository;
+    private final ProductCache productCache;
+    private final LowStockAlertService lowStockAlertService;
+
+    @Value("${smartshop.stock-reservation.ttl-minutes:30}")
+    private long ttlMinutes;
+
+    @Override
+    @Transactional
+    public void reserve(Order order) {
+        log.info("Starting StockReservationService.reserve for orderId={}", order.getId());
+
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(ttlMinutes);
+        List<StockReservation> reservations = new ArrayList<>();
+        List<String> rejectedProducts = new ArrayList<>();
+        Map<String, Integer> reserved = new HashMap<>();
+
+        for (OrderItem item : order.getItems()) {
+            if (productRepository.reserveStock(item.getProduit().getId(), item.getQuantite()) == 0) {
+                log.warn("Reservation rejected for product {}: requested={}", item.getProduit().getNom(), item.getQuantite());
+                rejectedProducts.add(item.getProduit().getNom());
+                continue;
+            }
+            reserved.merge(item.getProduit().getId(), item.getQuantite(), Integer::sum);
+
+            reservations.add(StockReservation.builder()
+                    .order(order)
+                    .produit(item.getProduit())
+                    .quantite(item.getQuantite())
+                    .expiresAt(expiresAt)
+                    .build());
+        }
+
+        if (!rejectedProducts.isEmpty()) {
+            throw new BusinessException("Stock changed! Insufficient stock for: " + String.join(", ", rejectedProducts));
+        }
+
+        stockReservationRepository.saveAll(reservations);
+        catalogVersionRepository.increment();
+        // reserving is what lowers the available stock; committing it later leaves on hand minus reserved unchanged
+        lowStockAlertService.checkThresholds(reserved);
+        productCache.evictAll(reservations.stream().map(r -> r.getProduit().getId()).toList());
+        log.info("Finished StockReservationService.reserve - {} reservations until {} for orderId={}",
+                reservations.size(), expiresAt, order.getId());
+    }
+
+    @Override
+    @Transactional
+    public List<OrderItem> confirm(Order order) {
+        log.info("Starting StockReservationService.confirm for orderId={}", order.getId());
+
+        if (!stockReservationRepository.existsByOrderId(order.getId())) {
+            log.debug("Order {} predates stock reservations, stock was decremented at creation", order.getId());
+            return Collections.emptyList();
+        }
+
+        Map<String, StockReservation> activeByProduct = stockReservationRepository
+                .findByOrderIdAndStatut(order.getId(), ReservationStatus.ACTIVE).stream()
+                .collect(Collectors.toMap(r -> r.getProduit().getId(), Function.identity()));
+
+        List<OrderItem> unreservedItems = new ArrayList<>();
+
+        for (OrderItem item : order.getItems()) {
+            StockReservation reservation = activeByProduct.get(item.getProduit().getId());
+
+            if (reservation == null || stockReservationRepository.transition(
+                    reservation.getId(), ReservationStatus.ACTIVE, ReservationStatus.CONFIRMED) == 0) {
+                log.debug("Reservation lapsed for product {} on orderId={}", item.getProduit().getNom(), order.getId());
+                unreservedItems.add(item);
+                continue;
+            }
+
+            if (productRepository.commitReservedStock(item.getProduit().getId(), reservation.getQuantite()) == 0) {
+                log.error("Reserved stock inconsistent for product {}: reserved={}",
+                        item.getProduit().getNom(), reservation.getQuantite());
+                throw new BusinessException("Stock changed! Insufficient stock for: " + item.getProduit().getNom());
+            }
+        }
+
+        if (unreservedItems.size() < order.getItems().size()) {
+            catalogVersionRepository.increment();
+        }
+        productCache.evictAll(activeByProduct.keySet());
+        log.info("Finished StockReservationService.confirm for orderId={} - {} lines without active reservation",
+                order.getId(), unreservedItems.size());
+        return unreservedItems;
+    }
+
+    @Override
+    @Transactional
+    public boolean release(Order order) {
+        log.info("Starting StockReservationService.release for orderId={}", order.getId());
+
+        if (!stockReservationRepository.existsByOrderId(order.getId())) {
+            return false;
+        }
+
+        boolean released = false;
+        for (StockReservation reservation : stockReservationRepository
+                .findByOrderIdAndStatut(order.getId(), ReservationStatus.ACTIVE)) {
+            if (stockReservationRepository.transition(
+                    reservation.getId(), ReservationStatus.ACTIVE, ReservationStatus.RELEASED) == 1) {
+                productRepository.releaseReservedStock(reservation.getProduit().getId(), reservation.getQuantite());
+                productCache.evict(reservation.getProduit().getId());
+                released = true;
+            }
+        }
+        if (released) {
+            catalogVersionRepository.increment();
+        }
+
+        log.info("Finished StockReservationService.release for orderId={}", order.getId());
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public int releaseExpired(int batchSize) {
+        List<StockReservation> expired = stockReservationRepository.findExpiredForUpdate(
+                ReservationStatus.ACTIVE, LocalDateTime.now(), PageRequest.of(0, batchSize));
+
+        if (expired.isEmpty()) {
+            return 0;
+        }
+
+        stockReservationRepository.transitionAll(
+                expired.stream().map(StockReservation::getId).toList(),
+                ReservationStatus.ACTIVE, ReservationStatus.EXPIRED);
+
+        Map<String, Integer> quantitiesByProduct = new HashMap<>();
+        for (StockReservation reservation : expired) {
+            quantitiesByProduct.merge(reservation.getProduit().getId(), reservation.getQuantite(), Integer::sum);
+        }
+        quantitiesByProduct.forEach(productRepository::releaseReservedStock);
+        catalogVersionRepository.increment();
+        productCache.evictAll(quantitiesByProduct.keySet());
+
+        log.info("Released {} expired reservations across {} products", expired.size(), quantitiesByProduct.size());
+        return expired.size();
+    }
+}
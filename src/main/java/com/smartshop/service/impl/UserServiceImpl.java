@@ -4,16 +4,19 @@ import com.smartshop.dto.response.UserResponseDTO;
 import com.smartshop.entity.User;
 import com.smartshop.mapper.UserMapper;
 import com.smartshop.repository.UserRepository;
+import com.smartshop.security.PasswordHasher;
 import com.smartshop.service.UserService;
 import com.smartshop.exception.BusinessException;
 import com.smartshop.exception.ResourceNotFoundException;
 import jakarta.servlet.http.HttpSession;
 import lombok.RequiredArgsConstructor;
-import org.mindrot.jbcrypt.BCrypt;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 @RequiredArgsConstructor
@@ -24,22 +27,41 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final PasswordHasher passwordHasher;
+    private final PlatformTransactionManager transactionManager;
 
+    /**
+     * Looks the user up in its own short read and verifies the password after it: a verify waits on the hashing
+     * pool, and during a login burst that wait must not hold a pooled connection.
+     */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public UserResponseDTO login(String username, String password, HttpSession session) {
         log.info("Starting UserService.login for username={}", username);
 
-        User user = userRepository.findByUsername(username)
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        User user = readOnly.execute(status -> userRepository.findByUsername(username))
                 .orElseThrow(() -> {
                     log.warn("Login failed - user not found for username={}", username);
                     return new ResourceNotFoundException("Utilisateur introuvable");
                 });
 
-        if (!BCrypt.checkpw(password, user.getPassword())) {
+        if (!passwordHasher.verify(password, user.getPassword())) {
             log.warn("Login failed - invalid credentials for username={}", username);
             throw new BusinessException("Nom d'utilisateur ou mot de passe incorrect");
         }
 
+        if (passwordHasher.needsRehash(user.getPassword())) {
+            String userId = user.getId();
+            String outdatedHash = user.getPassword();
+            passwordHasher.rehashAsync(password, newHash -> {
+                if (userRepository.updatePasswordIfUnchanged(userId, outdatedHash, newHash) == 1) {
+                    log.info("Password rehashed with cost {} for userId={}", passwordHasher.getCost(), userId);
+                }
+            });
+        }
+
         session.setAttribute("USER_ID", user.getId());
         session.setAttribute("USER_ROLE", user.getRole().name());
         session.setAttribute("USERNAME", user.getUsername());
@@ -0,0 +1,46 @@
+package com.smartshop.tier;
+
+import com.smartshop.enums.ClientTier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Loyalty tier thresholds. A client reaches a tier with either its minimum number of confirmed orders
+ * or its minimum total spent; the highest tier reached wins.
+ */
+@Component
+public class ClientTierRules {
+
+    private final List<Threshold> thresholds;
+
+    public ClientTierRules(@Value("${smartshop.client-tier.silver.min-orders:3}") int silverMinOrders,
+                           @Value("${smartshop.client-tier.silver.min-spent:1000}") BigDecimal silverMinSpent,
+                           @Value("${smartshop.client-tier.gold.min-orders:10}") int goldMinOrders,
+                           @Value("${smartshop.client-tier.gold.min-spent:5000}") BigDecimal goldMinSpent,
+                           @Value("${smartshop.client-tier.platinum.min-orders:20}") int platinumMinOrders,
+                           @Value("${smartshop.client-tier.platinum.min-spent:15000}") BigDecimal platinumMinSpent) {
+        if (silverMinOrders > goldMinOrders || goldMinOrders > platinumMinOrders
+                || silverMinSpent.compareTo(goldMinSpent) > 0 || goldMinSpent.compareTo(platinumMinSpent) > 0) {
+            throw new IllegalArgumentException("Client tier thresholds must not decrease from SILVER to PLATINUM");
+        }
+        this.thresholds = List.of(
+                new Threshold(ClientTier.PLATINUM, platinumMinOrders, platinumMinSpent),
+                new Threshold(ClientTier.GOLD, goldMinOrders, goldMinSpent),
+                new Threshold(ClientTier.SILVER, silverMinOrders, silverMinSpent));
+    }
+
+    public ClientTier evaluate(int totalOrders, BigDecimal totalSpent) {
+        for (Threshold threshold : thresholds) {
+            if (totalOrders >= threshold.minOrders() || totalSpent.compareTo(threshold.minSpent()) >= 0) {
+                return threshold.tier();
+            }
+        }
+        return ClientTier.BASIC;
+    }
+
+    private record Threshold(ClientTier tier, int minOrders, BigDecimal minSpent) {
+    }
+}
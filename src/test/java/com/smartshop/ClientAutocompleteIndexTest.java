@@ -0,0 +1,75 @@
+package com.smartshop;
+
+import com.smartshop.search.ClientAutocompleteIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientAutocompleteIndexTest {
+
+    private ClientAutocompleteIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ClientAutocompleteIndex();
+        index.index("c-1", "Jean Dupont", "jean.dupont@mail.ma");
+        index.index("c-2", "Amine Dupuis", "amine@smartshop.ma");
+        index.index("c-3", "Élodie Martin", "elodie.martin@mail.ma");
+    }
+
+    private List<String> ids(String prefix, int limit) {
+        return index.suggest(prefix, limit).stream().map(ClientAutocompleteIndex.Suggestion::id).toList();
+    }
+
+    @Test
+    void suggest_matchesNameTokensAndEmailPrefixes() {
+        assertEquals(List.of("c-1", "c-2"), ids("dup", 10));
+        assertEquals(List.of("c-1"), ids("Jean.D", 10));
+        assertEquals(List.of("c-3"), ids("elo", 10));
+        assertEquals(List.of("c-1"), ids("jean dup", 10));
+        assertTrue(ids("xyz", 10).isEmpty());
+        assertTrue(ids("  ", 10).isEmpty());
+    }
+
+    @Test
+    void suggest_returnsEachClientOnceUpToTheLimit() {
+        index.index("c-4", "Jean Jeannot", "jean@mail.ma");
+
+        assertEquals(List.of("c-1", "c-4"), ids("jean", 10));
+        assertEquals(1, ids("jean", 1).size());
+    }
+
+    @Test
+    void index_replacesTheTermsOfAnUpdatedClient() {
+        index.index("c-1", "Jean Bernard", "jean.bernard@mail.ma");
+
+        assertEquals(List.of("c-2"), ids("dup", 10));
+        assertEquals(List.of("c-1"), ids("bern", 10));
+
+        index.remove("c-1");
+        assertTrue(ids("jean", 10).isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void load_doesNotOverrideLiveWrites() {
+        ClientAutocompleteIndex fresh = new ClientAutocompleteIndex();
+        fresh.beginLoad();
+        fresh.index("c-1", "Jean Bernard", "jean.bernard@mail.ma");
+        fresh.remove("c-2");
+
+        fresh.load("c-1", "Jean Dupont", "jean.dupont@mail.ma");
+        fresh.load("c-2", "Amine Dupuis", "amine@smartshop.ma");
+        fresh.load("c-3", "Élodie Martin", "elodie.martin@mail.ma");
+        assertFalse(fresh.isReady());
+        fresh.finishLoad();
+
+        assertTrue(fresh.isReady());
+        assertEquals(2, fresh.size());
+        assertTrue(fresh.suggest("dup", 10).isEmpty());
+        assertEquals("Jean Bernard", fresh.suggest("jean", 10).get(0).nom());
+    }
+}
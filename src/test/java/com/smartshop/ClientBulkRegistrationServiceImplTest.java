@@ -0,0 +1,229 @@
+package com.smartshop;
+
+import com.smartshop.dto.requist.createRequistDto.UserClientRegistrationDTO;
+import com.smartshop.dto.response.client.BulkClientRegistrationJobDTO;
+import com.smartshop.dto.response.client.BulkClientRegistrationReportDTO;
+import com.smartshop.dto.response.client.BulkClientRegistrationReportDTO.RowResultDTO;
+import com.smartshop.enums.JobStatus;
+import com.smartshop.enums.RegistrationOutcome;
+import com.smartshop.enums.UserRole;
+import com.smartshop.exception.ResourceNotFoundException;
+import com.smartshop.exception.ServiceUnavailableException;
+import com.smartshop.exception.ValidationException;
+import com.smartshop.leaderboard.ClientLeaderboard;
+import com.smartshop.repository.ClientRepository;
+import com.smartshop.search.ClientAutocompleteIndex;
+import com.smartshop.security.PasswordHasher;
+import com.smartshop.service.impl.ClientBulkRegistrationServiceImpl;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClientBulkRegistrationServiceImplTest {
+
+    @Mock
+    private ClientRepository clientRepository;
+    @Mock
+    private PasswordHasher passwordHasher;
+    @Mock
+    private ClientAutocompleteIndex clientAutocompleteIndex;
+    @Mock
+    private ClientLeaderboard clientLeaderboard;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ClientBulkRegistrationServiceImpl bulkRegistrationService;
+
+    @BeforeEach
+    void setUp() {
+        bulkRegistrationService = new ClientBulkRegistrationServiceImpl(clientRepository, passwordHasher,
+                clientAutocompleteIndex, clientLeaderboard, jdbcTemplate, transactionManager,
+                Validation.buildDefaultValidatorFactory().getValidator(), 2, 10, 1, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bulkRegistrationService.shutdown();
+    }
+
+    private static UserClientRegistrationDTO registration(String username, String email) {
+        return UserClientRegistrationDTO.builder()
+                .username(username)
+                .password("S3cret@pass")
+                .role(UserRole.CLIENT)
+                .nom("Client " + username)
+                .email(email)
+                .build();
+    }
+
+    private void hashEverything() {
+        when(passwordHasher.hashAll(anyList())).thenAnswer(invocation -> {
+            List<String> raw = invocation.getArgument(0);
+            return raw.stream().map(password -> "hashed").toList();
+        });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void register_checksEachChunkOnceAndReportsEveryRow() {
+        hashEverything();
+        when(clientRepository.findTakenUsernamesAndEmails(anyCollection(), anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[]{"EMAIL", "taken@mail.ma"}))
+                .thenReturn(List.of());
+        UserClientRegistrationDTO admin = registration("boss", "boss@mail.ma");
+        admin.setRole(UserRole.ADMIN);
+
+        BulkClientRegistrationReportDTO report = bulkRegistrationService.register(List.of(
+                registration("alice", "alice@mail.ma"),
+                registration("bob", "taken@mail.ma"),
+                registration("alice", "alice2@mail.ma"),
+                registration("x", "not-an-email"),
+                admin,
+                registration("carol", "carol@mail.ma")));
+
+        assertEquals(6, report.getTotalRows());
+        assertEquals(2, report.getCreated());
+        assertEquals(4, report.getRejected());
+        assertEquals(List.of(RegistrationOutcome.CREATED, RegistrationOutcome.REJECTED, RegistrationOutcome.REJECTED,
+                        RegistrationOutcome.REJECTED, RegistrationOutcome.REJECTED, RegistrationOutcome.CREATED),
+                report.getRows().stream().map(RowResultDTO::getOutcome).toList());
+        assertEquals("Email already exists", report.getRows().get(1).getMessage());
+        assertEquals("Duplicate username in request", report.getRows().get(2).getMessage());
+        assertEquals("Admin role is not allowed", report.getRows().get(4).getMessage());
+        assertNotNull(report.getRows().get(0).getClientId());
+
+        verify(clientRepository, times(2)).findTakenUsernamesAndEmails(anyCollection(), anyCollection());
+        // users, clients and statistics for each of the two chunks
+        verify(jdbcTemplate, times(6)).batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        verify(clientAutocompleteIndex).index(anyString(), eq("Client alice"), eq("alice@mail.ma"));
+        verify(clientAutocompleteIndex).index(anyString(), eq("Client carol"), eq("carol@mail.ma"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void register_reChecksTheChunkWhenAConcurrentInsertWins() {
+        hashEverything();
+        List<Collection<String>> checkedUsernames = new ArrayList<>();
+        when(clientRepository.findTakenUsernamesAndEmails(anyCollection(), anyCollection())).thenAnswer(invocation -> {
+            checkedUsernames.add(List.copyOf((Collection<String>) invocation.getArgument(0)));
+            return checkedUsernames.size() == 1 ? List.of() : List.<Object[]>of(new Object[]{"USERNAME", "bob"});
+        });
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_users_username"))
+                .thenReturn(new int[0][0]);
+
+        BulkClientRegistrationReportDTO report = bulkRegistrationService.register(List.of(
+                registration("alice", "alice@mail.ma"),
+                registration("bob", "bob@mail.ma")));
+
+        assertEquals(1, report.getCreated());
+        assertEquals(RegistrationOutcome.CREATED, report.getRows().get(0).getOutcome());
+        assertEquals("Username already exists", report.getRows().get(1).getMessage());
+        assertEquals(List.of(List.of("alice", "bob"), List.of("alice", "bob")), checkedUsernames);
+        verify(passwordHasher, times(1)).hashAll(anyList());
+    }
+
+    @Test
+    void register_rejectsEmptyAndOversizedRequests() {
+        assertThrows(ValidationException.class, () -> bulkRegistrationService.register(List.of()));
+
+        List<UserClientRegistrationDTO> tooMany = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            tooMany.add(registration("user" + i, "user" + i + "@mail.ma"));
+        }
+        assertThrows(ValidationException.class, () -> bulkRegistrationService.register(tooMany));
+        verifyNoInteractions(clientRepository, passwordHasher, jdbcTemplate);
+    }
+
+    @Test
+    void register_returnsThePartialReportWhenALaterChunkFails() {
+        when(clientRepository.findTakenUsernamesAndEmails(anyCollection(), anyCollection())).thenReturn(List.of());
+        when(passwordHasher.hashAll(anyList()))
+                .thenReturn(List.of("hashed", "hashed"))
+                .thenThrow(new ServiceUnavailableException("Too many password operations in progress, please retry shortly"));
+
+        BulkClientRegistrationReportDTO report = bulkRegistrationService.register(List.of(
+                registration("alice", "alice@mail.ma"),
+                registration("bob", "bob@mail.ma"),
+                registration("carol", "carol@mail.ma"),
+                registration("x", "not-an-email"),
+                registration("dave", "dave@mail.ma"),
+                registration("erin", "erin@mail.ma")));
+
+        assertEquals(2, report.getCreated());
+        assertEquals(1, report.getRejected());
+        assertEquals(3, report.getFailed());
+        assertEquals("Too many password operations in progress, please retry shortly", report.getError());
+        assertEquals(List.of(RegistrationOutcome.CREATED, RegistrationOutcome.CREATED, RegistrationOutcome.FAILED,
+                        RegistrationOutcome.REJECTED, RegistrationOutcome.FAILED, RegistrationOutcome.FAILED),
+                report.getRows().stream().map(RowResultDTO::getOutcome).toList());
+        // the import stops at the failed chunk instead of hashing the rest
+        verify(passwordHasher, times(2)).hashAll(anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void register_doesNotRetryViolationsOfOtherConstraints() {
+        hashEverything();
+        when(clientRepository.findTakenUsernamesAndEmails(anyCollection(), anyCollection())).thenReturn(List.of());
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataIntegrityViolationException("null value in column \"nom\" violates not-null constraint"));
+
+        BulkClientRegistrationReportDTO report = bulkRegistrationService.register(List.of(
+                registration("alice", "alice@mail.ma"),
+                registration("bob", "bob@mail.ma")));
+
+        assertEquals(0, report.getCreated());
+        assertEquals(2, report.getFailed());
+        assertTrue(report.getRows().get(0).getMessage().contains("not-null constraint"));
+        verify(clientRepository, times(1)).findTakenUsernamesAndEmails(anyCollection(), anyCollection());
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    void submit_runsTheImportInTheBackgroundAndKeepsTheReport() throws Exception {
+        hashEverything();
+        when(clientRepository.findTakenUsernamesAndEmails(anyCollection(), anyCollection())).thenReturn(List.of());
+
+        BulkClientRegistrationJobDTO submitted = bulkRegistrationService.submit(List.of(
+                registration("alice", "alice@mail.ma")));
+
+        assertEquals(1, submitted.getTotalRows());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        BulkClientRegistrationJobDTO job = bulkRegistrationService.getJob(submitted.getId());
+        while (job.getStatus() != JobStatus.COMPLETED && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            job = bulkRegistrationService.getJob(submitted.getId());
+        }
+        assertEquals(JobStatus.COMPLETED, job.getStatus());
+        assertNotNull(job.getFinishedAt());
+        assertEquals(1, job.getReport().getCreated());
+        assertThrows(ResourceNotFoundException.class, () -> bulkRegistrationService.getJob("unknown"));
+    }
+
+    @Test
+    void submit_validatesTheSizeBeforeQueueing() {
+        assertThrows(ValidationException.class, () -> bulkRegistrationService.submit(List.of()));
+        verifyNoInteractions(clientRepository, passwordHasher, jdbcTemplate);
+    }
+}
@@ -0,0 +1,57 @@
+package com.smartshop;
+
+import com.smartshop.controller.ClientController;
+import com.smartshop.exception.ServiceUnavailableException;
+import com.smartshop.service.ClientBulkRegistrationService;
+import com.smartshop.service.ClientOverviewService;
+import com.smartshop.service.ClientService;
+import com.smartshop.service.ClientStatisticsService;
+import com.smartshop.service.ClientTierService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.cache.autoconfigure.CacheAutoConfiguration;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// the web slice leaves caching out, but @EnableCaching on the application class still needs a cache manager
+@WebMvcTest(controllers = ClientController.class, properties = "spring.cache.type=none")
+@ImportAutoConfiguration(CacheAutoConfiguration.class)
+class ClientControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ClientService clientService;
+    @MockitoBean
+    private ClientBulkRegistrationService clientBulkRegistrationService;
+    @MockitoBean
+    private ClientOverviewService clientOverviewService;
+    @MockitoBean
+    private ClientTierService clientTierService;
+    @MockitoBean
+    private ClientStatisticsService clientStatisticsService;
+    // @EnableJpaAuditing on the application class needs a mapping context, which the web slice does not build
+    @MockitoBean
+    private JpaMetamodelMappingContext jpaMetamodelMappingContext;
+
+    @Test
+    void getOverview_answers503WithRetryAfterWhenTheOverviewPoolIsFull() throws Exception {
+        when(clientOverviewService.getOverview("client-1")).thenThrow(
+                new ServiceUnavailableException("Too many client overviews in progress, please retry shortly"));
+
+        mockMvc.perform(get("/api/clients/client-1/overview")
+                        .sessionAttr("USER_ID", "admin-1").sessionAttr("USER_ROLE", "ADMIN"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+}
@@ -0,0 +1,84 @@
+package com.smartshop;
+
+import com.smartshop.entity.Client;
+import com.smartshop.enums.ClientTier;
+import com.smartshop.enums.LeaderboardMetric;
+import com.smartshop.leaderboard.ClientLeaderboard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientLeaderboardTest {
+
+    private ClientLeaderboard leaderboard;
+
+    private static Client client(String id, ClientTier tier, int orders, String spent) {
+        return Client.builder()
+                .id(id)
+                .nom("Client " + id)
+                .tier(tier)
+                .totalOrders(orders)
+                .totalSpent(new BigDecimal(spent))
+                .build();
+    }
+
+    private List<String> ids(LeaderboardMetric metric, ClientTier tier, int limit) {
+        return leaderboard.top(metric, tier, limit).stream().map(ClientLeaderboard.Entry::clientId).toList();
+    }
+
+    @BeforeEach
+    void setUp() {
+        leaderboard = new ClientLeaderboard();
+        leaderboard.update(client("c-1", ClientTier.GOLD, 12, "4200.00"));
+        leaderboard.update(client("c-2", ClientTier.PLATINUM, 25, "16000.00"));
+        leaderboard.update(client("c-3", ClientTier.SILVER, 4, "6100.00"));
+        leaderboard.update(client("c-4", ClientTier.BASIC, 1, "80.00"));
+    }
+
+    @Test
+    void top_ranksBySpentOrOrdersWithinTheRequestedTier() {
+        assertEquals(List.of("c-2", "c-3", "c-1"), ids(LeaderboardMetric.SPENT, null, 3));
+        assertEquals(List.of("c-2", "c-1", "c-3", "c-4"), ids(LeaderboardMetric.ORDERS, null, 10));
+        assertEquals(List.of("c-4"), ids(LeaderboardMetric.SPENT, ClientTier.BASIC, 10));
+        assertTrue(ids(LeaderboardMetric.SPENT, ClientTier.GOLD, 0).isEmpty());
+    }
+
+    @Test
+    void update_movesTheClientAndIgnoresAnOlderSnapshot() {
+        leaderboard.update(client("c-4", ClientTier.PLATINUM, 30, "20000.00"));
+        leaderboard.update(client("c-4", ClientTier.BASIC, 2, "150.00"));
+
+        assertEquals(List.of("c-4", "c-2"), ids(LeaderboardMetric.SPENT, null, 2));
+        assertTrue(ids(LeaderboardMetric.SPENT, ClientTier.BASIC, 10).isEmpty());
+        assertEquals(List.of("c-4", "c-2"), ids(LeaderboardMetric.ORDERS, ClientTier.PLATINUM, 10));
+        assertEquals(4, leaderboard.size());
+    }
+
+    @Test
+    void updateTierAndRemove_keepTheTierRankingsInStep() {
+        leaderboard.updateTier("c-3", ClientTier.GOLD);
+        leaderboard.remove("c-1");
+
+        assertEquals(List.of("c-3"), ids(LeaderboardMetric.SPENT, ClientTier.GOLD, 10));
+        assertTrue(ids(LeaderboardMetric.SPENT, ClientTier.SILVER, 10).isEmpty());
+        assertEquals(List.of("c-2", "c-3", "c-4"), ids(LeaderboardMetric.ORDERS, null, 10));
+    }
+
+    @Test
+    void load_doesNotOverrideLiveUpdates() {
+        leaderboard.beginLoad();
+        leaderboard.remove("c-4");
+        leaderboard.load("c-4", "Client c-4", ClientTier.BASIC, 1, new BigDecimal("80.00"));
+        leaderboard.load("c-1", "Client c-1", ClientTier.BASIC, 0, BigDecimal.ZERO);
+        leaderboard.load("c-5", "Client c-5", ClientTier.SILVER, 3, new BigDecimal("900.00"));
+        leaderboard.finishLoad();
+
+        assertEquals(4, leaderboard.size());
+        assertEquals(List.of("c-1"), ids(LeaderboardMetric.SPENT, ClientTier.GOLD, 10));
+        assertEquals(List.of("c-3", "c-5"), ids(LeaderboardMetric.SPENT, ClientTier.SILVER, 10));
+    }
+}
@@ -0,0 +1,171 @@
+package com.smartshop;
+
+import com.smartshop.dto.response.client.ClientOverviewDTO;
+import com.smartshop.dto.response.client.ClientWithUserResponseDTO;
+import com.smartshop.dto.response.order.OrderResponseDTO;
+import com.smartshop.dto.response.payement.PaymentResponseDTO;
+import com.smartshop.exception.ResourceNotFoundException;
+import com.smartshop.exception.ServiceUnavailableException;
+import com.smartshop.mapper.OrderMapper;
+import com.smartshop.mapper.PaymentMapper;
+import com.smartshop.repository.OrderRepository;
+import com.smartshop.repository.PaymentRepository;
+import com.smartshop.repository.projection.OrderSummaryView;
+import com.smartshop.service.ClientService;
+import com.smartshop.service.impl.ClientOverviewServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ClientOverviewServiceImplTest {
+
+    @Mock
+    private ClientService clientService;
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private PaymentRepository paymentRepository;
+    @Mock
+    private OrderMapper orderMapper;
+    @Mock
+    private PaymentMapper paymentMapper;
+
+    private ClientOverviewServiceImpl clientOverviewService;
+    private List<OrderSummaryView> recentViews;
+    private List<OrderSummaryView> outstandingViews;
+
+    @BeforeEach
+    void setUp() {
+        clientOverviewService = new ClientOverviewServiceImpl(clientService, orderRepository, paymentRepository,
+                orderMapper, paymentMapper, 4, 16, 300, 10);
+        recentViews = List.of(mock(OrderSummaryView.class));
+        outstandingViews = List.of(mock(OrderSummaryView.class), mock(OrderSummaryView.class));
+
+        ClientWithUserResponseDTO client = new ClientWithUserResponseDTO();
+        client.setId("client-1");
+        when(clientService.getClientWithUserById("client-1")).thenReturn(client);
+        when(orderRepository.findRecentSummariesByClientId(eq("client-1"), any(Pageable.class))).thenReturn(recentViews);
+        when(orderRepository.findOutstandingSummariesByClientId("client-1")).thenReturn(outstandingViews);
+        when(orderMapper.fromSummaryViewList(recentViews)).thenReturn(List.of(order("order-3", "0")));
+        when(orderMapper.fromSummaryViewList(outstandingViews)).thenReturn(
+                List.of(order("order-1", "120.00"), order("order-2", "30.50")));
+        when(paymentRepository.findRecentByClientId(eq("client-1"), any(Pageable.class))).thenReturn(List.of());
+        when(paymentMapper.toSimpleDTOList(anyList())).thenReturn(List.of(new PaymentResponseDTO()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        clientOverviewService.shutdown();
+    }
+
+    private static OrderResponseDTO order(String id, String montantRestant) {
+        OrderResponseDTO order = new OrderResponseDTO();
+        order.setId(id);
+        order.setMontantRestant(new BigDecimal(montantRestant));
+        return order;
+    }
+
+    @Test
+    void getOverview_mergesEverySection() {
+        ClientOverviewDTO overview = clientOverviewService.getOverview("client-1");
+
+        assertFalse(overview.isPartial());
+        assertEquals("client-1", overview.getClient().getId());
+        assertEquals(1, overview.getRecentOrders().size());
+        assertEquals(2, overview.getOutstandingOrders().size());
+        assertEquals(new BigDecimal("150.50"), overview.getOutstandingBalance());
+        assertEquals(1, overview.getRecentPayments().size());
+        assertTrue(overview.getTimedOutSections().isEmpty());
+    }
+
+    @Test
+    void getOverview_returnsPartialResultsWhenASectionIsSlowOrFails() {
+        when(paymentRepository.findRecentByClientId(eq("client-1"), any(Pageable.class))).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return List.of();
+        });
+        when(orderRepository.findOutstandingSummariesByClientId("client-1")).thenThrow(new IllegalStateException("db down"));
+
+        long start = System.currentTimeMillis();
+        ClientOverviewDTO overview = clientOverviewService.getOverview("client-1");
+
+        assertTrue(System.currentTimeMillis() - start < 2_000);
+        assertTrue(overview.isPartial());
+        assertEquals(List.of("recentPayments"), overview.getTimedOutSections());
+        assertEquals(List.of("outstandingOrders"), overview.getFailedSections());
+        assertNull(overview.getRecentPayments());
+        assertNull(overview.getOutstandingBalance());
+        assertEquals("client-1", overview.getClient().getId());
+        assertEquals(1, overview.getRecentOrders().size());
+    }
+
+    @Test
+    void getOverview_unknownClient() {
+        when(clientService.getClientWithUserById("missing")).thenThrow(new ResourceNotFoundException("Client not found with id: missing"));
+
+        assertThrows(ResourceNotFoundException.class, () -> clientOverviewService.getOverview("missing"));
+    }
+
+    @Test
+    void getOverview_failsWhenTheClientSectionTimesOut() {
+        when(clientService.getClientWithUserById("client-1")).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return new ClientWithUserResponseDTO();
+        });
+
+        long start = System.currentTimeMillis();
+        assertThrows(ServiceUnavailableException.class, () -> clientOverviewService.getOverview("client-1"));
+        assertTrue(System.currentTimeMillis() - start < 2_000);
+    }
+
+    @Test
+    void getOverview_failsWhenTheClientSectionFails() {
+        when(clientService.getClientWithUserById("client-1")).thenThrow(new IllegalStateException("db down"));
+
+        assertThrows(ServiceUnavailableException.class, () -> clientOverviewService.getOverview("client-1"));
+    }
+
+    @Test
+    void getOverview_rejectsWhenThePoolAndQueueAreFull() throws Exception {
+        // one thread and room for four sections: the first overview holds the thread and queues its other three
+        clientOverviewService.shutdown();
+        clientOverviewService = new ClientOverviewServiceImpl(clientService, orderRepository, paymentRepository,
+                orderMapper, paymentMapper, 1, 4, 5_000, 10);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(clientService.getClientWithUserById("slow")).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            throw new ResourceNotFoundException("Client not found with id: slow");
+        });
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            caller.submit(() -> clientOverviewService.getOverview("slow"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            assertThrows(ServiceUnavailableException.class, () -> clientOverviewService.getOverview("client-1"));
+        } finally {
+            release.countDown();
+            caller.shutdownNow();
+        }
+    }
+}
@@ -2,17 +2,27 @@ package com.smartshop;
 
 import com.smartshop.dto.requist.createRequistDto.UserClientRegistrationDTO;
 import com.smartshop.dto.requist.updateRequistDto.ClientUpdateDTO;
+import com.smartshop.dto.response.CursorPageDTO;
 import com.smartshop.dto.response.client.ClientResponseDTO;
 import com.smartshop.dto.response.client.ClientWithUserResponseDTO;
+import com.smartshop.dto.response.client.ClientStatisticsDTO;
+import com.smartshop.dto.response.client.ClientSuggestionDTO;
 import com.smartshop.entity.Client;
+import com.smartshop.entity.ClientStatistics;
 import com.smartshop.entity.User;
 import com.smartshop.enums.ClientTier;
 import com.smartshop.enums.UserRole;
 import com.smartshop.exception.DuplicateResourceException;
 import com.smartshop.exception.ResourceNotFoundException;
+import com.smartshop.exception.ValidationException;
+import com.smartshop.leaderboard.ClientLeaderboard;
 import com.smartshop.mapper.ClientMapper;
+import com.smartshop.pagination.Cursor;
 import com.smartshop.repository.ClientRepository;
+import com.smartshop.repository.ClientStatisticsRepository;
 import com.smartshop.repository.UserRepository;
+import com.smartshop.search.ClientAutocompleteIndex;
+import com.smartshop.security.PasswordHasher;
 import com.smartshop.service.impl.ClientServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,8 +31,14 @@ import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.Collections;
 
@@ -41,6 +57,21 @@ class ClientServiceImplTest {
     @Mock
     private ClientMapper clientMapper;
 
+    @Mock
+    private ClientStatisticsRepository clientStatisticsRepository;
+
+    @Mock
+    private ClientAutocompleteIndex clientAutocompleteIndex;
+
+    @Mock
+    private PasswordHasher passwordHasher;
+
+    @Mock
+    private ClientLeaderboard clientLeaderboard;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private ClientServiceImpl clientService;
 
@@ -82,13 +113,22 @@ class ClientServiceImplTest {
 
         when(userRepository.findByUsername("newuser")).thenReturn(Optional.empty());
         when(clientRepository.findByEmail("new@example.com")).thenReturn(Optional.empty());
+        when(passwordHasher.hash("password")).thenReturn("hashed-password");
         when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(clientMapper.toClientWithUserResponse(any(Client.class))).thenReturn(new ClientWithUserResponseDTO());
 
         assertDoesNotThrow(() -> clientService.create(dto));
+        InOrder inOrder = inOrder(passwordHasher, transactionManager, userRepository);
+        inOrder.verify(passwordHasher).hash("password");
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(userRepository).findByUsername("newuser");
+        inOrder.verify(userRepository).save(argThat(saved -> "hashed-password".equals(saved.getPassword())));
+        inOrder.verify(transactionManager).commit(any());
         verify(userRepository).findByUsername("newuser");
         verify(clientRepository).findByEmail("new@example.com");
         verify(userRepository).save(any(User.class));
+        verify(clientStatisticsRepository).save(argThat(statistics -> statistics.getOrderCount() == 0));
+        verify(clientAutocompleteIndex).index(any(), eq("Nom"), eq("new@example.com"));
     }
 
     @Test
@@ -125,6 +165,45 @@ class ClientServiceImplTest {
         assertEquals(1, result.getTotalElements());
     }
 
+    @Test
+    void testGetClientsByCursor_firstPageHasNext() {
+        Client newer = Client.builder().id("2").nom("Newer").build();
+        newer.setCreatedAt(LocalDateTime.of(2024, 5, 2, 10, 0));
+        client.setCreatedAt(LocalDateTime.of(2024, 5, 1, 10, 0));
+        when(clientRepository.findKeysetFirstPage(PageRequest.of(0, 2))).thenReturn(List.of(newer, client));
+        when(clientMapper.toClientResponse(newer)).thenReturn(new ClientResponseDTO());
+
+        CursorPageDTO<ClientResponseDTO> result = clientService.getClientsByCursor(null, 1, false);
+
+        assertEquals(1, result.getContent().size());
+        assertTrue(result.isHasNext());
+        assertNull(result.getTotalElements());
+        assertEquals(new Cursor(newer.getCreatedAt(), "2"), Cursor.decode(result.getNextCursor()));
+        verify(clientRepository, never()).count();
+    }
+
+    @Test
+    void testGetClientsByCursor_continuesAfterCursor() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 2, 10, 0);
+        String token = new Cursor(createdAt, "2").encode();
+        when(clientRepository.findKeysetPageAfter(createdAt, "2", PageRequest.of(0, 21))).thenReturn(List.of(client));
+        when(clientRepository.count()).thenReturn(2L);
+        when(clientMapper.toClientResponse(client)).thenReturn(new ClientResponseDTO());
+
+        CursorPageDTO<ClientResponseDTO> result = clientService.getClientsByCursor(token, 20, true);
+
+        assertEquals(1, result.getContent().size());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+        assertEquals(2L, result.getTotalElements());
+    }
+
+    @Test
+    void testGetClientsByCursor_invalidCursor() {
+        assertThrows(ValidationException.class, () -> clientService.getClientsByCursor("not-a-cursor", 20, false));
+        verifyNoInteractions(clientRepository);
+    }
+
     @Test
     void testUpdateClientSuccess() {
         ClientUpdateDTO dto = new ClientUpdateDTO();
@@ -136,10 +215,34 @@ class ClientServiceImplTest {
         when(clientRepository.findById("1")).thenReturn(Optional.of(client));
         when(userRepository.findByUsername("updatedUser")).thenReturn(Optional.empty());
         when(clientRepository.findByEmail("update@example.com")).thenReturn(Optional.empty());
+        when(passwordHasher.hash("newPass")).thenReturn("hashed-newPass");
         when(clientRepository.save(any(Client.class))).thenReturn(client);
         when(clientMapper.toClientWithUserResponse(client)).thenReturn(new ClientWithUserResponseDTO());
 
         assertNotNull(clientService.update("1", dto));
+        assertEquals("hashed-newPass", user.getPassword());
+        assertEquals("updatedUser", user.getUsername());
+        assertEquals("update@example.com", client.getEmail());
+        InOrder inOrder = inOrder(passwordHasher, transactionManager, clientRepository);
+        inOrder.verify(passwordHasher).hash("newPass");
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(clientRepository).findById("1");
+        inOrder.verify(clientRepository).save(client);
+    }
+
+    @Test
+    void testUpdateClientWithoutPassword_skipsHashing() {
+        ClientUpdateDTO dto = new ClientUpdateDTO();
+        dto.setNom("New Nom");
+
+        when(clientRepository.findById("1")).thenReturn(Optional.of(client));
+        when(clientRepository.save(any(Client.class))).thenReturn(client);
+        when(clientMapper.toClientWithUserResponse(client)).thenReturn(new ClientWithUserResponseDTO());
+
+        clientService.update("1", dto);
+
+        verifyNoInteractions(passwordHasher);
+        assertEquals("hashed", user.getPassword());
     }
 
     @Test
@@ -161,7 +264,11 @@ class ClientServiceImplTest {
         doNothing().when(clientRepository).delete(client);
 
         assertDoesNotThrow(() -> clientService.delete("1"));
-        verify(clientRepository).delete(client);
+        InOrder inOrder = inOrder(clientStatisticsRepository, clientRepository);
+        inOrder.verify(clientStatisticsRepository).deleteByClientId("1");
+        inOrder.verify(clientRepository).delete(client);
+        verify(clientAutocompleteIndex).remove("1");
+        verify(clientLeaderboard).remove("1");
     }
 
     @Test
@@ -186,5 +293,61 @@ class ClientServiceImplTest {
         when(clientRepository.findById("99")).thenReturn(Optional.empty());
         assertThrows(ResourceNotFoundException.class, () -> clientService.changeTair("99", "gold"));
     }
-}
 
+    @Test
+    void testGetClientStatistics_readsTheAggregateRow() {
+        ClientStatistics statistics = ClientStatistics.builder()
+                .client(client)
+                .clientId("1")
+                .confirmedOrders(4)
+                .confirmedSpent(new BigDecimal("1000.00"))
+                .pendingOrders(1)
+                .pendingBalance(new BigDecimal("120.00"))
+                .firstOrderAt(LocalDateTime.of(2025, 1, 2, 10, 0))
+                .build();
+        statistics.addDailySpend(LocalDate.now().minusDays(40), new BigDecimal("300.00"));
+        statistics.addDailySpend(LocalDate.now(), new BigDecimal("200.00"));
+        when(clientStatisticsRepository.findWithClientByClientId("1")).thenReturn(Optional.of(statistics));
+
+        ClientStatisticsDTO dto = clientService.getClientStatistics("1");
+
+        assertEquals(new BigDecimal("250.00"), dto.getAverageOrderValue());
+        assertEquals(new BigDecimal("120.00"), dto.getPendingBalance());
+        assertEquals(new BigDecimal("200.00"), dto.getSpentLast30Days());
+        assertEquals(new BigDecimal("500.00"), dto.getSpentLast90Days());
+        assertEquals(ClientTier.SILVER, dto.getTier());
+        verifyNoInteractions(clientRepository);
+    }
+
+    @Test
+    void testGetClientStatistics_clientWithoutAggregateRow() {
+        when(clientStatisticsRepository.findWithClientByClientId("1")).thenReturn(Optional.empty());
+        when(clientRepository.findById("1")).thenReturn(Optional.of(client));
+
+        ClientStatisticsDTO dto = clientService.getClientStatistics("1");
+
+        assertEquals(0, dto.getTotalOrders());
+        assertEquals(BigDecimal.ZERO, dto.getSpentLast90Days());
+        assertNull(dto.getLastOrderDate());
+    }
+
+    @Test
+    void testGetClientStatistics_unknownClient() {
+        when(clientStatisticsRepository.findWithClientByClientId("99")).thenReturn(Optional.empty());
+        when(clientRepository.findById("99")).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> clientService.getClientStatistics("99"));
+    }
+
+    @Test
+    void testAutocomplete_clampsTheLimit() {
+        when(clientAutocompleteIndex.suggest("tes", 50)).thenReturn(
+                List.of(new ClientAutocompleteIndex.Suggestion("1", "Test Nom", "test@example.com")));
+
+        List<ClientSuggestionDTO> suggestions = clientService.autocomplete("tes", 500);
+
+        assertEquals(1, suggestions.size());
+        assertEquals("Test Nom", suggestions.get(0).getNom());
+        assertEquals("test@example.com", suggestions.get(0).getEmail());
+    }
+}
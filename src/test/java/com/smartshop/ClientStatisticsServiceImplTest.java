@@ -0,0 +1,164 @@
+package com.smartshop;
+
+import com.smartshop.entity.Client;
+import com.smartshop.entity.ClientStatistics;
+import com.smartshop.entity.Order;
+import com.smartshop.enums.OrderStatus;
+import com.smartshop.repository.ClientRepository;
+import com.smartshop.repository.ClientStatisticsRepository;
+import com.smartshop.repository.OrderRepository;
+import com.smartshop.service.impl.ClientStatisticsServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClientStatisticsServiceImplTest {
+
+    @Mock
+    private ClientStatisticsRepository clientStatisticsRepository;
+    @Mock
+    private ClientRepository clientRepository;
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ClientStatisticsServiceImpl clientStatisticsService;
+    private Client client;
+    private ClientStatistics statistics;
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        clientStatisticsService = new ClientStatisticsServiceImpl(clientStatisticsRepository, clientRepository,
+                orderRepository, transactionManager, 2);
+        client = Client.builder().id("client-1").nom("Client").email("client@smartshop.ma").build();
+        statistics = ClientStatistics.builder().clientId("client-1").client(client).build();
+        order = Order.builder()
+                .id("order-1")
+                .client(client)
+                .statut(OrderStatus.PENDING)
+                .totalTTC(new BigDecimal("120.00"))
+                .montantRestant(new BigDecimal("120.00"))
+                .build();
+    }
+
+    @Test
+    void orderLifecycle_movesPendingBalanceIntoConfirmedSpend() {
+        when(clientStatisticsRepository.findByClientIdForUpdate("client-1")).thenReturn(Optional.of(statistics));
+
+        clientStatisticsService.recordOrderPlaced(order);
+        clientStatisticsService.recordPayment(order, new BigDecimal("120.00"));
+        order.setMontantRestant(BigDecimal.ZERO);
+        order.setStatut(OrderStatus.CONFIRMED);
+        order.setDateValidation(LocalDateTime.now());
+        clientStatisticsService.recordOrderConfirmed(order);
+
+        assertEquals(1, statistics.getOrderCount());
+        assertEquals(0, statistics.getPendingOrders());
+        assertEquals(0, BigDecimal.ZERO.compareTo(statistics.getPendingBalance()));
+        assertEquals(1, statistics.getConfirmedOrders());
+        assertEquals(new BigDecimal("120.00"), statistics.getConfirmedSpent());
+        assertEquals(new BigDecimal("120.00"), statistics.spendOverLastDays(LocalDate.now(), 30));
+        assertNotNull(statistics.getFirstOrderAt());
+        verify(clientStatisticsRepository, times(3)).save(statistics);
+    }
+
+    @Test
+    void recordOrderPlaced_insertsAMissingRowBeforeLockingIt() {
+        when(clientStatisticsRepository.findByClientIdForUpdate("client-1"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(statistics));
+
+        clientStatisticsService.recordOrderPlaced(order);
+
+        InOrder inOrder = inOrder(clientStatisticsRepository);
+        inOrder.verify(clientStatisticsRepository).findByClientIdForUpdate("client-1");
+        inOrder.verify(clientStatisticsRepository).insertIfAbsent(eq("client-1"), anyLong(), eq(ClientStatistics.WINDOW_DAYS));
+        inOrder.verify(clientStatisticsRepository).findByClientIdForUpdate("client-1");
+        inOrder.verify(clientStatisticsRepository).save(statistics);
+        assertEquals(1, statistics.getOrderCount());
+    }
+
+    @Test
+    void recordOrderCancelled_dropsTheRemainingBalance() {
+        statistics.setPendingOrders(1);
+        statistics.setPendingBalance(new BigDecimal("120.00"));
+        when(clientStatisticsRepository.findByClientIdForUpdate("client-1")).thenReturn(Optional.of(statistics));
+
+        clientStatisticsService.recordOrderCancelled(order);
+
+        assertEquals(0, statistics.getPendingOrders());
+        assertEquals(1, statistics.getCancelledOrders());
+        assertEquals(0, BigDecimal.ZERO.compareTo(statistics.getPendingBalance()));
+    }
+
+    @Test
+    void recordPayment_ignoresOrdersThatAreNoLongerPending() {
+        order.setStatut(OrderStatus.CONFIRMED);
+
+        clientStatisticsService.recordPayment(order, BigDecimal.TEN);
+
+        verifyNoInteractions(clientStatisticsRepository);
+    }
+
+    @Test
+    void dailySpend_rollsOffDaysOutsideTheWindow() {
+        LocalDate today = LocalDate.now();
+        statistics.addDailySpend(today.minusDays(100), new BigDecimal("999.00"));
+        statistics.addDailySpend(today.minusDays(60), new BigDecimal("50.00"));
+        statistics.addDailySpend(today.minusDays(10), new BigDecimal("20.00"));
+
+        assertEquals(new BigDecimal("20.00"), statistics.spendOverLastDays(today, 30));
+        assertEquals(new BigDecimal("70.00"), statistics.spendOverLastDays(today, 90));
+        assertEquals(new BigDecimal("20.00"), statistics.spendOverLastDays(today.plusDays(40), 90));
+
+        statistics.addDailySpend(today.plusDays(200), new BigDecimal("5.00"));
+        assertEquals(new BigDecimal("5.00"), statistics.spendOverLastDays(today.plusDays(200), 90));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuildAll_recomputesEachChunkFromCommandes() {
+        LocalDateTime now = LocalDateTime.now();
+        when(clientRepository.findIdsAfter(eq(""), any(Pageable.class))).thenReturn(List.of("client-1", "client-2"));
+        when(clientRepository.findIdsAfter(eq("client-2"), any(Pageable.class))).thenReturn(List.of());
+        when(clientStatisticsRepository.findAllByClientIdInForUpdate(anyCollection())).thenReturn(List.of(statistics));
+        when(clientRepository.getReferenceById("client-2")).thenReturn(Client.builder().id("client-2").build());
+        when(orderRepository.aggregateByClientIds(anyCollection())).thenReturn(List.<Object[]>of(
+                new Object[]{"client-1", 3L, 2L, 0L, 1L, new BigDecimal("300.00"), new BigDecimal("40.00"),
+                        now.minusDays(200), now}));
+        when(orderRepository.findConfirmedSpendSince(anyCollection(), any(LocalDateTime.class))).thenReturn(List.<Object[]>of(
+                new Object[]{"client-1", now.minusDays(5), new BigDecimal("100.00")}));
+
+        long rebuilt = clientStatisticsService.rebuildAll();
+
+        assertEquals(2, rebuilt);
+        ArgumentCaptor<List<ClientStatistics>> saved = ArgumentCaptor.forClass(List.class);
+        verify(clientStatisticsRepository).saveAll(saved.capture());
+        ClientStatistics first = saved.getValue().get(0);
+        assertEquals(3, first.getOrderCount());
+        assertEquals(new BigDecimal("40.00"), first.getPendingBalance());
+        assertEquals(new BigDecimal("100.00"), first.spendOverLastDays(LocalDate.now(), 30));
+        ClientStatistics second = saved.getValue().get(1);
+        assertEquals(0, second.getOrderCount());
+        assertNull(second.getFirstOrderAt());
+    }
+}
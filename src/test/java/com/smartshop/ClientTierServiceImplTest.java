@@ -0,0 +1,179 @@
+package com.smartshop;
+
+import com.smartshop.dto.response.client.TierRecomputeReportDTO;
+import com.smartshop.enums.ClientTier;
+import com.smartshop.exception.BusinessException;
+import com.smartshop.leaderboard.ClientLeaderboard;
+import com.smartshop.service.impl.ClientTierServiceImpl;
+import com.smartshop.tier.ClientTierRules;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClientTierServiceImplTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private ClientLeaderboard clientLeaderboard;
+
+    private ClientTierRules clientTierRules;
+    private ClientTierServiceImpl clientTierService;
+
+    @BeforeEach
+    void setUp() {
+        clientTierRules = new ClientTierRules(3, new BigDecimal("1000"), 10, new BigDecimal("5000"),
+                20, new BigDecimal("15000"));
+        clientTierService = new ClientTierServiceImpl(jdbcTemplate, transactionManager, clientTierRules, clientLeaderboard, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        clientTierService.shutdown();
+    }
+
+    private static ResultSet row(String id, ClientTier tier, int totalOrders, String totalSpent) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString("id")).thenReturn(id);
+        when(rs.getString("tier")).thenReturn(tier.name());
+        when(rs.getInt("total_orders")).thenReturn(totalOrders);
+        when(rs.getBigDecimal("total_spent")).thenReturn(new BigDecimal(totalSpent));
+        return rs;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubChunks(List<List<ResultSet>> chunks) {
+        int[] call = {0};
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), anyString(), eq(2))).thenAnswer(invocation -> {
+            RowMapper<Object> mapper = invocation.getArgument(1);
+            List<Object> mapped = new ArrayList<>();
+            for (ResultSet rs : chunks.get(call[0]++)) {
+                mapped.add(mapper.mapRow(rs, mapped.size()));
+            }
+            return mapped;
+        });
+    }
+
+    @Test
+    void evaluate_highestTierReachedByOrdersOrSpendingWins() {
+        assertEquals(ClientTier.BASIC, clientTierRules.evaluate(2, new BigDecimal("999.99")));
+        assertEquals(ClientTier.SILVER, clientTierRules.evaluate(3, BigDecimal.ZERO));
+        assertEquals(ClientTier.GOLD, clientTierRules.evaluate(0, new BigDecimal("5000")));
+        assertEquals(ClientTier.PLATINUM, clientTierRules.evaluate(20, new BigDecimal("10")));
+        assertThrows(IllegalArgumentException.class, () -> new ClientTierRules(
+                10, new BigDecimal("1000"), 3, new BigDecimal("5000"), 20, new BigDecimal("15000")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recomputeAll_walksChunksByIdAndWritesOnlyChangedTiers() throws Exception {
+        stubChunks(List.of(
+                List.of(row("c-1", ClientTier.BASIC, 0, "0"), row("c-2", ClientTier.BASIC, 12, "100")),
+                List.of(row("c-3", ClientTier.GOLD, 2, "200"))));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1}, new int[]{0});
+
+        TierRecomputeReportDTO report = clientTierService.recomputeAll();
+
+        assertEquals(3, report.getScanned());
+        assertEquals(1, report.getUpdated());
+        assertEquals(1, report.getSkippedConcurrentlyModified());
+        assertEquals(2, report.getChunks());
+        assertFalse(report.isRunning());
+        assertNotNull(report.getFinishedAt());
+
+        verify(jdbcTemplate).query(anyString(), any(RowMapper.class), eq(""), eq(2));
+        verify(jdbcTemplate).query(anyString(), any(RowMapper.class), eq("c-2"), eq(2));
+        ArgumentCaptor<List<Object[]>> batches = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), batches.capture());
+        Object[] first = batches.getAllValues().get(0).get(0);
+        assertEquals("GOLD", first[0]);
+        assertEquals("c-2", first[2]);
+        assertEquals("BASIC", first[3]);
+        Object[] downgrade = batches.getAllValues().get(1).get(0);
+        assertEquals("BASIC", downgrade[0]);
+        assertEquals("c-3", downgrade[2]);
+        verify(clientLeaderboard).updateTier("c-2", ClientTier.GOLD);
+        verify(clientLeaderboard, never()).updateTier(eq("c-3"), any());
+    }
+
+    @Test
+    void recomputeAll_skipsTheBatchWhenNothingChanged() throws Exception {
+        stubChunks(List.of(List.of(row("c-1", ClientTier.SILVER, 3, "0"))));
+
+        TierRecomputeReportDTO report = clientTierService.recomputeAll();
+
+        assertEquals(1, report.getScanned());
+        assertEquals(0, report.getUpdated());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        assertEquals(report.getScanned(), clientTierService.getProgress().getScanned());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void startRecompute_returnsAtOnceAndKeepsTheLastReport() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ResultSet client = row("c-1", ClientTier.SILVER, 3, "0");
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), anyString(), eq(2))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            RowMapper<Object> mapper = invocation.getArgument(1);
+            return List.of(mapper.mapRow(client, 0));
+        });
+
+        TierRecomputeReportDTO started = clientTierService.startRecompute();
+
+        assertTrue(started.isRunning());
+        assertNotNull(started.getStartedAt());
+        assertThrows(BusinessException.class, () -> clientTierService.startRecompute());
+        release.countDown();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        TierRecomputeReportDTO report = clientTierService.getProgress();
+        while (report.isRunning() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            report = clientTierService.getProgress();
+        }
+        assertFalse(report.isRunning());
+        assertEquals(1, report.getScanned());
+        assertNotNull(report.getFinishedAt());
+        assertNull(report.getError());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void startRecompute_reportsTheFailureOfTheBackgroundRun() throws Exception {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), anyString(), eq(2)))
+                .thenThrow(new IllegalStateException("connection refused"));
+
+        clientTierService.startRecompute();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        TierRecomputeReportDTO report = clientTierService.getProgress();
+        while (report.isRunning() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            report = clientTierService.getProgress();
+        }
+        assertFalse(report.isRunning());
+        assertEquals("connection refused", report.getError());
+    }
+}
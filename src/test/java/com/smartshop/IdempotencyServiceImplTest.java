@@ -0,0 +1,219 @@
+package com.smartshop;
+
+import com.smartshop.dto.response.order.OrderResponseDTO;
+import com.smartshop.entity.IdempotencyRecord;
+import com.smartshop.enums.IdempotencyStatus;
+import com.smartshop.exception.BusinessException;
+import com.smartshop.exception.DuplicateResourceException;
+import com.smartshop.repository.IdempotencyRecordRepository;
+import com.smartshop.service.impl.IdempotencyServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class IdempotencyServiceImplTest {
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private IdempotencyServiceImpl idempotencyService;
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyServiceImpl(idempotencyRecordRepository, JsonMapper.builder().build(),
+                transactionManager, 100, 5000, 24, 60_000);
+
+        when(idempotencyRecordRepository.findById(anyString())).thenReturn(Optional.empty());
+        when(idempotencyRecordRepository.saveAndFlush(any(IdempotencyRecord.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(idempotencyRecordRepository.save(any(IdempotencyRecord.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private OrderResponseDTO createOrder() {
+        executions.incrementAndGet();
+        return OrderResponseDTO.builder().id("order-" + executions.get()).totalTTC(new BigDecimal("120.00")).build();
+    }
+
+    @Test
+    void execute_withoutKey_alwaysRunsAction() {
+        idempotencyService.execute("POST /api/orders", null, Map.of("clientId", "c1"), OrderResponseDTO.class, this::createOrder);
+        idempotencyService.execute("POST /api/orders", null, Map.of("clientId", "c1"), OrderResponseDTO.class, this::createOrder);
+
+        assertEquals(2, executions.get());
+        verifyNoInteractions(idempotencyRecordRepository);
+    }
+
+    @Test
+    void execute_replaysStoredResponseWithoutRunningActionAgain() {
+        OrderResponseDTO first = idempotencyService.execute("POST /api/orders", "key-1", Map.of("clientId", "c1"),
+                OrderResponseDTO.class, this::createOrder);
+        OrderResponseDTO replay = idempotencyService.execute("POST /api/orders", "key-1", Map.of("clientId", "c1"),
+                OrderResponseDTO.class, this::createOrder);
+
+        assertEquals(1, executions.get());
+        assertEquals(first, replay);
+        verify(idempotencyRecordRepository, times(1)).saveAndFlush(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    void execute_rejectsKeyReuseWithDifferentPayload() {
+        idempotencyService.execute("POST /api/orders", "key-1", Map.of("clientId", "c1"), OrderResponseDTO.class, this::createOrder);
+
+        assertThrows(BusinessException.class, () -> idempotencyService.execute("POST /api/orders", "key-1",
+                Map.of("clientId", "c2"), OrderResponseDTO.class, this::createOrder));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_concurrentDuplicatesWaitForFirstRequest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<OrderResponseDTO> first = executor.submit(() -> idempotencyService.execute("POST /api/orders", "key-1",
+                    Map.of("clientId", "c1"), OrderResponseDTO.class, () -> {
+                        started.countDown();
+                        await(release);
+                        return createOrder();
+                    }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            Future<OrderResponseDTO> duplicate = executor.submit(() -> idempotencyService.execute("POST /api/orders", "key-1",
+                    Map.of("clientId", "c1"), OrderResponseDTO.class, this::createOrder));
+
+            Thread.sleep(100);
+            assertFalse(duplicate.isDone());
+            release.countDown();
+
+            assertEquals(first.get(5, TimeUnit.SECONDS), duplicate.get(5, TimeUnit.SECONDS));
+            assertEquals(1, executions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_failedAttemptCanBeRetried() {
+        assertThrows(BusinessException.class, () -> idempotencyService.execute("POST /api/orders", "key-1",
+                Map.of("clientId", "c1"), OrderResponseDTO.class, () -> {
+                    throw new BusinessException("Insufficient stock");
+                }));
+
+        verify(idempotencyRecordRepository).deleteInProgress(eq("POST /api/orders:key-1"), any());
+
+        OrderResponseDTO retried = idempotencyService.execute("POST /api/orders", "key-1", Map.of("clientId", "c1"),
+                OrderResponseDTO.class, this::createOrder);
+
+        assertNotNull(retried);
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_recordsCompletionInsideTheActionTransaction() {
+        idempotencyService.execute("POST /api/orders", "key-1", Map.of("clientId", "c1"), OrderResponseDTO.class, this::createOrder);
+
+        InOrder inOrder = inOrder(transactionManager, idempotencyRecordRepository);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(idempotencyRecordRepository).save(argThat(r -> r.getStatut() == IdempotencyStatus.COMPLETED));
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void execute_failedCommitReleasesTheKey() {
+        doThrow(new TransactionSystemException("commit failed")).when(transactionManager).commit(any());
+
+        assertThrows(TransactionSystemException.class, () -> idempotencyService.execute("POST /api/orders", "key-1",
+                Map.of("clientId", "c1"), OrderResponseDTO.class, this::createOrder));
+
+        verify(idempotencyRecordRepository).deleteInProgress(eq("POST /api/orders:key-1"), any());
+    }
+
+    @Test
+    void execute_rejectsAKeyWhoseLeaseIsStillLive() {
+        when(idempotencyRecordRepository.findById("POST /api/orders:key-1"))
+                .thenReturn(Optional.of(inProgress(LocalDateTime.now().plusSeconds(30))));
+
+        assertThrows(DuplicateResourceException.class, () -> idempotencyService.execute("POST /api/orders", "key-1",
+                Map.of("clientId", "c1"), OrderResponseDTO.class, this::createOrder));
+        assertEquals(0, executions.get());
+        verify(idempotencyRecordRepository, never()).takeOver(anyString(), any(), any());
+    }
+
+    @Test
+    void execute_takesOverAnAbandonedKey() {
+        IdempotencyRecord abandoned = inProgress(LocalDateTime.now().minusSeconds(1));
+        IdempotencyRecord claimed = inProgress(LocalDateTime.now().plusSeconds(60));
+        claimed.setVersion(1L);
+        when(idempotencyRecordRepository.findById("POST /api/orders:key-1"))
+                .thenReturn(Optional.of(abandoned))
+                .thenReturn(Optional.of(claimed));
+        when(idempotencyRecordRepository.takeOver(eq("POST /api/orders:key-1"), eq(0L), any())).thenReturn(1);
+
+        OrderResponseDTO response = idempotencyService.execute("POST /api/orders", "key-1", Map.of("clientId", "c1"),
+                OrderResponseDTO.class, this::createOrder);
+
+        assertNotNull(response);
+        assertEquals(1, executions.get());
+        assertEquals(IdempotencyStatus.COMPLETED, claimed.getStatut());
+        verify(idempotencyRecordRepository, never()).saveAndFlush(any(IdempotencyRecord.class));
+    }
+
+    private static IdempotencyRecord inProgress(LocalDateTime leaseExpiresAt) {
+        return IdempotencyRecord.builder()
+                .id("POST /api/orders:key-1")
+                .scope("POST /api/orders")
+                .idempotencyKey("key-1")
+                .requestHash(sha256("{\"clientId\":\"c1\"}"))
+                .statut(IdempotencyStatus.IN_PROGRESS)
+                .leaseExpiresAt(leaseExpiresAt)
+                .version(0L)
+                .build();
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
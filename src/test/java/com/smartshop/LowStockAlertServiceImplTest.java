@@ -0,0 +1,181 @@
+package com.smartshop;
+
+import com.smartshop.dto.response.product.LowStockAlertDTO;
+import com.smartshop.repository.ProductRepository;
+import com.smartshop.repository.projection.ProductStockLevelView;
+import com.smartshop.service.impl.LowStockAlertServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LowStockAlertServiceImplTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private final Deque<SseEmitter> nextEmitters = new ArrayDeque<>();
+
+    private LowStockAlertServiceImpl lowStockAlertService;
+
+    @BeforeEach
+    void setUp() {
+        lowStockAlertService = new LowStockAlertServiceImpl(productRepository, 3, 60_000) {
+            @Override
+            protected SseEmitter createEmitter(long timeoutMs) {
+                SseEmitter emitter = nextEmitters.poll();
+                return emitter != null ? emitter : super.createEmitter(timeoutMs);
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        lowStockAlertService.shutdown();
+    }
+
+    private static ProductStockLevelView level(String id, int available, int threshold) {
+        return new ProductStockLevelView() {
+            public String getId() { return id; }
+            public String getNom() { return "Produit " + id; }
+            public Integer getStockDisponible() { return available + 1; }
+            public Integer getAvailableStock() { return available; }
+            public Integer getReorderThreshold() { return threshold; }
+        };
+    }
+
+    @Test
+    void checkThresholds_alertsOnlyWhenTheDecrementCrossedTheThreshold() {
+        // p-1 went 12 -> 8 (threshold 10), p-2 was already below before this decrement (6 -> 4)
+        when(productRepository.findAtOrBelowReorderThreshold(anyCollection()))
+                .thenReturn(List.of(level("p-1", 8, 10), level("p-2", 4, 10)));
+
+        lowStockAlertService.checkThresholds(Map.of("p-1", 4, "p-2", 2, "p-3", 1));
+
+        List<LowStockAlertDTO> alerts = lowStockAlertService.getRecentAlerts(null);
+        assertEquals(1, alerts.size());
+        assertEquals("p-1", alerts.get(0).getProductId());
+        assertEquals(1, alerts.get(0).getSequence());
+    }
+
+    @Test
+    void checkThresholds_skipsTheQueryWhenNothingWasDecremented() {
+        lowStockAlertService.checkThresholds(Map.of());
+
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void getRecentAlerts_replaysFromTheBoundedBufferAfterTheGivenSequence() {
+        for (int i = 1; i <= 5; i++) {
+            when(productRepository.findAtOrBelowReorderThreshold(anyCollection()))
+                    .thenReturn(List.of(level("p-" + i, 0, 5)));
+            lowStockAlertService.checkThresholds(Map.of("p-" + i, 10));
+        }
+
+        assertEquals(List.of(3L, 4L, 5L),
+                lowStockAlertService.getRecentAlerts(null).stream().map(LowStockAlertDTO::getSequence).toList());
+        assertEquals(List.of(5L),
+                lowStockAlertService.getRecentAlerts(4L).stream().map(LowStockAlertDTO::getSequence).toList());
+    }
+
+    @Test
+    void checkThresholds_comparesAvailableStockRatherThanStockOnHand() {
+        // 20 on hand but 12 reserved: the reservation of 3 took the available stock from 11 to 8
+        when(productRepository.findAtOrBelowReorderThreshold(anyCollection())).thenReturn(List.of(level("p-1", 8, 10)));
+
+        lowStockAlertService.checkThresholds(Map.of("p-1", 3));
+
+        LowStockAlertDTO alert = lowStockAlertService.getRecentAlerts(null).get(0);
+        assertEquals(8, alert.getAvailableStock());
+        assertEquals(9, alert.getStockDisponible());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void subscribe_registersAnEmitterThatReceivesLaterAlerts() throws Exception {
+        SseEmitter emitter = mock(SseEmitter.class);
+        nextEmitters.add(emitter);
+        assertSame(emitter, lowStockAlertService.subscribe(0L));
+        when(productRepository.findAtOrBelowReorderThreshold(anyCollection())).thenReturn(List.of(level("p-1", 2, 5)));
+
+        lowStockAlertService.checkThresholds(Map.of("p-1", 5));
+
+        ArgumentCaptor<SseEmitter.SseEventBuilder> event = ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+        verify(emitter, timeout(1_000)).send(event.capture());
+        LowStockAlertDTO sent = event.getValue().build().stream()
+                .map(part -> part.getData())
+                .filter(LowStockAlertDTO.class::isInstance)
+                .map(LowStockAlertDTO.class::cast)
+                .findFirst()
+                .orElseThrow();
+        assertEquals("p-1", sent.getProductId());
+        assertEquals(1, sent.getSequence());
+    }
+
+    @Test
+    void publish_doesNotHoldTheLockWhileASubscriberIsSlow() throws Exception {
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SseEmitter slow = mock(SseEmitter.class);
+        doAnswer(invocation -> {
+            sending.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(slow).send(any(SseEmitter.SseEventBuilder.class));
+        nextEmitters.add(slow);
+        lowStockAlertService.subscribe(0L);
+        when(productRepository.findAtOrBelowReorderThreshold(anyCollection())).thenReturn(List.of(level("p-1", 2, 5)));
+
+        lowStockAlertService.checkThresholds(Map.of("p-1", 5));
+        assertTrue(sending.await(1, TimeUnit.SECONDS));
+
+        try {
+            // the delivery thread is stuck in send; readers and new publishers still get the lock
+            assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+                lowStockAlertService.checkThresholds(Map.of("p-1", 5));
+                assertEquals(2, lowStockAlertService.getRecentAlerts(null).size());
+            });
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void publish_dropsASubscriberWhoseSendFails() throws Exception {
+        SseEmitter broken = mock(SseEmitter.class);
+        doThrow(new IOException("Broken pipe")).when(broken).send(any(SseEmitter.SseEventBuilder.class));
+        SseEmitter healthy = mock(SseEmitter.class);
+        nextEmitters.add(broken);
+        nextEmitters.add(healthy);
+        lowStockAlertService.subscribe(0L);
+        lowStockAlertService.subscribe(0L);
+        when(productRepository.findAtOrBelowReorderThreshold(anyCollection())).thenReturn(List.of(level("p-1", 2, 5)));
+
+        lowStockAlertService.checkThresholds(Map.of("p-1", 5));
+        // deliveries run in subscription order, so once the healthy emitter has its alert the broken one is gone
+        verify(healthy, timeout(1_000)).send(any(SseEmitter.SseEventBuilder.class));
+        lowStockAlertService.checkThresholds(Map.of("p-1", 5));
+
+        verify(healthy, timeout(1_000).times(2)).send(any(SseEmitter.SseEventBuilder.class));
+        verify(broken, times(1)).send(any(SseEmitter.SseEventBuilder.class));
+    }
+}
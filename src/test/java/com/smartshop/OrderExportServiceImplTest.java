@@ -0,0 +1,145 @@
+package com.smartshop;
+
+import com.smartshop.dto.response.order.OrderAdvancedResponseDTO;
+import com.smartshop.entity.*;
+import com.smartshop.enums.ExportFormat;
+import com.smartshop.enums.OrderStatus;
+import com.smartshop.exception.ValidationException;
+import com.smartshop.mapper.OrderMapper;
+import com.smartshop.repository.OrderRepository;
+import com.smartshop.repository.PaymentRepository;
+import com.smartshop.service.impl.OrderExportServiceImpl;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderExportServiceImplTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 5, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2024, 6, 1, 0, 0);
+
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private PaymentRepository paymentRepository;
+    @Mock
+    private OrderMapper orderMapper;
+    @Mock
+    private EntityManager entityManager;
+
+    private OrderExportServiceImpl orderExportService;
+
+    @BeforeEach
+    void setUp() {
+        orderExportService = new OrderExportServiceImpl(orderRepository, paymentRepository, orderMapper,
+                JsonMapper.builder().build(), entityManager, 2);
+    }
+
+    private Order order(String id) {
+        Order order = new Order();
+        order.setId(id);
+        order.setStatut(OrderStatus.CONFIRMED);
+        order.setTotalTTC(new BigDecimal("120.00"));
+        return order;
+    }
+
+    private OrderAdvancedResponseDTO dto(String id, List<OrderAdvancedResponseDTO.OrderItemResponseDTO> items) {
+        return OrderAdvancedResponseDTO.builder()
+                .id(id)
+                .client(OrderAdvancedResponseDTO.ClientSummaryDTO.builder().id("client-1").nom("Dupont, Jean").build())
+                .statut(OrderStatus.CONFIRMED)
+                .totalTTC(new BigDecimal("120.00"))
+                .items(items)
+                .paiements(List.of())
+                .build();
+    }
+
+    @Test
+    void exportOrders_ndjsonWritesOneLinePerOrderAndClearsEachChunk() {
+        when(orderRepository.streamByCreatedAtRange(FROM, TO))
+                .thenReturn(Stream.of(order("o-1"), order("o-2"), order("o-3")));
+        when(orderRepository.findItemsWithProduitByOrderIds(anyCollection())).thenReturn(List.of());
+        when(paymentRepository.findByOrderIdIn(anyCollection())).thenReturn(List.of());
+        when(orderMapper.toExportDTO(any(Order.class), anyList(), anyList()))
+                .thenAnswer(invocation -> dto(invocation.<Order>getArgument(0).getId(), List.of()));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = orderExportService.exportOrders(FROM, TO, ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, exported);
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].contains("\"id\":\"o-1\""));
+        verify(orderRepository).findItemsWithProduitByOrderIds(List.of("o-1", "o-2"));
+        verify(orderRepository).findItemsWithProduitByOrderIds(List.of("o-3"));
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void exportOrders_csvWritesOneRowPerLineWithEscaping() {
+        Order order = order("o-1");
+        Payment payment = Payment.builder().id("pay-1").order(order).montant(new BigDecimal("50.00")).build();
+        when(orderRepository.streamByCreatedAtRange(FROM, TO)).thenReturn(Stream.of(order));
+        when(orderRepository.findItemsWithProduitByOrderIds(anyCollection())).thenReturn(List.of());
+        when(paymentRepository.findByOrderIdIn(anyCollection())).thenReturn(List.of(payment));
+
+        OrderAdvancedResponseDTO dto = dto("o-1", List.of(
+                new OrderAdvancedResponseDTO.OrderItemResponseDTO("p-1", "Produit 1", 2, new BigDecimal("50.00"), new BigDecimal("100.00")),
+                new OrderAdvancedResponseDTO.OrderItemResponseDTO("p-2", "Produit \"2\"", 1, new BigDecimal("20.00"), new BigDecimal("20.00"))));
+        dto.setPaiements(List.of(OrderAdvancedResponseDTO.PaymentSummaryDTO.builder().montant(new BigDecimal("50.00")).build()));
+        when(orderMapper.toExportDTO(eq(order), eq(List.of()), eq(List.of(payment)))).thenReturn(dto);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        orderExportService.exportOrders(FROM, TO, ExportFormat.CSV, out);
+
+        String[] rows = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, rows.length);
+        assertTrue(rows[0].startsWith("orderId,"));
+        assertTrue(rows[1].startsWith("o-1,,client-1,\"Dupont, Jean\",CONFIRMED,120.00,,1,50.00,p-1,"));
+        assertTrue(rows[2].contains(",\"Produit \"\"2\"\"\","));
+    }
+
+    @Test
+    void exportOrders_csvQuotesFieldsWithLineBreaks() {
+        Order order = order("o-1");
+        when(orderRepository.streamByCreatedAtRange(FROM, TO)).thenReturn(Stream.of(order));
+        when(orderRepository.findItemsWithProduitByOrderIds(anyCollection())).thenReturn(List.of());
+        when(paymentRepository.findByOrderIdIn(anyCollection())).thenReturn(List.of());
+
+        OrderAdvancedResponseDTO dto = dto("o-1", List.of(
+                new OrderAdvancedResponseDTO.OrderItemResponseDTO("p-1", "Clavier\rAZERTY", 1, new BigDecimal("50.00"), new BigDecimal("50.00")),
+                new OrderAdvancedResponseDTO.OrderItemResponseDTO("p-2", "Souris\r\nsans fil", 1, new BigDecimal("20.00"), new BigDecimal("20.00"))));
+        dto.setPaiements(List.of());
+        when(orderMapper.toExportDTO(eq(order), eq(List.of()), eq(List.of()))).thenReturn(dto);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        orderExportService.exportOrders(FROM, TO, ExportFormat.CSV, out);
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertTrue(csv.contains(",p-1,\"Clavier\rAZERTY\",1,"));
+        assertTrue(csv.contains(",p-2,\"Souris\r\nsans fil\",1,"));
+    }
+
+    @Test
+    void exportOrders_rejectsInvertedRange() {
+        assertThrows(ValidationException.class,
+                () -> orderExportService.exportOrders(TO, FROM, ExportFormat.NDJSON, new ByteArrayOutputStream()));
+        verifyNoInteractions(orderRepository);
+    }
+}
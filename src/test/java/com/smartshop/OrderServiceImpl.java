@@ -1,20 +1,30 @@
 package com.smartshop;
 
+import com.smartshop.cache.ProductCache;
 import com.smartshop.dto.requist.createRequistDto.OrderCreateDTO;
 import com.smartshop.dto.requist.updateRequistDto.OrderUpdateDTO;
 import com.smartshop.dto.response.order.OrderAdvancedResponseDTO;
 import com.smartshop.dto.response.order.OrderResponseDTO;
+import com.smartshop.dto.response.order.OrderStatisticsDTO;
 import com.smartshop.entity.*;
 import com.smartshop.enums.ClientTier;
 import com.smartshop.enums.OrderStatus;
 import com.smartshop.exception.BusinessException;
 import com.smartshop.exception.ResourceNotFoundException;
+import com.smartshop.leaderboard.ClientLeaderboard;
 import com.smartshop.mapper.OrderMapper;
+import com.smartshop.repository.CatalogVersionRepository;
 import com.smartshop.repository.ClientRepository;
 import com.smartshop.repository.OrderRepository;
+import com.smartshop.repository.OrderStatusCounterRepository;
 import com.smartshop.repository.ProductRepository;
 import com.smartshop.repository.PromoCodeRepository;
+import com.smartshop.repository.projection.OrderSummaryView;
+import com.smartshop.service.ClientStatisticsService;
+import com.smartshop.service.LowStockAlertService;
+import com.smartshop.service.StockReservationService;
 import com.smartshop.service.impl.OrderServiceImpl;
+import com.smartshop.tier.ClientTierRules;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -40,9 +50,26 @@ class OrderServiceImplTest {
     @Mock
     private ProductRepository productRepository;
     @Mock
+    private CatalogVersionRepository catalogVersionRepository;
+    @Mock
     private ClientRepository clientRepository;
     @Mock
     private PromoCodeRepository promoCodeRepository;
+    @Mock
+    private StockReservationService stockReservationService;
+    @Mock
+    private OrderStatusCounterRepository orderStatusCounterRepository;
+    @Mock
+    private ProductCache productCache;
+    @Mock
+    private LowStockAlertService lowStockAlertService;
+    @Mock
+    private ClientStatisticsService clientStatisticsService;
+    @Mock
+    private ClientLeaderboard clientLeaderboard;
+    @Spy
+    private ClientTierRules clientTierRules = new ClientTierRules(
+            3, new BigDecimal("1000"), 10, new BigDecimal("5000"), 20, new BigDecimal("15000"));
 
     @InjectMocks
     private OrderServiceImpl orderService;
@@ -118,7 +145,7 @@ class OrderServiceImplTest {
         dto.setCodePromo(null);
 
         when(clientRepository.findById("client-1")).thenReturn(Optional.of(client));
-        when(productRepository.findById("prod-1")).thenReturn(Optional.of(product));
+        when(productRepository.findAllById(anyCollection())).thenReturn(List.of(product));
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
             Order o = invocation.getArgument(0);
             o.setId("order-1");
@@ -130,9 +157,9 @@ class OrderServiceImplTest {
 
         assertNotNull(response);
         verify(clientRepository).findById("client-1");
-        verify(productRepository).findById("prod-1");
+        verify(productRepository).findAllById(Set.of("prod-1"));
         verify(orderRepository).save(any(Order.class));
-        verify(productRepository, atLeastOnce()).save(any(Product.class)); // décrément stock
+        verify(stockReservationService).reserve(any(Order.class)); // réservation du stock
     }
 
     @Test
@@ -147,7 +174,7 @@ class OrderServiceImplTest {
         dto.setCodePromo("PROMO10");
 
         when(clientRepository.findById("client-1")).thenReturn(Optional.of(client));
-        when(productRepository.findById("prod-1")).thenReturn(Optional.of(product));
+        when(productRepository.findAllById(anyCollection())).thenReturn(List.of(product));
         when(promoCodeRepository.findByCode("PROMO10")).thenReturn(Optional.of(promoCode));
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(orderMapper.toSimpleDTO(any(Order.class))).thenReturn(new OrderResponseDTO());
@@ -181,11 +208,27 @@ class OrderServiceImplTest {
         dto.setItems(Collections.singletonList(itemDTO));
 
         when(clientRepository.findById("client-1")).thenReturn(Optional.of(client));
-        when(productRepository.findById("missing")).thenReturn(Optional.empty());
+        when(productRepository.findAllById(anyCollection())).thenReturn(Collections.emptyList());
 
         assertThrows(ResourceNotFoundException.class, () -> orderService.createOrder(dto));
     }
 
+    @Test
+    void createOrder_reservedStockIsNotAvailable() {
+        product.setStockDisponible(5);
+        product.setStockReserve(4);
+
+        OrderCreateDTO dto = new OrderCreateDTO();
+        dto.setClientId("client-1");
+        dto.setItems(Collections.singletonList(new OrderCreateDTO.OrderItemCreateDTO("prod-1", 2)));
+
+        when(clientRepository.findById("client-1")).thenReturn(Optional.of(client));
+        when(productRepository.findAllById(anyCollection())).thenReturn(List.of(product));
+
+        assertThrows(BusinessException.class, () -> orderService.createOrder(dto));
+        verify(stockReservationService, never()).reserve(any(Order.class));
+    }
+
     @Test
     void createOrder_insufficientStock() {
         product.setStockDisponible(1);
@@ -199,33 +242,101 @@ class OrderServiceImplTest {
         dto.setItems(Collections.singletonList(itemDTO));
 
         when(clientRepository.findById("client-1")).thenReturn(Optional.of(client));
-        when(productRepository.findById("prod-1")).thenReturn(Optional.of(product));
+        when(productRepository.findAllById(anyCollection())).thenReturn(List.of(product));
 
         assertThrows(BusinessException.class, () -> orderService.createOrder(dto));
     }
 
+    @Test
+    void createOrder_loadsAllProductsWithSingleQuery() {
+        List<OrderCreateDTO.OrderItemCreateDTO> items = new ArrayList<>();
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            Product p = new Product();
+            p.setId("prod-" + i);
+            p.setNom("Produit " + i);
+            p.setPrix_unitair(new BigDecimal("10.00"));
+            p.setStockDisponible(100);
+            products.add(p);
+            items.add(new OrderCreateDTO.OrderItemCreateDTO("prod-" + i, 1));
+        }
+
+        OrderCreateDTO dto = new OrderCreateDTO();
+        dto.setClientId("client-1");
+        dto.setItems(items);
+
+        when(clientRepository.findById("client-1")).thenReturn(Optional.of(client));
+        when(productRepository.findAllById(anyCollection())).thenReturn(products);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderMapper.toSimpleDTO(any(Order.class))).thenReturn(new OrderResponseDTO());
+
+        orderService.createOrder(dto);
+
+        verify(productRepository, times(1)).findAllById(anyCollection());
+        verify(productRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void createOrder_reportsAllMissingAndInsufficientLinesInOneError() {
+        product.setStockDisponible(1);
+
+        OrderCreateDTO dto = new OrderCreateDTO();
+        dto.setClientId("client-1");
+        dto.setItems(List.of(
+                new OrderCreateDTO.OrderItemCreateDTO("prod-1", 5),
+                new OrderCreateDTO.OrderItemCreateDTO("missing-1", 1),
+                new OrderCreateDTO.OrderItemCreateDTO("missing-2", 1)));
+
+        when(clientRepository.findById("client-1")).thenReturn(Optional.of(client));
+        when(productRepository.findAllById(anyCollection())).thenReturn(List.of(product));
+
+        ResourceNotFoundException ex = assertThrows(ResourceNotFoundException.class, () -> orderService.createOrder(dto));
+
+        assertTrue(ex.getMessage().contains("missing-1"));
+        assertTrue(ex.getMessage().contains("missing-2"));
+        assertTrue(ex.getMessage().contains("Produit 1"));
+    }
+
 
     @Test
     void decrementStock_success() {
-        product.setStockDisponible(10);
         orderItem.setQuantite(3);
         order.setItems(Collections.singletonList(orderItem));
 
-        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(productRepository.decrementStock("prod-1", 3)).thenReturn(1);
 
         orderService.decrementStock(order);
 
-        assertEquals(7, product.getStockDisponible());
-        verify(productRepository, times(1)).save(product);
+        verify(productRepository, times(1)).decrementStock("prod-1", 3);
+        verify(productRepository, never()).save(any(Product.class));
+        verify(lowStockAlertService).checkThresholds(Map.of("prod-1", 3));
     }
 
     @Test
     void decrementStock_insufficientAfterChange() {
-        product.setStockDisponible(1);
         orderItem.setQuantite(3);
         order.setItems(Collections.singletonList(orderItem));
 
+        when(productRepository.decrementStock("prod-1", 3)).thenReturn(0);
+
         assertThrows(BusinessException.class, () -> orderService.decrementStock(order));
+        verifyNoInteractions(lowStockAlertService);
+    }
+
+    @Test
+    void createOrder_failsWhenConcurrentCheckoutTookTheStock() {
+        OrderCreateDTO dto = new OrderCreateDTO();
+        dto.setClientId("client-1");
+        dto.setItems(Collections.singletonList(new OrderCreateDTO.OrderItemCreateDTO("prod-1", 2)));
+
+        when(clientRepository.findById("client-1")).thenReturn(Optional.of(client));
+        when(productRepository.findAllById(anyCollection())).thenReturn(List.of(product));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(new BusinessException("Stock changed! Insufficient stock for: Produit 1"))
+                .when(stockReservationService).reserve(any(Order.class));
+
+        assertThrows(BusinessException.class, () -> orderService.createOrder(dto));
+        verify(orderMapper, never()).toSimpleDTO(any(Order.class));
     }
 
     @Test
@@ -268,7 +379,7 @@ class OrderServiceImplTest {
 
     @Test
     void getOrderByIdAdvanced_success() {
-        when(orderRepository.findById("order-1")).thenReturn(Optional.of(order));
+        when(orderRepository.findWithClientAndItemsById("order-1")).thenReturn(Optional.of(order));
         when(orderMapper.toAdvancedDTO(order)).thenReturn(new OrderAdvancedResponseDTO());
 
         OrderAdvancedResponseDTO dto = orderService.getOrderByIdAdvanced("order-1");
@@ -276,26 +387,51 @@ class OrderServiceImplTest {
         assertNotNull(dto);
     }
 
+    @Test
+    void getOrderByIdAdvanced_loadsWithTwoFetchQueries() {
+        when(orderRepository.findWithClientAndItemsById("order-1")).thenReturn(Optional.of(order));
+        when(orderMapper.toAdvancedDTO(order)).thenReturn(new OrderAdvancedResponseDTO());
+
+        orderService.getOrderByIdAdvanced("order-1");
+
+        verify(orderRepository).findWithClientAndItemsById("order-1");
+        verify(orderRepository).findWithPaiementsById("order-1");
+        verify(orderRepository, never()).findById(anyString());
+        verifyNoMoreInteractions(orderRepository);
+    }
+
+    @Test
+    void getOrderByIdAdvanced_notFound() {
+        when(orderRepository.findWithClientAndItemsById("unknown")).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> orderService.getOrderByIdAdvanced("unknown"));
+        verify(orderRepository, never()).findWithPaiementsById(anyString());
+    }
+
     @Test
     void getOrdersByClient_success() {
-        when(orderRepository.findAllByClientId("client-1")).thenReturn(Collections.singletonList(order));
-        when(orderMapper.toSimpleDTOList(anyList())).thenReturn(Collections.singletonList(new OrderResponseDTO()));
+        OrderSummaryView view = mock(OrderSummaryView.class);
+        when(orderRepository.findSummariesByClientId("client-1")).thenReturn(Collections.singletonList(view));
+        when(orderMapper.fromSummaryViewList(anyList())).thenReturn(Collections.singletonList(new OrderResponseDTO()));
 
         List<OrderResponseDTO> list = orderService.getOrdersByClient("client-1");
 
         assertEquals(1, list.size());
-        verify(orderRepository).findAllByClientId("client-1");
+        verify(orderRepository).findSummariesByClientId("client-1");
+        verifyNoMoreInteractions(orderRepository);
     }
 
     @Test
     void getAllOrders_success() {
-        Page<Order> page = new PageImpl<>(Collections.singletonList(order));
-        when(orderRepository.findAll(pageable)).thenReturn(page);
-        when(orderMapper.toSimpleDTO(order)).thenReturn(new OrderResponseDTO());
+        OrderSummaryView view = mock(OrderSummaryView.class);
+        Page<OrderSummaryView> page = new PageImpl<>(Collections.singletonList(view));
+        when(orderRepository.findAllSummaries(pageable)).thenReturn(page);
+        when(orderMapper.fromSummaryView(view)).thenReturn(new OrderResponseDTO());
 
         Page<OrderResponseDTO> result = orderService.getAllOrders(pageable);
 
         assertEquals(1, result.getTotalElements());
+        verify(orderRepository, never()).findAll(any(Pageable.class));
     }
 
     @Test
@@ -314,6 +450,42 @@ class OrderServiceImplTest {
         assertEquals(OrderStatus.CONFIRMED, order.getStatut());
         assertNotNull(order.getDateValidation());
         verify(clientRepository).save(client); // stats mises à jour
+        verify(stockReservationService).confirm(order);
+        verify(productRepository, never()).decrementStock(anyString(), anyInt());
+        verify(orderStatusCounterRepository).adjust(OrderStatus.PENDING, -1, order.getTotalTTC().negate());
+        verify(orderStatusCounterRepository).adjust(OrderStatus.CONFIRMED, 1, order.getTotalTTC());
+        verify(clientStatisticsService).recordOrderConfirmed(order);
+        verify(clientLeaderboard).update(client);
+    }
+
+    @Test
+    void confirmOrder_decrementsLinesWhoseReservationExpired() {
+        order.setMontantRestant(BigDecimal.ZERO);
+        order.setStatut(OrderStatus.PENDING);
+
+        when(orderRepository.findById("order-1")).thenReturn(Optional.of(order));
+        when(stockReservationService.confirm(order)).thenReturn(List.of(orderItem));
+        when(productRepository.decrementStock("prod-1", 2)).thenReturn(1);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderMapper.toSimpleDTO(any(Order.class))).thenReturn(new OrderResponseDTO());
+
+        orderService.confirmOrder("order-1");
+
+        verify(productRepository).decrementStock("prod-1", 2);
+        assertEquals(OrderStatus.CONFIRMED, order.getStatut());
+    }
+
+    @Test
+    void confirmOrder_failsWhenExpiredReservationCannotBeHonoured() {
+        order.setMontantRestant(BigDecimal.ZERO);
+        order.setStatut(OrderStatus.PENDING);
+
+        when(orderRepository.findById("order-1")).thenReturn(Optional.of(order));
+        when(stockReservationService.confirm(order)).thenReturn(List.of(orderItem));
+        when(productRepository.decrementStock("prod-1", 2)).thenReturn(0);
+
+        assertThrows(BusinessException.class, () -> orderService.confirmOrder("order-1"));
+        assertEquals(OrderStatus.PENDING, order.getStatut());
     }
 
     @Test
@@ -346,13 +518,29 @@ class OrderServiceImplTest {
         when(orderRepository.findById("order-1")).thenReturn(Optional.of(order));
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(orderMapper.toSimpleDTO(any(Order.class))).thenReturn(new OrderResponseDTO());
-        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         OrderResponseDTO dto = orderService.cancelOrder("order-1", "reason");
 
         assertNotNull(dto);
         assertEquals(OrderStatus.CANCELED, order.getStatut());
-        assertTrue(product.getStockDisponible() >= 7); // restauré
+        verify(productRepository).incrementStock("prod-1", 2); // restauré
+        verify(productCache).evictAll(List.of("prod-1"));
+        verify(clientStatisticsService).recordOrderCancelled(order);
+    }
+
+    @Test
+    void cancelOrder_releasesReservationsInsteadOfRestoringStock() {
+        order.setStatut(OrderStatus.PENDING);
+
+        when(orderRepository.findById("order-1")).thenReturn(Optional.of(order));
+        when(stockReservationService.release(order)).thenReturn(true);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderMapper.toSimpleDTO(any(Order.class))).thenReturn(new OrderResponseDTO());
+
+        orderService.cancelOrder("order-1", "reason");
+
+        assertEquals(OrderStatus.CANCELED, order.getStatut());
+        verify(productRepository, never()).incrementStock(anyString(), anyInt());
     }
 
     @Test
@@ -367,13 +555,65 @@ class OrderServiceImplTest {
     @Test
     void updateOrderStatus_success() {
         when(orderRepository.findById("order-1")).thenReturn(Optional.of(order));
-        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(orderMapper.toSimpleDTO(any(Order.class))).thenReturn(new OrderResponseDTO());
 
         OrderResponseDTO dto = orderService.updateOrderStatus("order-1", OrderStatus.PENDING);
 
         assertNotNull(dto);
         assertEquals(OrderStatus.PENDING, order.getStatut());
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    void updateOrderStatus_confirmedCommitsTheReservations() {
+        order.setMontantRestant(BigDecimal.ZERO);
+
+        when(orderRepository.findById("order-1")).thenReturn(Optional.of(order));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderMapper.toSimpleDTO(any(Order.class))).thenReturn(new OrderResponseDTO());
+        when(clientRepository.save(any(Client.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        orderService.updateOrderStatus("order-1", OrderStatus.CONFIRMED);
+
+        assertEquals(OrderStatus.CONFIRMED, order.getStatut());
+        verify(stockReservationService).confirm(order);
+        verify(clientStatisticsService).recordOrderConfirmed(order);
+    }
+
+    @Test
+    void updateOrderStatus_confirmedRequiresFullPayment() {
+        when(orderRepository.findById("order-1")).thenReturn(Optional.of(order));
+
+        assertThrows(BusinessException.class, () -> orderService.updateOrderStatus("order-1", OrderStatus.CONFIRMED));
+        assertEquals(OrderStatus.PENDING, order.getStatut());
+        verifyNoInteractions(stockReservationService);
+    }
+
+    @Test
+    void updateOrderStatus_rejectedReleasesTheReservations() {
+        when(orderRepository.findById("order-1")).thenReturn(Optional.of(order));
+        when(stockReservationService.release(order)).thenReturn(true);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderMapper.toSimpleDTO(any(Order.class))).thenReturn(new OrderResponseDTO());
+
+        orderService.updateOrderStatus("order-1", OrderStatus.REJECTED);
+
+        assertEquals(OrderStatus.REJECTED, order.getStatut());
+        verify(stockReservationService).release(order);
+        verify(productRepository, never()).incrementStock(anyString(), anyInt());
+        verify(orderStatusCounterRepository).adjust(OrderStatus.REJECTED, 1, order.getTotalTTC());
+        verify(clientStatisticsService).recordOrderCancelled(order);
+    }
+
+    @Test
+    void updateOrderStatus_leavesClosedOrdersAlone() {
+        order.setStatut(OrderStatus.CANCELED);
+
+        when(orderRepository.findById("order-1")).thenReturn(Optional.of(order));
+
+        assertThrows(BusinessException.class, () -> orderService.updateOrderStatus("order-1", OrderStatus.CONFIRMED));
+        assertEquals(OrderStatus.CANCELED, order.getStatut());
+        verifyNoInteractions(stockReservationService);
     }
 
     @Test
@@ -399,4 +639,37 @@ class OrderServiceImplTest {
 
         assertThrows(BusinessException.class, () -> orderService.updateOrder("order-1", dto));
     }
+
+    @Test
+    void getOrderStatistics_readsCountersOnly() {
+        when(orderStatusCounterRepository.findAll()).thenReturn(List.of(
+                OrderStatusCounter.builder().statut(OrderStatus.CONFIRMED).orderCount(4L).totalAmount(new BigDecimal("1000.00")).build(),
+                OrderStatusCounter.builder().statut(OrderStatus.PENDING).orderCount(2L).totalAmount(new BigDecimal("90.00")).build()));
+
+        OrderStatisticsDTO statistics = orderService.getOrderStatistics();
+
+        assertEquals(4L, statistics.getTotalConfirmedOrders());
+        assertEquals(new BigDecimal("1000.00"), statistics.getTotalConfirmedAmount());
+        assertEquals(2L, statistics.getTotalPendingOrders());
+        assertEquals(0L, statistics.getTotalCancelledOrders());
+        assertEquals(new BigDecimal("250.00"), statistics.getAverageOrderAmount());
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void rebuildOrderStatistics_recomputesEveryStatusFromOneGroupBy() {
+        when(orderStatusCounterRepository.findAllForUpdate()).thenReturn(List.of(
+                OrderStatusCounter.builder().statut(OrderStatus.PENDING).orderCount(99L).totalAmount(new BigDecimal("1.00")).build()));
+        when(orderRepository.aggregateByStatus()).thenReturn(List.<Object[]>of(
+                new Object[]{OrderStatus.PENDING, 3L, new BigDecimal("300.00")},
+                new Object[]{OrderStatus.CONFIRMED, 1L, new BigDecimal("120.00")}));
+        when(orderStatusCounterRepository.saveAll(anyCollection())).thenAnswer(invocation -> new ArrayList<>(invocation.getArgument(0)));
+
+        OrderStatisticsDTO statistics = orderService.rebuildOrderStatistics();
+
+        assertEquals(3L, statistics.getTotalPendingOrders());
+        assertEquals(1L, statistics.getTotalConfirmedOrders());
+        assertEquals(0L, statistics.getTotalCancelledOrders());
+        verify(orderRepository, times(1)).aggregateByStatus();
+    }
 }
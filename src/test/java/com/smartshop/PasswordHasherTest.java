@@ -0,0 +1,197 @@
+package com.smartshop;
+
+import com.smartshop.exception.ServiceUnavailableException;
+import com.smartshop.security.PasswordHasher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHasherTest {
+
+    private PasswordHasher hasher;
+    private ExecutorService callers;
+
+    @AfterEach
+    void tearDown() {
+        if (hasher != null) {
+            hasher.shutdown();
+        }
+        if (callers != null) {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void hash_producesAVerifiableBcryptHashAndRecordsLatency() {
+        hasher = new PasswordHasher(1, 4, 5000, 4, 0);
+
+        String hashed = hasher.hash("S3cret@pass");
+
+        assertTrue(BCrypt.checkpw("S3cret@pass", hashed));
+        assertTrue(hasher.verify("S3cret@pass", hashed));
+        assertFalse(hasher.verify("wrong", hashed));
+        assertEquals(3, hasher.stats().getCompleted());
+        assertTrue(hasher.stats().getAverageHashMs() > 0);
+        assertEquals(0, hasher.stats().getQueueDepth());
+    }
+
+    @Test
+    void hash_rejectsWhenThePoolAndQueueAreFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        hasher = new PasswordHasher(1, 1, 5000, 4, 0) {
+            @Override
+            protected String doHash(String rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hashed-" + rawPassword;
+            }
+        };
+        callers = Executors.newFixedThreadPool(2);
+
+        Future<String> running = callers.submit(() -> hasher.hash("first"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<String> queued = callers.submit(() -> hasher.hash("second"));
+        while (hasher.stats().getQueueDepth() == 0) {
+            Thread.onSpinWait();
+        }
+
+        assertThrows(ServiceUnavailableException.class, () -> hasher.hash("third"));
+        assertEquals(1, hasher.stats().getRejected());
+
+        release.countDown();
+        assertEquals("hashed-first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hashed-second", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void hash_timesOutInsteadOfHoldingTheRequestThread() {
+        CountDownLatch release = new CountDownLatch(1);
+        hasher = new PasswordHasher(1, 1, 50, 4, 0) {
+            @Override
+            protected String doHash(String rawPassword) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return rawPassword;
+            }
+        };
+
+        assertThrows(ServiceUnavailableException.class, () -> hasher.hash("slow"));
+        assertEquals(1, hasher.stats().getTimedOut());
+        release.countDown();
+    }
+
+    @Test
+    void hashAll_keepsTheOrderOfTheInput() {
+        hasher = new PasswordHasher(2, 1, 5000, 4, 0);
+        List<String> passwords = List.of("first@A1", "second@B2", "third@C3", "fourth@D4", "fifth@E5");
+
+        List<String> hashes = hasher.hashAll(passwords);
+
+        assertEquals(passwords.size(), hashes.size());
+        for (int i = 0; i < passwords.size(); i++) {
+            assertTrue(BCrypt.checkpw(passwords.get(i), hashes.get(i)));
+        }
+    }
+
+    @Test
+    void hashAll_failsInsteadOfHashingOnTheCallerWhenTheQueueStaysFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> hashedOn = new CopyOnWriteArrayList<>();
+        hasher = blockingOnFirst(100, started, release, hashedOn);
+        fillPoolAndQueue(started);
+
+        assertThrows(ServiceUnavailableException.class, () -> hasher.hashAll(List.of("batch@A1")));
+        assertEquals(1, hasher.stats().getRejected());
+        assertEquals(List.of("password-hasher-1"), hashedOn);
+        release.countDown();
+    }
+
+    @Test
+    void hashAll_waitsForTheQueueToDrain() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        hasher = blockingOnFirst(5000, started, release, new CopyOnWriteArrayList<>());
+        fillPoolAndQueue(started);
+        callers = Executors.newSingleThreadExecutor();
+
+        Future<List<String>> batch = callers.submit(() -> hasher.hashAll(List.of("batch@A1", "batch@B2")));
+        Thread.sleep(50);
+        assertFalse(batch.isDone());
+        release.countDown();
+
+        assertEquals(List.of("hashed-batch@A1", "hashed-batch@B2"), batch.get(5, TimeUnit.SECONDS));
+        assertEquals(0, hasher.stats().getRejected());
+    }
+
+    // one thread and a queue of one: "first" holds the thread until released
+    private PasswordHasher blockingOnFirst(long timeoutMs, CountDownLatch started, CountDownLatch release,
+                                           List<String> hashedOn) {
+        return new PasswordHasher(1, 1, timeoutMs, 4, 0) {
+            @Override
+            protected String doHash(String rawPassword) {
+                hashedOn.add(Thread.currentThread().getName());
+                if (rawPassword.equals("first")) {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return "hashed-" + rawPassword;
+            }
+        };
+    }
+
+    // background rehashes have no caller timeout, so they keep the pool and queue full until released
+    private void fillPoolAndQueue(CountDownLatch started) throws InterruptedException {
+        hasher.rehashAsync("first", hash -> { });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        hasher.rehashAsync("second", hash -> { });
+        assertEquals(1, hasher.stats().getQueueDepth());
+    }
+
+    @Test
+    void needsRehash_onlyForHashesBelowTheCurrentCost() {
+        hasher = new PasswordHasher(1, 4, 5000, 5, 0);
+
+        assertTrue(hasher.needsRehash(BCrypt.hashpw("S3cret@pass", BCrypt.gensalt(4))));
+        assertFalse(hasher.needsRehash(BCrypt.hashpw("S3cret@pass", BCrypt.gensalt(5))));
+        assertFalse(hasher.needsRehash(BCrypt.hashpw("S3cret@pass", BCrypt.gensalt(6))));
+        assertFalse(hasher.needsRehash("not-a-bcrypt-hash"));
+        assertFalse(hasher.needsRehash(null));
+    }
+
+    @Test
+    void rehashAsync_handsTheNewHashToTheCallback() throws Exception {
+        hasher = new PasswordHasher(1, 4, 5000, 5, 0);
+        CompletableFuture<String> rehashed = new CompletableFuture<>();
+
+        hasher.rehashAsync("S3cret@pass", rehashed::complete);
+
+        String hashed = rehashed.get(5, TimeUnit.SECONDS);
+        assertTrue(hashed.startsWith("$2a$05$"));
+        assertTrue(BCrypt.checkpw("S3cret@pass", hashed));
+    }
+
+    @Test
+    void calibration_neverGoesBelowTheMinimumCost() {
+        hasher = new PasswordHasher(1, 4, 5000, 0, 1);
+
+        assertEquals(10, hasher.getCost());
+    }
+}
@@ -0,0 +1,113 @@
+package com.smartshop;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smartshop.cache.ProductCache;
+import com.smartshop.dto.response.product.ProductCacheStatsDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCacheTest {
+
+    private CaffeineCacheManager cacheManager;
+    private ProductCache productCache;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new CaffeineCacheManager(ProductCache.PRODUCTS, ProductCache.PRODUCTS_ADVANCED);
+        cacheManager.setCaffeine(Caffeine.newBuilder().maximumSize(100).recordStats());
+        productCache = new ProductCache(cacheManager);
+    }
+
+    @Test
+    void evict_removesProductFromBothCaches() {
+        cacheManager.getCache(ProductCache.PRODUCTS).put("prod-1", "simple");
+        cacheManager.getCache(ProductCache.PRODUCTS_ADVANCED).put("prod-1", "advanced");
+
+        productCache.evict("prod-1");
+
+        assertNull(cacheManager.getCache(ProductCache.PRODUCTS).get("prod-1"));
+        assertNull(cacheManager.getCache(ProductCache.PRODUCTS_ADVANCED).get("prod-1"));
+    }
+
+    @Test
+    void evictAll_waitsForCommitInsideTransaction() {
+        Cache cache = cacheManager.getCache(ProductCache.PRODUCTS);
+        cache.put("prod-1", "simple");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            productCache.evictAll(List.of("prod-1"));
+            assertNotNull(cache.get("prod-1"));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertNull(cache.get("prod-1"));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void get_loadsOnceThenServesFromTheCache() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("simple-1", productCache.get(ProductCache.PRODUCTS, "prod-1", () -> "simple-" + loads.incrementAndGet()));
+        assertEquals("simple-1", productCache.get(ProductCache.PRODUCTS, "prod-1", () -> "simple-" + loads.incrementAndGet()));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_dropsAValueLoadedWhileTheProductWasEvicted() {
+        // the commit's eviction lands after the row was read but before the reader puts it
+        String loaded = productCache.get(ProductCache.PRODUCTS, "prod-1", () -> {
+            productCache.evict("prod-1");
+            return "stale";
+        });
+
+        assertEquals("stale", loaded);
+        assertNull(cacheManager.getCache(ProductCache.PRODUCTS).get("prod-1"));
+        assertEquals("fresh", productCache.get(ProductCache.PRODUCTS, "prod-1", () -> "fresh"));
+        assertEquals("fresh", cacheManager.getCache(ProductCache.PRODUCTS).get("prod-1").get());
+    }
+
+    @Test
+    void get_doesNotCacheFailedLoads() {
+        assertThrows(IllegalStateException.class, () -> productCache.get(ProductCache.PRODUCTS, "prod-1", () -> {
+            throw new IllegalStateException("not found");
+        }));
+
+        assertNull(cacheManager.getCache(ProductCache.PRODUCTS).get("prod-1"));
+    }
+
+    @Test
+    void stats_reportsHitsAndMisses() {
+        Cache cache = cacheManager.getCache(ProductCache.PRODUCTS);
+        cache.put("prod-1", "simple");
+        cache.get("prod-1");
+        cache.get("prod-2");
+
+        ProductCacheStatsDTO stats = productCache.stats().get(0);
+
+        assertTrue(stats.isEnabled());
+        assertEquals(1L, stats.getHitCount());
+        assertEquals(1L, stats.getMissCount());
+        assertEquals(0.5, stats.getHitRate());
+    }
+
+    @Test
+    void stats_reportsDisabledCacheWhenCachingIsOff() {
+        ProductCache disabled = new ProductCache(new NoOpCacheManager());
+
+        assertTrue(disabled.stats().stream().noneMatch(ProductCacheStatsDTO::isEnabled));
+    }
+}
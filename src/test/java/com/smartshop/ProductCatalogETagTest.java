@@ -0,0 +1,82 @@
+package com.smartshop;
+
+import com.smartshop.dto.requist.createRequistDto.OrderCreateDTO;
+import com.smartshop.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Conditional GETs on the catalog listings against PostgreSQL: a write that changes what a listing shows must also
+ * change its ETag, including the stock writes that only move reserved units.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers(disabledWithoutDocker = true)
+class ProductCatalogETagTest {
+
+    @Container
+    private static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static MockHttpServletRequestBuilder asAdmin(MockHttpServletRequestBuilder request) {
+        return request.sessionAttr("USER_ID", "admin-1").sessionAttr("USER_ROLE", "ADMIN");
+    }
+
+    private String etagOf(String url) throws Exception {
+        String etag = mockMvc.perform(asAdmin(get(url)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        return etag;
+    }
+
+    @Test
+    void inStock_answers200WithTheOldTagOnceAReservationTookTheLastUnit() throws Exception {
+        jdbcTemplate.update("INSERT INTO products (id, name, prix, stock, stock_reserve, deleted, created_at, updated_at) " +
+                "VALUES ('etag-last-unit', 'Produit etag', 100, 1, 0, false, now(), now())");
+        jdbcTemplate.update("INSERT INTO clients (id, nom, email, tier, total_orders, total_spent, created_at) " +
+                "VALUES ('etag-client', 'Client etag', 'etag@smartshop.ma', 'BASIC', 0, 0, now())");
+        String inStock = etagOf("/api/products/in-stock?page=0");
+        String advanced = etagOf("/api/products/etag-last-unit/advanced");
+
+        orderService.createOrder(OrderCreateDTO.builder()
+                .clientId("etag-client")
+                .items(List.of(new OrderCreateDTO.OrderItemCreateDTO("etag-last-unit", 1)))
+                .build());
+
+        mockMvc.perform(asAdmin(get("/api/products/in-stock?page=0")).header(HttpHeaders.IF_NONE_MATCH, inStock))
+                .andExpect(status().isOk());
+        mockMvc.perform(asAdmin(get("/api/products/etag-last-unit/advanced")).header(HttpHeaders.IF_NONE_MATCH, advanced))
+                .andExpect(status().isOk());
+    }
+}
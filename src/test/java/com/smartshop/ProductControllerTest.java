@@ -0,0 +1,94 @@
+package com.smartshop;
+
+import com.smartshop.controller.ProductController;
+import com.smartshop.service.LowStockAlertService;
+import com.smartshop.service.ProductImportService;
+import com.smartshop.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.cache.autoconfigure.CacheAutoConfiguration;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// the web slice leaves caching out, but @EnableCaching on the application class still needs a cache manager
+@WebMvcTest(controllers = ProductController.class, properties = "spring.cache.type=none")
+@ImportAutoConfiguration(CacheAutoConfiguration.class)
+class ProductControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ProductService productService;
+    @MockitoBean
+    private ProductImportService productImportService;
+    @MockitoBean
+    private LowStockAlertService lowStockAlertService;
+    // @EnableJpaAuditing on the application class needs a mapping context, which the web slice does not build
+    @MockitoBean
+    private JpaMetamodelMappingContext jpaMetamodelMappingContext;
+
+    private static MockHttpServletRequestBuilder asAdmin(MockHttpServletRequestBuilder request) {
+        return request.sessionAttr("USER_ID", "admin-1").sessionAttr("USER_ROLE", "ADMIN");
+    }
+
+    @Test
+    void getAllProducts_answers304WithoutLoadingThePageWhenTheCatalogIsUnchanged() throws Exception {
+        when(productService.getCatalogVersion()).thenReturn("k.1f3a");
+        when(productService.getAll(any(Pageable.class))).thenReturn(Page.empty());
+
+        String etag = mockMvc.perform(asAdmin(get("/api/products?page=0")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        mockMvc.perform(asAdmin(get("/api/products?page=0")).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        verify(productService, times(1)).getAll(any(Pageable.class));
+    }
+
+    @Test
+    void getAllProducts_answers200WhenTheCatalogChanged() throws Exception {
+        when(productService.getCatalogVersion()).thenReturn("k.1f3a", "k.2b7c");
+        when(productService.getAll(any(Pageable.class))).thenReturn(Page.empty());
+
+        String etag = mockMvc.perform(asAdmin(get("/api/products")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        String changed = mockMvc.perform(asAdmin(get("/api/products")).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertNotEquals(etag, changed);
+        verify(productService, times(2)).getAll(any(Pageable.class));
+    }
+
+    @Test
+    void getAllProducts_tagsEachPageSeparately() throws Exception {
+        when(productService.getCatalogVersion()).thenReturn("k.1f3a");
+        when(productService.getAll(any(Pageable.class))).thenReturn(Page.empty());
+
+        String first = mockMvc.perform(asAdmin(get("/api/products?page=0")))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(asAdmin(get("/api/products?page=1")).header(HttpHeaders.IF_NONE_MATCH, first))
+                .andExpect(status().isOk());
+    }
+}
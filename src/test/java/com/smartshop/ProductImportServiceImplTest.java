@@ -0,0 +1,174 @@
+package com.smartshop;
+
+import com.smartshop.dto.response.product.ProductImportReportDTO;
+import com.smartshop.entity.Product;
+import com.smartshop.enums.ImportFormat;
+import com.smartshop.exception.ValidationException;
+import com.smartshop.repository.CatalogVersionRepository;
+import com.smartshop.repository.ProductRepository;
+import com.smartshop.search.ProductSearchIndex;
+import com.smartshop.service.impl.ProductImportServiceImpl;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductImportServiceImplTest {
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+    @Mock
+    private CatalogVersionRepository catalogVersionRepository;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProductImportServiceImpl productImportService;
+
+    @BeforeEach
+    void setUp() {
+        productImportService = new ProductImportServiceImpl(productRepository, catalogVersionRepository, productSearchIndex, jdbcTemplate,
+                transactionManager, Validation.buildDefaultValidatorFactory().getValidator(),
+                JsonMapper.builder().build(), 2, 10);
+    }
+
+    private static InputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importProducts_csvInsertsValidRowsInChunksAndReportsRejectedOnes() {
+        when(productRepository.findExistingNoms(anyCollection())).thenReturn(List.of("Souris"));
+        String csv = """
+                nom,prixUnitaire,stockDisponible
+                Clavier,25.00,40
+                Souris,19.99,5
+                "Écran 27"", noir",199.00,3
+                X,10.00,1
+                Tapis,abc,2
+                """;
+
+        ProductImportReportDTO report = productImportService.importProducts(input(csv), ImportFormat.CSV);
+
+        assertEquals(5, report.getTotalRows());
+        assertEquals(2, report.getImported());
+        assertEquals(3, report.getRejected());
+        assertFalse(report.isErrorsTruncated());
+        assertEquals(List.of(3L, 5L, 6L), report.getErrors().stream().map(ProductImportReportDTO.RowErrorDTO::getLine).toList());
+        verify(productRepository).findExistingNoms(argThat(noms -> noms.containsAll(List.of("Clavier", "Souris"))));
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        verify(productSearchIndex).index(argThat((Product p) -> p.getNom().equals("Écran 27\", noir")));
+    }
+
+    @Test
+    void importProducts_ndjsonRejectsDuplicatesWithinTheFile() {
+        when(productRepository.findExistingNoms(anyCollection())).thenReturn(List.of());
+        String ndjson = """
+                {"nom":"Clavier","prixUnitaire":25.00,"stockDisponible":40}
+                {"nom":"Clavier","prixUnitaire":30.00}
+                {"nom":
+                """;
+
+        ProductImportReportDTO report = productImportService.importProducts(input(ndjson), ImportFormat.NDJSON);
+
+        assertEquals(3, report.getTotalRows());
+        assertEquals(1, report.getImported());
+        assertEquals(2, report.getRejected());
+        assertTrue(report.getErrors().stream().anyMatch(error -> error.getLine() == 2
+                && error.getMessage().contains("Duplicate")));
+        assertTrue(report.getErrors().stream().anyMatch(error -> error.getLine() == 3
+                && error.getMessage().startsWith("Malformed row")));
+    }
+
+    @Test
+    void importProducts_capsTheErrorListButKeepsCounting() {
+        StringBuilder csv = new StringBuilder("nom,prixUnitaire\n");
+        for (int i = 0; i < 15; i++) {
+            csv.append("Produit ").append(i).append(",-1\n");
+        }
+
+        ProductImportReportDTO report = productImportService.importProducts(input(csv.toString()), ImportFormat.CSV);
+
+        assertEquals(15, report.getRejected());
+        assertEquals(10, report.getErrors().size());
+        assertTrue(report.isErrorsTruncated());
+        verifyNoInteractions(jdbcTemplate, productRepository);
+    }
+
+    @Test
+    void importProducts_rejectsCsvWithoutRequiredColumns() {
+        assertThrows(ValidationException.class,
+                () -> productImportService.importProducts(input("name,price\nClavier,25.00\n"), ImportFormat.CSV));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importProducts_reportsTheRowsOfAFailedChunkAndKeepsGoing() {
+        when(productRepository.findExistingNoms(anyCollection())).thenReturn(List.of());
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[0][0])
+                .thenThrow(new QueryTimeoutException("canceling statement due to statement timeout"))
+                .thenReturn(new int[0][0]);
+        String csv = """
+                nom,prixUnitaire
+                Clavier,25.00
+                Souris,15.00
+                Ecran,120.00
+                Casque,45.00
+                Tapis,9.00
+                """;
+
+        ProductImportReportDTO report = productImportService.importProducts(input(csv), ImportFormat.CSV);
+
+        assertEquals(5, report.getTotalRows());
+        assertEquals(3, report.getImported());
+        assertEquals(0, report.getRejected());
+        assertEquals(2, report.getFailed());
+        assertEquals(List.of(4L, 5L), report.getErrors().stream().map(ProductImportReportDTO.RowErrorDTO::getLine).toList());
+        assertTrue(report.getErrors().get(0).getMessage().contains("statement timeout"));
+        verify(productSearchIndex, never()).index(argThat((Product p) -> p.getNom().equals("Ecran")));
+        verify(productSearchIndex).index(argThat((Product p) -> p.getNom().equals("Tapis")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importProducts_keepsTheRowsReadBeforeTheInputBroke() {
+        when(productRepository.findExistingNoms(anyCollection())).thenReturn(List.of());
+        InputStream broken = new SequenceInputStream(input("nom,prixUnitaire\nClavier,25.00\n"), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Connection reset");
+            }
+        });
+
+        ProductImportReportDTO report = productImportService.importProducts(broken, ImportFormat.CSV);
+
+        assertEquals(1, report.getImported());
+        assertTrue(report.getError().contains("Connection reset"));
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+    }
+}
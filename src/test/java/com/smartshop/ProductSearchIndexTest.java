@@ -0,0 +1,136 @@
+package com.smartshop;
+
+import com.smartshop.entity.Product;
+import com.smartshop.search.ProductSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    private static Product product(String id, String nom, String prix, int stock) {
+        return Product.builder()
+                .id(id)
+                .nom(nom)
+                .prix_unitair(new BigDecimal(prix))
+                .stockDisponible(stock)
+                .build();
+    }
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+        index.rebuild(List.of(
+                product("p-1", "Clavier mécanique", "89.90", 12),
+                product("p-2", "Clavier", "25.00", 40),
+                product("p-3", "Souris sans fil", "19.99", 0),
+                product("p-4", "Tapis de souris XXL", "15.00", 7)));
+    }
+
+    @Test
+    void search_ranksExactTokenBeforePrefixBeforeSubstring() {
+        index.index(product("p-5", "Repose-poignet clavierpro", "30.00", 3));
+        index.index(product("p-6", "Superclavier", "45.00", 3));
+
+        ProductSearchIndex.SearchResult result = index.search("clavier", 0, 10);
+
+        assertEquals(List.of("p-2", "p-1", "p-5", "p-6"), result.ids().subList(0, 4));
+        assertEquals(4, result.total());
+    }
+
+    @Test
+    void search_ignoresCaseAndAccentsAndRequiresEveryTerm() {
+        assertEquals(List.of("p-1"), index.search("MECANIQUE", 0, 10).ids());
+        assertEquals(List.of("p-4"), index.search("tapis souris", 0, 10).ids());
+        assertEquals(0, index.search("tapis clavier", 0, 10).total());
+    }
+
+    @Test
+    void search_matchesNumericKeywordOnPriceOrStock() {
+        assertEquals(List.of("p-2"), index.search("25", 0, 10).ids());
+        assertEquals(List.of("p-4"), index.search("7", 0, 10).ids());
+        assertEquals(List.of("p-3"), index.search("19.99", 0, 10).ids());
+    }
+
+    @Test
+    void search_filtersOnPriceAndStockRanges() {
+        assertEquals(List.of("p-3", "p-4"), index.search("prix:..20", 0, 10).ids());
+        assertEquals(List.of("p-2", "p-1"), index.search("prix:25..90", 0, 10).ids());
+        assertEquals(List.of("p-1", "p-4"), index.search("stock:1..12", 0, 10).ids());
+        assertEquals(List.of("p-2"), index.search("stock:40", 0, 10).ids());
+        // a bare range matches on either value: p-1 and p-3 by stock, p-4 by stock and price
+        assertEquals(List.of("p-1", "p-3", "p-4"), index.search("0..15", 0, 10).ids());
+        assertEquals(0, index.search("prix:50..10", 0, 10).total());
+    }
+
+    @Test
+    void search_combinesRangesWithNameTerms() {
+        assertEquals(List.of("p-2"), index.search("clavier prix:..30", 0, 10).ids());
+        assertEquals(List.of("p-3"), index.search("souris stock:..0", 0, 10).ids());
+    }
+
+    @Test
+    void search_blankKeywordMatchesNothing() {
+        ProductSearchIndex.SearchResult result = index.search("  ", 0, 20);
+
+        assertEquals(List.of(), result.ids());
+        assertEquals(0, result.total());
+    }
+
+    @Test
+    void search_pagesThroughRankedHits() {
+        ProductSearchIndex.SearchResult firstPage = index.search("prix:0..", 0, 3);
+        ProductSearchIndex.SearchResult secondPage = index.search("prix:0..", 3, 3);
+
+        assertEquals(4, firstPage.total());
+        assertEquals(List.of("p-2", "p-1", "p-3"), firstPage.ids());
+        assertEquals(List.of("p-4"), secondPage.ids());
+    }
+
+    @Test
+    void indexAndRemove_keepIndexInSyncWithWrites() {
+        index.index(product("p-2", "Clavier compact", "25.00", 40));
+        assertEquals(List.of("p-2"), index.search("compact", 0, 10).ids());
+
+        index.remove("p-2");
+        assertEquals(0, index.search("compact", 0, 10).total());
+
+        Product deleted = product("p-1", "Clavier mécanique", "89.90", 12);
+        deleted.setDeleted(true);
+        index.index(deleted);
+        assertEquals(0, index.search("mecanique", 0, 10).total());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void beginRebuild_doesNotResurrectAProductDeletedAfterTheRebuildReadIt() {
+        ProductSearchIndex.Rebuild rebuild = index.beginRebuild();
+        Product readBeforeDelete = product("p-1", "Clavier mécanique", "89.90", 12);
+
+        index.remove("p-1");
+        rebuild.add(readBeforeDelete);
+        rebuild.add(product("p-2", "Clavier", "25.00", 40));
+        rebuild.publish();
+
+        assertEquals(List.of("p-2"), index.search("clavier", 0, 10).ids());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void beginRebuild_keepsWritesMadeWhileRebuilding() {
+        ProductSearchIndex.Rebuild rebuild = index.beginRebuild();
+        rebuild.add(product("p-1", "Clavier mécanique", "89.90", 12));
+
+        index.index(product("p-9", "Écran 27 pouces", "199.00", 5));
+        rebuild.publish();
+
+        assertEquals(List.of("p-9"), index.search("ecran", 0, 10).ids());
+        assertEquals(2, index.size());
+    }
+}
@@ -0,0 +1,282 @@
+package com.smartshop;
+
+import com.smartshop.cache.ProductCache;
+import com.smartshop.dto.requist.searchRequistDto.ProductSearchCriteriaDTO;
+import com.smartshop.dto.requist.updateRequistDto.StockAdjustmentDTO;
+import com.smartshop.dto.response.product.ProductResponseDTO;
+import com.smartshop.dto.response.product.StockLevelDTO;
+import com.smartshop.entity.Product;
+import com.smartshop.exception.InsufficientStockException;
+import com.smartshop.exception.ResourceNotFoundException;
+import com.smartshop.exception.ValidationException;
+import com.smartshop.mapper.ProductMapper;
+import com.smartshop.repository.CatalogVersionRepository;
+import com.smartshop.repository.ProductRepository;
+import com.smartshop.repository.specification.ProductSpecifications;
+import com.smartshop.search.ProductSearchIndex;
+import com.smartshop.service.LowStockAlertService;
+import com.smartshop.service.impl.ProductServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.*;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductServiceImplTest {
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private CatalogVersionRepository catalogVersionRepository;
+    @Mock
+    private ProductMapper productMapper;
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+    @Mock
+    private ProductCache productCache;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private LowStockAlertService lowStockAlertService;
+
+    @InjectMocks
+    private ProductServiceImpl productService;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        product = Product.builder()
+                .id("prod-1")
+                .nom("Clavier")
+                .prix_unitair(new BigDecimal("25.00"))
+                .stockDisponible(40)
+                .build();
+    }
+
+    @Test
+    void searchProducts_loadsOnlyTheRankedPageFromTheIndex() {
+        Product second = Product.builder().id("prod-2").nom("Clavier mécanique").build();
+        when(productSearchIndex.search("clavier", 0, 2))
+                .thenReturn(new ProductSearchIndex.SearchResult(List.of("prod-1", "prod-2"), 5));
+        when(productRepository.findAllById(List.of("prod-1", "prod-2"))).thenReturn(List.of(second, product));
+        when(productMapper.toResponseDTO(any(Product.class)))
+                .thenAnswer(invocation -> ProductResponseDTO.builder().id(invocation.<Product>getArgument(0).getId()).build());
+
+        Page<ProductResponseDTO> result = productService.searchProducts("clavier", PageRequest.of(0, 2));
+
+        assertEquals(5, result.getTotalElements());
+        assertEquals(List.of("prod-1", "prod-2"), result.getContent().stream().map(ProductResponseDTO::getId).toList());
+    }
+
+    @Test
+    void searchProducts_skipsProductsSoftDeletedSinceTheIndexSawThem() {
+        Product deleted = Product.builder().id("prod-2").nom("Clavier mécanique").deleted(true).build();
+        when(productSearchIndex.search("clavier", 0, 2))
+                .thenReturn(new ProductSearchIndex.SearchResult(List.of("prod-1", "prod-2"), 2));
+        when(productRepository.findAllById(List.of("prod-1", "prod-2"))).thenReturn(List.of(deleted, product));
+        when(productMapper.toResponseDTO(any(Product.class)))
+                .thenAnswer(invocation -> ProductResponseDTO.builder().id(invocation.<Product>getArgument(0).getId()).build());
+
+        Page<ProductResponseDTO> result = productService.searchProducts("clavier", PageRequest.of(0, 2));
+
+        assertEquals(List.of("prod-1"), result.getContent().stream().map(ProductResponseDTO::getId).toList());
+    }
+
+    @Test
+    void searchProducts_blankKeywordReturnsAnEmptyPageWithoutRanking() {
+        Page<ProductResponseDTO> result = productService.searchProducts("  ", PageRequest.of(0, 20));
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(productSearchIndex, productRepository);
+    }
+
+    @Test
+    void searchProducts_noMatch() {
+        when(productSearchIndex.search("zzz", 0, 20)).thenReturn(new ProductSearchIndex.SearchResult(List.of(), 0));
+
+        assertThrows(ResourceNotFoundException.class, () -> productService.searchProducts("zzz", PageRequest.of(0, 20)));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void filterProducts_queriesWithSpecification() {
+        ProductSearchCriteriaDTO criteria = ProductSearchCriteriaDTO.builder()
+                .keyword("clav")
+                .minPrice(new BigDecimal("10"))
+                .maxPrice(new BigDecimal("50"))
+                .minStock(1)
+                .build();
+        Pageable pageable = PageRequest.of(0, 20, Sort.by("prix_unitair"));
+        when(productRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(new PageImpl<>(List.of(product)));
+        when(productMapper.toResponseDTO(product)).thenReturn(new ProductResponseDTO());
+
+        Page<ProductResponseDTO> result = productService.filterProducts(criteria, pageable);
+
+        assertEquals(1, result.getTotalElements());
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void stockAtLeast_filtersOnStockLeftAfterReservations() {
+        Root<Product> root = mock(Root.class);
+        CriteriaBuilder cb = mock(CriteriaBuilder.class);
+        Path stock = mock(Path.class);
+        Path reserve = mock(Path.class);
+        Expression available = mock(Expression.class);
+        when(root.get("stockDisponible")).thenReturn(stock);
+        when(root.get("stockReserve")).thenReturn(reserve);
+        when(cb.diff(stock, reserve)).thenReturn(available);
+
+        ProductSpecifications.stockAtLeast(3).toPredicate(root, mock(CriteriaQuery.class), cb);
+
+        verify(cb).greaterThanOrEqualTo(available, (Comparable) 3);
+        verify(cb).greaterThanOrEqualTo(stock, (Comparable) 3);
+    }
+
+    @Test
+    void filterProducts_rejectsInvertedPriceRange() {
+        ProductSearchCriteriaDTO criteria = ProductSearchCriteriaDTO.builder()
+                .minPrice(new BigDecimal("50"))
+                .maxPrice(new BigDecimal("10"))
+                .build();
+
+        assertThrows(ValidationException.class, () -> productService.filterProducts(criteria, PageRequest.of(0, 20)));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void filterProducts_rejectsUnknownSortProperty() {
+        Pageable pageable = PageRequest.of(0, 20, Sort.by("deletedAt"));
+
+        assertThrows(ValidationException.class,
+                () -> productService.filterProducts(new ProductSearchCriteriaDTO(), pageable));
+        verifyNoInteractions(productRepository);
+    }
+
+    private static StockAdjustmentDTO adjustment(Object... idAndDelta) {
+        List<StockAdjustmentDTO.StockDeltaDTO> items = new ArrayList<>();
+        for (int i = 0; i < idAndDelta.length; i += 2) {
+            items.add(new StockAdjustmentDTO.StockDeltaDTO((String) idAndDelta[i], (Integer) idAndDelta[i + 1]));
+        }
+        return new StockAdjustmentDTO(items);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void adjustStock_appliesMergedDeltasInOneBatchAndReturnsNewLevels() {
+        Product second = Product.builder().id("prod-2").nom("Souris").stockDisponible(12).build();
+        product.setStockDisponible(50);
+        when(productRepository.findActiveIds(Set.of("prod-1", "prod-2"))).thenReturn(List.of("prod-1", "prod-2"));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), eq(2), any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][]{{1, 1}});
+        when(productRepository.findAllById(Set.of("prod-1", "prod-2"))).thenReturn(List.of(second, product));
+
+        List<StockLevelDTO> levels = productService.adjustStock(adjustment("prod-2", 2, "prod-1", 4, "prod-1", 6));
+
+        assertEquals(List.of("prod-1", "prod-2"), levels.stream().map(StockLevelDTO::getId).toList());
+        assertEquals(50, levels.get(0).getStockDisponible());
+        verify(jdbcTemplate).batchUpdate(anyString(),
+                argThat((List<Map.Entry<String, Integer>> rows) -> rows.equals(List.of(
+                        Map.entry("prod-1", 10), Map.entry("prod-2", 2)))),
+                eq(2), any(ParameterizedPreparedStatementSetter.class));
+        verify(productCache).evictAll(Set.of("prod-1", "prod-2"));
+        verify(lowStockAlertService).checkThresholds(Map.of());
+        verify(catalogVersionRepository).increment();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void adjustStock_checksThresholdsForNetDecrements() {
+        when(productRepository.findActiveIds(Set.of("prod-1", "prod-2"))).thenReturn(List.of("prod-1", "prod-2"));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), eq(2), any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][]{{1, 1}});
+        when(productRepository.findAllById(Set.of("prod-1", "prod-2"))).thenReturn(List.of(product));
+
+        productService.adjustStock(adjustment("prod-1", -5, "prod-1", 2, "prod-2", 4));
+
+        verify(lowStockAlertService).checkThresholds(Map.of("prod-1", 3));
+    }
+
+    @Test
+    void adjustStock_treatsANullStockAsZero() {
+        when(productRepository.findActiveIds(Set.of("prod-1"))).thenReturn(List.of("prod-1"));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), eq(1), any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][]{{1}});
+        when(productRepository.findAllById(Set.of("prod-1"))).thenReturn(List.of(product));
+
+        productService.adjustStock(adjustment("prod-1", 5));
+
+        verify(jdbcTemplate).batchUpdate(contains("COALESCE(stock, 0) + ?"), anyList(), eq(1),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    void stockDelta_rejectsZero() {
+        try (ValidatorFactory factory = Validation.buildDefaultValidatorFactory()) {
+            Validator validator = factory.getValidator();
+
+            assertFalse(validator.validate(adjustment("prod-1", 0)).isEmpty());
+            assertTrue(validator.validate(adjustment("prod-1", -3)).isEmpty());
+        }
+    }
+
+    @Test
+    void adjustStock_rejectsUnknownIdsBeforeUpdating() {
+        when(productRepository.findActiveIds(Set.of("prod-1", "missing"))).thenReturn(List.of("prod-1"));
+
+        ResourceNotFoundException error = assertThrows(ResourceNotFoundException.class,
+                () -> productService.adjustStock(adjustment("prod-1", 5, "missing", 3)));
+
+        assertTrue(error.getMessage().contains("missing"));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void adjustStock_rejectsDeltaThatWouldDropBelowReservedStock() {
+        when(productRepository.findActiveIds(Set.of("prod-1"))).thenReturn(List.of("prod-1"));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), eq(1), any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][]{{0}});
+
+        assertThrows(InsufficientStockException.class, () -> productService.adjustStock(adjustment("prod-1", -100)));
+        verify(productRepository, never()).findAllById(anyIterable());
+        verifyNoInteractions(lowStockAlertService);
+        verifyNoInteractions(productCache);
+        verifyNoInteractions(catalogVersionRepository);
+    }
+
+    @Test
+    void getCatalogVersion_readsThePersistedCounter() {
+        when(catalogVersionRepository.findCurrent()).thenReturn(35L, 36L);
+
+        assertEquals("z", productService.getCatalogVersion());
+        assertEquals("10", productService.getCatalogVersion());
+    }
+}
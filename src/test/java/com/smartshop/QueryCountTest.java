@@ -0,0 +1,123 @@
+package com.smartshop;
+
+import com.smartshop.dto.response.order.OrderAdvancedResponseDTO;
+import com.smartshop.dto.response.order.OrderResponseDTO;
+import com.smartshop.dto.response.payement.PaymentAdvancedResponseDTO;
+import com.smartshop.service.OrderService;
+import com.smartshop.service.PaymentService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the JDBC statements Hibernate prepares for the read paths against PostgreSQL, so a lazy association that
+ * slips back into a mapper shows up as a failing count rather than as a slow page.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class QueryCountTest {
+
+    @Container
+    private static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
+    }
+
+    private static boolean seeded;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private PaymentService paymentService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (!seeded) {
+            seed();
+            seeded = true;
+        }
+        statistics.clear();
+    }
+
+    // one client with a login, 3 orders of 3 lines each and 2 payments per order
+    private void seed() {
+        jdbcTemplate.update("INSERT INTO users (id, username, password, role, created_at) " +
+                "VALUES ('user-1', 'client1', 'x', 'CLIENT', now())");
+        jdbcTemplate.update("INSERT INTO clients (id, nom, email, tier, total_orders, total_spent, user_id, created_at) " +
+                "VALUES ('client-1', 'Client 1', 'client1@smartshop.ma', 'BASIC', 0, 0, 'user-1', now())");
+        jdbcTemplate.update("INSERT INTO products (id, name, prix, stock, stock_reserve, deleted, created_at) " +
+                "SELECT 'product-' || g, 'Produit ' || g, 100, 50, 0, false, now() FROM generate_series(1, 3) g");
+        jdbcTemplate.update("INSERT INTO commandes (id, client_id, sous_total_ht, montant_remise, montant_ht_apres_remise, " +
+                "taux_tva, montant_tva, total_ttc, montant_restant, statut, created_at) " +
+                "SELECT 'order-' || g, 'client-1', 300, 0, 300, 20, 60, 360, 0, 'CONFIRMED', now() - g * interval '1 minute' " +
+                "FROM generate_series(1, 3) g");
+        jdbcTemplate.update("INSERT INTO commande_items (commande_id, produit_id, quantite, prix_unitaire_ht, total_ligne_ht) " +
+                "SELECT 'order-' || o, 'product-' || p, 1, 100, 100 FROM generate_series(1, 3) o, generate_series(1, 3) p");
+        jdbcTemplate.update("INSERT INTO payments (id, payment_number, montant, payment_status, type_payment, order_id, created_at) " +
+                "SELECT 'payment-' || o || '-' || n, n, 180, 'ENCAISSE', 'ESPECES', 'order-' || o, now() " +
+                "FROM generate_series(1, 3) o, generate_series(1, 2) n");
+    }
+
+    @Test
+    void getOrderByIdAdvanced_loadsTheWholeViewInTwoStatements() {
+        OrderAdvancedResponseDTO order = orderService.getOrderByIdAdvanced("order-1");
+
+        assertEquals(3, order.getItems().size());
+        assertEquals(2, order.getPaiements().size());
+        assertEquals(2, statistics.getPrepareStatementCount(), () -> "statements: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getPaymentByIdAdvanced_loadsTheWholeViewInOneStatement() {
+        PaymentAdvancedResponseDTO payment = paymentService.getPaymentByIdAdvanced("payment-1-1");
+
+        assertEquals("order-1", payment.getOrder().getId());
+        assertEquals(1, statistics.getPrepareStatementCount(), () -> "statements: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getOrdersByClient_listsEveryOrderInOneStatement() {
+        List<OrderResponseDTO> orders = orderService.getOrdersByClient("client-1");
+
+        assertEquals(3, orders.size());
+        assertTrue(orders.stream().allMatch(order -> order.getItemsCount() == 3 && "Client 1".equals(order.getClientNom())));
+        assertEquals(1, statistics.getPrepareStatementCount(), () -> "statements: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getAllOrders_readsAPageWithOneStatementPlusItsCount() {
+        Page<OrderResponseDTO> page = orderService.getAllOrders(PageRequest.of(0, 2));
+
+        assertEquals(2, page.getContent().size());
+        assertEquals(3, page.getTotalElements());
+        assertEquals(2, statistics.getPrepareStatementCount(), () -> "statements: " + statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,240 @@
+package com.smartshop;
+
+import com.smartshop.dto.requist.searchRequistDto.ProductSearchCriteriaDTO;
+import com.smartshop.enums.PaymentStatus;
+import com.smartshop.enums.ReservationStatus;
+import com.smartshop.repository.OrderRepository;
+import com.smartshop.repository.PaymentRepository;
+import com.smartshop.repository.ProductRepository;
+import com.smartshop.repository.StockReservationRepository;
+import com.smartshop.repository.specification.ProductSpecifications;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.transaction.BeforeTransaction;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the Liquibase changelog against PostgreSQL, seeds a catalog-sized data set and checks that the SQL Hibernate
+ * generates for the hot repository queries is planned on the index added for it.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.smartshop.SchemaIndexUsageTest$CapturingStatementInspector")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class SchemaIndexUsageTest {
+
+    @Container
+    private static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    private static boolean seeded;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private PaymentRepository paymentRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
+    // outside the test transaction, so the rows stay for every test and VACUUM can run
+    @BeforeTransaction
+    void seedOnce() {
+        if (seeded) {
+            return;
+        }
+        jdbcTemplate.execute("INSERT INTO clients (id, nom, email, tier, total_orders, total_spent, created_at) " +
+                "SELECT 'client-' || g, 'Client ' || g, 'client' || g || '@smartshop.ma', 'BASIC', 0, 0, " +
+                "now() - g * interval '1 minute' FROM generate_series(1, 20000) g");
+        // about 1% of the catalog is sold out, the rest keeps a few units with some of them reserved
+        jdbcTemplate.execute("INSERT INTO products (id, name, prix, stock, stock_reserve, deleted, created_at) " +
+                "SELECT 'product-' || g, 'Produit ' || g, 10 + g % 90, CASE WHEN g % 100 = 0 THEN 0 ELSE 5 + g % 200 END, " +
+                "CASE WHEN g % 100 = 0 THEN 0 ELSE g % 3 END, g % 50 = 0, now() - g * interval '1 minute' " +
+                "FROM generate_series(1, 50000) g");
+        jdbcTemplate.execute("INSERT INTO commandes (id, client_id, sous_total_ht, montant_remise, montant_ht_apres_remise, " +
+                "taux_tva, montant_tva, total_ttc, montant_restant, statut, created_at) " +
+                "SELECT 'order-' || g, 'client-' || (g % 20000 + 1), 100, 0, 100, 20, 20, 120, 0, " +
+                "CASE WHEN g % 20 = 0 THEN 'PENDING' WHEN g % 50 = 1 THEN 'CANCELED' ELSE 'CONFIRMED' END, " +
+                "now() - g * interval '1 minute' FROM generate_series(1, 200000) g");
+        jdbcTemplate.execute("INSERT INTO commande_items (commande_id, produit_id, quantite, prix_unitaire_ht, total_ligne_ht) " +
+                "SELECT 'order-' || g, 'product-' || ((g * 7 + l) % 50000 + 1), l, 50, 50 * l " +
+                "FROM generate_series(1, 200000) g, generate_series(1, 2) l");
+        jdbcTemplate.execute("INSERT INTO payments (id, payment_number, montant, payment_status, type_payment, order_id, created_at) " +
+                "SELECT 'payment-' || g, 1, 120, CASE WHEN g % 100 = 0 THEN 'REJETE' WHEN g % 10 = 0 THEN 'EN_ATTENTE' " +
+                "ELSE 'ENCAISSE' END, 'ESPECES', 'order-' || g, now() - g * interval '1 minute' " +
+                "FROM generate_series(1, 200000) g");
+        // reservations of confirmed or released orders pile up; only a thin slice is still ACTIVE at any time
+        jdbcTemplate.execute("INSERT INTO stock_reservations (id, order_id, produit_id, quantite, statut, expires_at) " +
+                "SELECT 'reservation-' || g, 'order-' || g, 'product-' || (g % 50000 + 1), 1, " +
+                "CASE WHEN g % 50 = 0 THEN 'ACTIVE' WHEN g % 5 = 0 THEN 'RELEASED' ELSE 'CONFIRMED' END, " +
+                "now() + (30 - g % 60) * interval '1 minute' FROM generate_series(1, 100000) g");
+        jdbcTemplate.execute("VACUUM ANALYZE");
+        seeded = true;
+    }
+
+    @Test
+    void findSummariesByClientId_usesClientIndex() {
+        assertServedBy("idx_commandes_client_id",
+                () -> orderRepository.findSummariesByClientId("client-42"), "client-42");
+    }
+
+    @Test
+    void orderKeysetFirstPage_usesCreatedAtIndex() {
+        assertServedBy("idx_commandes_created_at_id",
+                () -> orderRepository.findKeysetFirstPage(PageRequest.of(0, 21)), 21);
+    }
+
+    @Test
+    void findItemsWithProduitByOrderIds_usesItemPrimaryKey() {
+        assertServedBy("pk_commande_items",
+                () -> orderRepository.findItemsWithProduitByOrderIds(List.of("order-1", "order-2", "order-3")),
+                "order-1", "order-2", "order-3");
+    }
+
+    @Test
+    void paymentsFindByOrderId_usesOrderIndex() {
+        assertServedBy("idx_payments_order_id",
+                () -> paymentRepository.findByOrderId("order-42"), "order-42");
+    }
+
+    @Test
+    void paymentsFindByPaymentStatus_usesStatusIndexForRareStatus() {
+        assertServedBy("idx_payments_payment_status",
+                () -> paymentRepository.findByPaymentStatus(PaymentStatus.REJETE), PaymentStatus.REJETE);
+    }
+
+    @Test
+    void paymentKeysetFirstPage_usesCreatedAtIndex() {
+        assertServedBy("idx_payments_created_at_id",
+                () -> paymentRepository.findKeysetFirstPage(PageRequest.of(0, 21)), 21);
+    }
+
+    @Test
+    void findExistingNoms_usesNameIndex() {
+        assertServedBy("idx_products_name",
+                () -> productRepository.findExistingNoms(List.of("Produit 1", "Produit 2")), "Produit 1", "Produit 2");
+    }
+
+    @Test
+    void filterByMinStock_usesDeletedStockIndex() {
+        ProductSearchCriteriaDTO criteria = ProductSearchCriteriaDTO.builder().minStock(203).build();
+        assertServedBy("idx_products_deleted_stock",
+                () -> productRepository.findAll(ProductSpecifications.matching(criteria), PageRequest.of(0, 20)),
+                203, 203, 20);
+    }
+
+    @Test
+    void findAllOutOfStock_usesPartialIndex() {
+        assertServedBy("idx_products_out_of_stock",
+                () -> productRepository.findAllOutOfStock(PageRequest.of(0, 20)), 20);
+    }
+
+    @Test
+    void findExpiredForUpdate_usesStatusExpiryIndex() {
+        LocalDateTime now = LocalDateTime.now();
+        assertServedBy("idx_stock_reservations_statut_expires",
+                () -> stockReservationRepository.findExpiredForUpdate(ReservationStatus.ACTIVE, now, PageRequest.of(0, 500)),
+                ReservationStatus.ACTIVE, now, 500);
+    }
+
+    @Test
+    void changelogCreatesEveryMappedTable() {
+        List<String> tables = jdbcTemplate.queryForList(
+                "SELECT table_name FROM information_schema.tables WHERE table_schema = 'public' ORDER BY table_name",
+                String.class);
+
+        assertTrue(tables.containsAll(List.of("catalog_version", "client_statistics", "clients", "commande_items", "commandes", "idempotency_keys",
+                "order_status_counters", "payments", "products", "promo_codes", "stock_reservations", "users")));
+    }
+
+    /**
+     * Runs the repository call, then plans every statement it issued with the given bind values. A paged query also
+     * issues a count, which binds a prefix of the same values, so the values are listed in the order of the main query.
+     */
+    private void assertServedBy(String expectedIndex, Runnable repositoryCall, Object... bindValues) {
+        CapturingStatementInspector.STATEMENTS.clear();
+        repositoryCall.run();
+        List<String> statements = new ArrayList<>(CapturingStatementInspector.STATEMENTS);
+        assertFalse(statements.isEmpty(), "The repository call issued no SQL");
+
+        StringBuilder plans = new StringBuilder();
+        for (String sql : statements) {
+            String plan = explain(sql, bindValues);
+            if (plan.contains(expectedIndex)) {
+                return;
+            }
+            plans.append(sql).append('\n').append(plan).append("\n\n");
+        }
+        fail("Expected " + expectedIndex + " in one of the plans:\n" + plans);
+    }
+
+    // PREPARE + EXPLAIN EXECUTE gives the custom plan for the real values, the same one the driver's statement gets
+    private String explain(String sql, Object[] bindValues) {
+        StringBuilder numbered = new StringBuilder();
+        int parameters = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameters);
+            } else {
+                numbered.append(c);
+            }
+        }
+        assertTrue(parameters <= bindValues.length, () -> "Not enough bind values for: " + sql);
+
+        List<String> literals = new ArrayList<>(parameters);
+        for (int i = 0; i < parameters; i++) {
+            literals.add(literal(bindValues[i]));
+        }
+
+        jdbcTemplate.execute("PREPARE index_usage AS " + numbered);
+        try {
+            String execute = parameters == 0 ? "index_usage" : "index_usage(" + String.join(", ", literals) + ")";
+            return String.join("\n", jdbcTemplate.queryForList("EXPLAIN EXECUTE " + execute, String.class));
+        } finally {
+            jdbcTemplate.execute("DEALLOCATE index_usage");
+        }
+    }
+
+    private static String literal(Object value) {
+        if (value instanceof Number) {
+            return value.toString();
+        }
+        return "'" + value.toString().replace("'", "''") + "'";
+    }
+
+    public static class CapturingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.smartshop;
+
+import com.smartshop.dto.requist.createRequistDto.OrderCreateDTO;
+import com.smartshop.entity.Product;
+import com.smartshop.exception.BusinessException;
+import com.smartshop.repository.ProductRepository;
+import com.smartshop.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Many checkouts racing for the last units of one product, against PostgreSQL: the conditional updates must let
+ * exactly the available quantity through and never leave stock or available stock below zero.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class StockConcurrencyTest {
+
+    private static final Logger log = LoggerFactory.getLogger(StockConcurrencyTest.class);
+
+    private static final int THREADS = 32;
+
+    @Container
+    private static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> THREADS + 4);
+        registry.add("spring.jpa.show-sql", () -> "false");
+    }
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private void insertProduct(String id, int stock) {
+        jdbcTemplate.update("INSERT INTO products (id, name, prix, stock, stock_reserve, deleted, created_at) " +
+                "VALUES (?, ?, 100, ?, 0, false, now())", id, "Produit " + id, stock);
+    }
+
+    private List<String> insertClients(String prefix) {
+        jdbcTemplate.update("INSERT INTO clients (id, nom, email, tier, total_orders, total_spent, created_at) " +
+                "SELECT ? || g, 'Client ' || g, ? || g || '@smartshop.ma', 'BASIC', 0, 0, now() " +
+                "FROM generate_series(1, ?) g", prefix, prefix, THREADS);
+        return jdbcTemplate.queryForList("SELECT id FROM clients WHERE id LIKE ? ORDER BY id", String.class, prefix + "%");
+    }
+
+    private Map<String, Object> stockOf(String productId) {
+        return jdbcTemplate.queryForMap("SELECT stock, stock_reserve FROM products WHERE id = ?", productId);
+    }
+
+    private record RaceResult(int succeeded, long perSecond) {
+    }
+
+    /**
+     * Starts every attempt at once and returns how many succeeded and at what rate; an attempt may only fail on
+     * insufficient stock.
+     */
+    private RaceResult race(String label, int attempts, Attempt task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        List<Throwable> unexpected = new CopyOnWriteArrayList<>();
+        long perSecond;
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < attempts; i++) {
+                int attempt = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        if (task.run(attempt)) {
+                            succeeded.incrementAndGet();
+                        }
+                    } catch (BusinessException e) {
+                        // the losers of the race
+                    } catch (Throwable e) {
+                        unexpected.add(e);
+                    }
+                    return null;
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+            double seconds = (System.nanoTime() - begin) / 1e9;
+            perSecond = Math.round(attempts / seconds);
+            log.info("{}: {} attempts on {} threads in {} ms ({} per second), {} succeeded", label, attempts, THREADS,
+                    Math.round(seconds * 1000), perSecond, succeeded.get());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(List.of(), unexpected);
+        return new RaceResult(succeeded.get(), perSecond);
+    }
+
+    @FunctionalInterface
+    private interface Attempt {
+        boolean run(int index) throws Exception;
+    }
+
+    @Test
+    void createOrder_lastUnitsGoToExactlyAsManyCheckouts() throws Exception {
+        insertProduct("last-units", 5);
+        List<String> clients = insertClients("race-client-");
+
+        int succeeded = race("createOrder", THREADS, attempt -> {
+            orderService.createOrder(OrderCreateDTO.builder()
+                    .clientId(clients.get(attempt))
+                    .items(List.of(new OrderCreateDTO.OrderItemCreateDTO("last-units", 1)))
+                    .build());
+            return true;
+        }).succeeded();
+
+        Map<String, Object> stock = stockOf("last-units");
+        assertEquals(5, succeeded);
+        assertEquals(5, ((Number) stock.get("stock")).intValue());
+        assertEquals(5, ((Number) stock.get("stock_reserve")).intValue());
+        assertEquals(5, jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(quantite), 0) FROM stock_reservations WHERE produit_id = 'last-units'", Integer.class));
+    }
+
+    @Test
+    void decrementStock_neverTakesStockBelowZero() throws Exception {
+        insertProduct("decrement-race", 10);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        int succeeded = race("decrementStock", THREADS * 2, attempt -> Boolean.TRUE.equals(transactionTemplate.execute(
+                status -> productRepository.decrementStock("decrement-race", 1) == 1))).succeeded();
+
+        assertEquals(10, succeeded);
+        assertEquals(0, ((Number) stockOf("decrement-race").get("stock")).intValue());
+    }
+
+    @Test
+    void decrementStock_respectsUnitsHeldByReservations() throws Exception {
+        insertProduct("reserved-race", 10);
+        jdbcTemplate.update("UPDATE products SET stock_reserve = 4 WHERE id = 'reserved-race'");
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        int succeeded = race("decrementStock", THREADS, attempt -> Boolean.TRUE.equals(transactionTemplate.execute(
+                status -> productRepository.decrementStock("reserved-race", 2) == 1))).succeeded();
+
+        Map<String, Object> stock = stockOf("reserved-race");
+        assertEquals(3, succeeded);
+        assertEquals(4, ((Number) stock.get("stock")).intValue());
+        assertEquals(4, ((Number) stock.get("stock_reserve")).intValue());
+    }
+
+    /**
+     * The same race through the load, subtract and save path the conditional update replaced, logged next to the
+     * conditional update's rate. Only the conditional update is held to the stock it had: the baseline loses updates.
+     */
+    @Test
+    void decrementStock_comparedWithReadModifySave() throws Exception {
+        insertProduct("baseline-race", 10);
+        insertProduct("atomic-race", 10);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        RaceResult baseline = race("read-modify-save", THREADS * 2, attempt -> Boolean.TRUE.equals(transactionTemplate.execute(
+                status -> {
+                    Product product = productRepository.findById("baseline-race").orElseThrow();
+                    if (product.availableStock() < 1) {
+                        return false;
+                    }
+                    product.setStockDisponible(product.getStockDisponible() - 1);
+                    productRepository.save(product);
+                    return true;
+                })));
+        RaceResult atomic = race("decrementStock", THREADS * 2, attempt -> Boolean.TRUE.equals(transactionTemplate.execute(
+                status -> productRepository.decrementStock("atomic-race", 1) == 1)));
+
+        log.info("Orders per second on {} threads: read-modify-save {} ({} sold from 10, stock left {}), " +
+                        "conditional update {} ({} sold from 10, stock left {})", THREADS,
+                baseline.perSecond(), baseline.succeeded(), stockOf("baseline-race").get("stock"),
+                atomic.perSecond(), atomic.succeeded(), stockOf("atomic-race").get("stock"));
+        assertEquals(10, atomic.succeeded());
+        assertEquals(0, ((Number) stockOf("atomic-race").get("stock")).intValue());
+    }
+}
@@ -0,0 +1,181 @@
+package com.smartshop;
+
+import com.smartshop.cache.ProductCache;
+import com.smartshop.entity.*;
+import com.smartshop.enums.ReservationStatus;
+import com.smartshop.exception.BusinessException;
+import com.smartshop.repository.CatalogVersionRepository;
+import com.smartshop.repository.ProductRepository;
+import com.smartshop.repository.StockReservationRepository;
+import com.smartshop.service.LowStockAlertService;
+import com.smartshop.service.impl.StockReservationServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockReservationServiceImplTest {
+
+    @Mock
+    private StockReservationRepository stockReservationRepository;
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private CatalogVersionRepository catalogVersionRepository;
+    @Mock
+    private ProductCache productCache;
+    @Mock
+    private LowStockAlertService lowStockAlertService;
+
+    @InjectMocks
+    private StockReservationServiceImpl stockReservationService;
+
+    private Product keyboard;
+    private Product mouse;
+    private Order order;
+    private OrderItem keyboardLine;
+    private OrderItem mouseLine;
+
+    @BeforeEach
+    void setUp() {
+        keyboard = Product.builder().id("p-1").nom("Clavier").stockDisponible(10).build();
+        mouse = Product.builder().id("p-2").nom("Souris").stockDisponible(10).build();
+        order = Order.builder().id("order-1").build();
+        keyboardLine = OrderItem.builder().order(order).produit(keyboard).quantite(2).build();
+        mouseLine = OrderItem.builder().order(order).produit(mouse).quantite(3).build();
+        order.setItems(List.of(keyboardLine, mouseLine));
+    }
+
+    private StockReservation reservation(String id, Product product, int quantite) {
+        return StockReservation.builder().id(id).order(order).produit(product).quantite(quantite)
+                .expiresAt(LocalDateTime.now().plusMinutes(30)).build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reserve_holdsStockForEveryLine() {
+        when(productRepository.reserveStock(anyString(), anyInt())).thenReturn(1);
+
+        stockReservationService.reserve(order);
+
+        verify(productRepository).reserveStock("p-1", 2);
+        verify(productRepository).reserveStock("p-2", 3);
+        ArgumentCaptor<List<StockReservation>> saved = ArgumentCaptor.forClass(List.class);
+        verify(stockReservationRepository).saveAll(saved.capture());
+        assertEquals(2, saved.getValue().size());
+        assertTrue(saved.getValue().stream().allMatch(r -> r.getStatut() == ReservationStatus.ACTIVE));
+        verify(lowStockAlertService).checkThresholds(Map.of("p-1", 2, "p-2", 3));
+        verify(catalogVersionRepository).increment();
+    }
+
+    @Test
+    void reserve_rejectsTheOrderWhenALineCannotBeReserved() {
+        when(productRepository.reserveStock("p-1", 2)).thenReturn(1);
+        when(productRepository.reserveStock("p-2", 3)).thenReturn(0);
+
+        BusinessException ex = assertThrows(BusinessException.class, () -> stockReservationService.reserve(order));
+
+        assertTrue(ex.getMessage().contains("Souris"));
+        verify(stockReservationRepository, never()).saveAll(any());
+        verifyNoInteractions(lowStockAlertService);
+        verifyNoInteractions(catalogVersionRepository);
+    }
+
+    @Test
+    void confirm_commitsActiveReservationsAndReturnsLapsedLines() {
+        when(stockReservationRepository.existsByOrderId("order-1")).thenReturn(true);
+        when(stockReservationRepository.findByOrderIdAndStatut("order-1", ReservationStatus.ACTIVE))
+                .thenReturn(List.of(reservation("r-1", keyboard, 2)));
+        when(stockReservationRepository.transition("r-1", ReservationStatus.ACTIVE, ReservationStatus.CONFIRMED))
+                .thenReturn(1);
+        when(productRepository.commitReservedStock("p-1", 2)).thenReturn(1);
+
+        List<OrderItem> unreserved = stockReservationService.confirm(order);
+
+        assertEquals(List.of(mouseLine), unreserved);
+        verify(productRepository, never()).commitReservedStock(eq("p-2"), anyInt());
+        verifyNoInteractions(lowStockAlertService);
+    }
+
+    @Test
+    void confirm_treatsAReservationTheSweeperWonAsLapsed() {
+        when(stockReservationRepository.existsByOrderId("order-1")).thenReturn(true);
+        when(stockReservationRepository.findByOrderIdAndStatut("order-1", ReservationStatus.ACTIVE))
+                .thenReturn(List.of(reservation("r-1", keyboard, 2), reservation("r-2", mouse, 3)));
+        when(stockReservationRepository.transition(anyString(), eq(ReservationStatus.ACTIVE), eq(ReservationStatus.CONFIRMED)))
+                .thenReturn(0);
+
+        List<OrderItem> unreserved = stockReservationService.confirm(order);
+
+        assertEquals(List.of(keyboardLine, mouseLine), unreserved);
+        verify(productRepository, never()).commitReservedStock(anyString(), anyInt());
+    }
+
+    @Test
+    void confirm_skipsOrdersPlacedBeforeReservations() {
+        when(stockReservationRepository.existsByOrderId("order-1")).thenReturn(false);
+
+        assertTrue(stockReservationService.confirm(order).isEmpty());
+        verify(stockReservationRepository, never()).findByOrderIdAndStatut(anyString(), any());
+    }
+
+    @Test
+    void release_returnsReservedStockOnlyForReservationsItMoved() {
+        when(stockReservationRepository.existsByOrderId("order-1")).thenReturn(true);
+        when(stockReservationRepository.findByOrderIdAndStatut("order-1", ReservationStatus.ACTIVE))
+                .thenReturn(List.of(reservation("r-1", keyboard, 2), reservation("r-2", mouse, 3)));
+        when(stockReservationRepository.transition("r-1", ReservationStatus.ACTIVE, ReservationStatus.RELEASED)).thenReturn(1);
+        when(stockReservationRepository.transition("r-2", ReservationStatus.ACTIVE, ReservationStatus.RELEASED)).thenReturn(0);
+
+        assertTrue(stockReservationService.release(order));
+
+        verify(productRepository).releaseReservedStock("p-1", 2);
+        verify(productRepository, never()).releaseReservedStock(eq("p-2"), anyInt());
+    }
+
+    @Test
+    void release_reportsOrdersWithoutReservations() {
+        when(stockReservationRepository.existsByOrderId("order-1")).thenReturn(false);
+
+        assertFalse(stockReservationService.release(order));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void releaseExpired_expiresTheBatchAndReleasesStockPerProduct() {
+        when(stockReservationRepository.findExpiredForUpdate(eq(ReservationStatus.ACTIVE), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(reservation("r-1", keyboard, 2), reservation("r-2", keyboard, 1), reservation("r-3", mouse, 3)));
+
+        int released = stockReservationService.releaseExpired(500);
+
+        assertEquals(3, released);
+        verify(stockReservationRepository).transitionAll(List.of("r-1", "r-2", "r-3"),
+                ReservationStatus.ACTIVE, ReservationStatus.EXPIRED);
+        verify(productRepository).releaseReservedStock("p-1", 3);
+        verify(productRepository).releaseReservedStock("p-2", 3);
+        verify(catalogVersionRepository).increment();
+    }
+
+    @Test
+    void releaseExpired_doesNothingWhenNoReservationExpired() {
+        when(stockReservationRepository.findExpiredForUpdate(eq(ReservationStatus.ACTIVE), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        assertEquals(0, stockReservationService.releaseExpired(500));
+        verify(stockReservationRepository, never()).transitionAll(any(), any(), any());
+        verifyNoInteractions(productRepository);
+    }
+}
@@ -0,0 +1,35 @@
+package com.smartshop;
+
+import com.smartshop.scheduler.StockReservationSweeper;
+import com.smartshop.service.StockReservationService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockReservationSweeperTest {
+
+    @Mock
+    private StockReservationService stockReservationService;
+
+    @Test
+    void releaseExpiredReservations_keepsSweepingWhileBatchesComeBackFull() {
+        when(stockReservationService.releaseExpired(100)).thenReturn(100, 100, 37);
+
+        new StockReservationSweeper(stockReservationService, 100).releaseExpiredReservations();
+
+        verify(stockReservationService, times(3)).releaseExpired(100);
+    }
+
+    @Test
+    void releaseExpiredReservations_stopsAfterAnEmptyBatch() {
+        when(stockReservationService.releaseExpired(100)).thenReturn(0);
+
+        new StockReservationSweeper(stockReservationService, 100).releaseExpiredReservations();
+
+        verify(stockReservationService, times(1)).releaseExpired(100);
+    }
+}
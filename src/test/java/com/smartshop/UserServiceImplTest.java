@@ -0,0 +1,85 @@
+package com.smartshop;
+
+import com.smartshop.dto.response.UserResponseDTO;
+import com.smartshop.entity.User;
+import com.smartshop.enums.UserRole;
+import com.smartshop.exception.BusinessException;
+import com.smartshop.mapper.UserMapper;
+import com.smartshop.repository.UserRepository;
+import com.smartshop.security.PasswordHasher;
+import com.smartshop.service.impl.UserServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserMapper userMapper;
+
+    @Mock
+    private PasswordHasher passwordHasher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private UserServiceImpl userService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder()
+                .id("1")
+                .username("testuser")
+                .password("hashed")
+                .role(UserRole.CLIENT)
+                .build();
+    }
+
+    @Test
+    void login_verifiesThePasswordAfterTheLookupTransactionCommitted() {
+        MockHttpSession session = new MockHttpSession();
+        UserResponseDTO response = UserResponseDTO.builder().id("1").username("testuser").role(UserRole.CLIENT).build();
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(passwordHasher.verify("password", "hashed")).thenReturn(true);
+        when(userMapper.toUserResponseDTO(user)).thenReturn(response);
+
+        assertSame(response, userService.login("testuser", "password", session));
+
+        InOrder inOrder = inOrder(transactionManager, userRepository, passwordHasher);
+        inOrder.verify(transactionManager).getTransaction(argThat(definition -> definition.isReadOnly()));
+        inOrder.verify(userRepository).findByUsername("testuser");
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(passwordHasher).verify("password", "hashed");
+        verifyNoMoreInteractions(transactionManager);
+        assertEquals("1", session.getAttribute("USER_ID"));
+        assertEquals("CLIENT", session.getAttribute("USER_ROLE"));
+    }
+
+    @Test
+    void login_rejectsAWrongPasswordWithoutASession() {
+        MockHttpSession session = new MockHttpSession();
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(passwordHasher.verify("wrong", "hashed")).thenReturn(false);
+
+        assertThrows(BusinessException.class, () -> userService.login("testuser", "wrong", session));
+
+        assertNull(session.getAttribute("USER_ID"));
+        verify(transactionManager).commit(any());
+    }
+}